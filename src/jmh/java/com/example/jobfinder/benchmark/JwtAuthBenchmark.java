@@ -0,0 +1,104 @@
+package com.example.jobfinder.benchmark;
+
+import com.example.jobfinder.config.JwtRequestFilter;
+import com.example.jobfinder.config.JwtUtil;
+import com.example.jobfinder.service.BlockedUserRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí xác thực JWT trên mỗi request, trước và sau khi verify một lần với key dựng sẵn.
+ * - legacy*: đường cũ, parse lại token 4 lần (username, role, rồi validateToken đọc username + expiration),
+ *   mỗi lần dựng parser và giải mã key từ chuỗi base64
+ * - parseClaims*: JwtUtil hiện tại, có và không có cache token đã verify
+ * - filter*: cả JwtRequestFilter (stateless và qua UserDetailsService trong bộ nhớ, không tính độ trễ DB)
+ * Chạy: mvn -P benchmark test-compile exec:exec -Djmh.args="JwtAuthBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthBenchmark {
+    // Cùng secret với JwtUtil để token do JwtUtil ký verify được theo đường cũ
+    private static final String SECRET_KEY = "5ygyOVnyfL0hlFRfCsi3ViVFvoXsvOvb0WFXwHZGEPdXPWuPtQGoyfpCeVJjWyvm";
+    private static final String EMAIL = "seeker@example.com";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private String token;
+    private JwtRequestFilter statelessFilter;
+    private JwtRequestFilter userDetailsFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        uncachedJwtUtil = new JwtUtil(false, 0);
+        cachedJwtUtil = new JwtUtil(true, 10_000);
+        token = cachedJwtUtil.generateToken(EMAIL, "JOB_SEEKER", 42L, true);
+
+        UserDetailsService inMemoryUsers = username ->
+                new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_JOB_SEEKER")));
+        BlockedUserRegistry blockedUserRegistry = new BlockedUserRegistry(null, false);
+        statelessFilter = new JwtRequestFilter(inMemoryUsers, cachedJwtUtil, blockedUserRegistry, true);
+        userDetailsFilter = new JwtRequestFilter(inMemoryUsers, cachedJwtUtil, blockedUserRegistry, false);
+
+        request = new MockHttpServletRequest("GET", "/api/jobs");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyClaims(token).getSubject();
+        String role = legacyClaims(token).get("role", String.class);
+        boolean valid = legacyClaims(token).getSubject().equals(username)
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid && role != null;
+    }
+
+    @Benchmark
+    public Claims parseClaimsUncached() {
+        return uncachedJwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseClaimsCached() {
+        return cachedJwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public int filterStateless() throws Exception {
+        return runFilter(statelessFilter);
+    }
+
+    @Benchmark
+    public int filterUserDetails() throws Exception {
+        return runFilter(userDetailsFilter);
+    }
+
+    private int runFilter(JwtRequestFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+}
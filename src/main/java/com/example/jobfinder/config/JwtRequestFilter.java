@@ -1,15 +1,20 @@
 package com.example.jobfinder.config;
 
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.exception.ErrorCode;
+import com.example.jobfinder.service.BlockedUserRegistry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -23,10 +28,16 @@ import java.util.Collections;
 public class JwtRequestFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final BlockedUserRegistry blockedUserRegistry;
+    private final boolean statelessEnabled;
 
-    public JwtRequestFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtRequestFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil,
+                            BlockedUserRegistry blockedUserRegistry,
+                            @Value("${app.security.stateless.enabled:false}") boolean statelessEnabled) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.blockedUserRegistry = blockedUserRegistry;
+        this.statelessEnabled = statelessEnabled;
     }
 
     @Override
@@ -42,14 +53,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
         String role = null;
+        Claims claims = null;
 
         try {
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                jwt = authorizationHeader.substring(7);
-                username = jwtUtil.extractUsername(jwt);
-                role = jwtUtil.extractRole(jwt);
+                String jwt = authorizationHeader.substring(7);
+                // Verify chữ ký một lần, các bước sau chỉ đọc Claims
+                claims = jwtUtil.parseClaims(jwt);
+                username = claims.getSubject();
+                role = JwtUtil.getRole(claims);
+                request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
             }
         } catch (ExpiredJwtException e) {
             setErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, ErrorCode.TOKEN_EXPIRED);
@@ -59,19 +73,37 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null && statelessEnabled) {
+            AuthenticatedPrincipal principal = JwtUtil.toPrincipal(claims);
+            if (principal != null) {
+                // Stateless: dựng Authentication từ claims, chỉ kiểm tra danh sách khoá trong bộ nhớ
+                if (!Boolean.TRUE.equals(principal.getActive()) || blockedUserRegistry.isBlocked(principal.getId())) {
+                    setErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, ErrorCode.ACCOUNT_BLOCKED);
+                    return;
+                }
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
+                UserDetails userDetails = new User(username, "", Collections.singletonList(authority));
+                setAuthentication(request, userDetails, authority);
+            }
+        }
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if(jwtUtil.validateToken(jwt, userDetails.getUsername())){
+            if(jwtUtil.isValidFor(claims, userDetails.getUsername())){
                 SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, Collections.singletonList(authority));
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                setAuthentication(request, userDetails, authority);
             }
         }
         chain.doFilter(request, response);
     }
 
+    private void setAuthentication(HttpServletRequest request, UserDetails userDetails, SimpleGrantedAuthority authority) {
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, Collections.singletonList(authority));
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
     private void setErrorResponse(HttpServletResponse response, int status, ErrorCode errorCode) throws IOException {
         response.setStatus(status);
         response.setContentType("application/json");
@@ -1,20 +1,69 @@
 package com.example.jobfinder.config;
 
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.exception.AppException;
 import com.example.jobfinder.exception.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    // Tên attribute lưu Claims đã verify trên HttpServletRequest (do JwtRequestFilter gán)
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".CLAIMS";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ACTIVE_CLAIM = "active";
+
     private final String SECRET_KEY = "5ygyOVnyfL0hlFRfCsi3ViVFvoXsvOvb0WFXwHZGEPdXPWuPtQGoyfpCeVJjWyvm";
 
+    // Key và parser dựng một lần; JwtParser là immutable, dùng chung giữa các thread được
+    private final SecretKey signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // Token đã verify gần đây -> Claims, mỗi entry hết hạn đúng lúc token hết hạn
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil(@Value("${app.security.jwt.verified-cache.enabled:true}") boolean verifiedCacheEnabled,
+                   @Value("${app.security.jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize) {
+        this.verifiedTokens = verifiedCacheEnabled
+                ? Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new TokenExpiry())
+                    .build()
+                : null;
+    }
+
+    /**
+     * Verify chữ ký + hạn dùng một lần và trả về Claims.
+     * Ném ExpiredJwtException / JwtException như parser của jjwt.
+     */
+    public Claims parseClaims(String token) {
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (verifiedTokens != null && claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -24,25 +73,43 @@ public class JwtUtil {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractClaim(token, JwtUtil::getRole);
+    }
+
+    public static String getRole(Claims claims) {
+        return claims.get("role", String.class);
+    }
+
+    /**
+     * Dựng principal chỉ từ claims (chế độ stateless).
+     * Token cấp trước khi có claim uid/active thì trả về null để caller fallback về DB.
+     */
+    public static AuthenticatedPrincipal toPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Boolean active = claims.get(ACTIVE_CLAIM, Boolean.class);
+        String role = getRole(claims);
+        if (userId == null || active == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedPrincipal(userId, claims.getSubject(), role, active);
     }
 
     public<T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaim(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaim(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return validateToken(token, userDetails.getUsername());
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    // Kiểm tra trên Claims đã parse, không verify lại chữ ký
+    public boolean isValidFor(Claims claims, String username) {
+        return username.equals(claims.getSubject()) && !isExpired(claims);
     }
 
     public String generateToken(String username, String role) {
@@ -51,6 +118,15 @@ public class JwtUtil {
         return createToken(claims, username);
     }
 
+    // Token kèm id và trạng thái active để filter không cần truy vấn DB
+    public String generateToken(String username, String role, Long userId, Boolean active) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", role);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ACTIVE_CLAIM, active);
+        return createToken(claims, username);
+    }
+
     public String createToken(Map<String, Object> claims, String subject) {
         try {
             return Jwts.builder()
@@ -58,7 +134,7 @@ public class JwtUtil {
                     .setSubject(subject)
                     .setIssuedAt(new Date(System.currentTimeMillis()))
                     .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60*60))
-                    .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                    .signWith(signingKey, SignatureAlgorithm.HS256)
                     .compact();
         } catch(ExpiredJwtException e) {
             throw new AppException(ErrorCode.TOKEN_EXPIRED);
@@ -68,7 +144,24 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return isValidFor(parseClaims(token), username);
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
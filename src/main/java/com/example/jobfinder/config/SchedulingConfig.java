@@ -0,0 +1,21 @@
+package com.example.jobfinder.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler cho các tác vụ @Scheduled.
+ * Khi bật virtual threads, Spring Boot mặc định dùng SimpleAsyncTaskScheduler: tác vụ fixedDelay đều chạy
+ * trên chung một thread của scheduler, nên một lần aggregate/drain outbox chậm sẽ làm trễ các flusher khác.
+ * Khai báo pool riêng (spring.task.scheduling.pool.size) để các tác vụ chạy song song với nhau.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -2,6 +2,7 @@
 package com.example.jobfinder.controller;
 
 import com.example.jobfinder.dto.ApiResponse;
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.chatbot.ChatbotMessageRequest;
 import com.example.jobfinder.dto.chatbot.ChatbotHistoryResponse;
 import com.example.jobfinder.service.ChatbotService;
@@ -11,10 +12,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -36,11 +39,20 @@ public class ChatbotController {
                 .build();
     }
 
+    // SSE: event "token" cho từng đoạn câu trả lời, "done" kèm lịch sử đã lưu, "error" nếu thất bại
+    @PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public Flux<ServerSentEvent<Object>> streamMessageToChatbot(@RequestBody @Valid ChatbotMessageRequest request) {
+        return chatbotService.streamMessageToChatbot(request);
+    }
+
     @GetMapping("/my-history")
     @PreAuthorize("isAuthenticated()")
-    public ApiResponse<List<ChatbotHistoryResponse>> getMyChatbotHistory() {
-        List<ChatbotHistoryResponse> response = chatbotService.getMyChatbotHistory();
-        return ApiResponse.<List<ChatbotHistoryResponse>>builder()
+    public ApiResponse<CursorPageResponse<ChatbotHistoryResponse>> getMyChatbotHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ChatbotHistoryResponse> response = chatbotService.getMyChatbotHistory(cursor, size);
+        return ApiResponse.<CursorPageResponse<ChatbotHistoryResponse>>builder()
                 .code(HttpStatus.OK.value())
                 .message("My chatbot history fetched successfully")
                 .result(response)
@@ -80,9 +92,11 @@ public class ChatbotController {
 
     @GetMapping("/all-chatbot-history")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<List<ChatbotHistoryResponse>> getAllChatbotHistory() {
-        List<ChatbotHistoryResponse> response = chatbotService.getAllChatbotHistoryForAdmin();
-        return ApiResponse.<List<ChatbotHistoryResponse>>builder()
+    public ApiResponse<CursorPageResponse<ChatbotHistoryResponse>> getAllChatbotHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ChatbotHistoryResponse> response = chatbotService.getAllChatbotHistoryForAdmin(cursor, size);
+        return ApiResponse.<CursorPageResponse<ChatbotHistoryResponse>>builder()
                 .code(HttpStatus.OK.value())
                 .message("All chatbot history fetched successfully (Admin access)")
                 .result(response)
@@ -25,7 +25,9 @@ public class EmployerSearchController {
             @RequestParam(required = false) Long organizationId,
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) throws IOException {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean pit) throws IOException {
 
         EmployerSearchRequest request = EmployerSearchRequest.builder()
                 .name(name)
@@ -34,6 +36,8 @@ public class EmployerSearchController {
                 .keyword(keyword)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .pit(pit)
                 .build();
 
         return employerSearchService.search(request);
@@ -1,26 +1,41 @@
 package com.example.jobfinder.controller;
 
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.job.JobSearchRequest;
 import com.example.jobfinder.dto.job.JobSearchResponse;
+import com.example.jobfinder.model.JobDocument;
+import com.example.jobfinder.service.CurrentPrincipal;
+import com.example.jobfinder.service.JobExportService;
 import com.example.jobfinder.service.JobSearchService;
 import com.example.jobfinder.service.JobSuggestionService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/jobs/")
 public class JobSearchController {
+    private static final Set<String> SUPPORTED_SORTS = Set.of("asc", "desc", "popular", "trending");
+
     private final JobSuggestionService jobSuggestionService;
     private final JobSearchService jobSearchService;
+    private final JobExportService jobExportService;
+    private final CurrentPrincipal currentPrincipal;
 
-    public JobSearchController(JobSuggestionService jobSuggestionService, JobSearchService jobSearchService) {
+    public JobSearchController(JobSuggestionService jobSuggestionService, JobSearchService jobSearchService,
+                               JobExportService jobExportService, CurrentPrincipal currentPrincipal) {
         this.jobSuggestionService = jobSuggestionService;
         this.jobSearchService = jobSearchService;
+        this.jobExportService = jobExportService;
+        this.currentPrincipal = currentPrincipal;
     }
 
     @GetMapping("/search")
@@ -36,7 +51,10 @@ public class JobSearchController {
                                         @RequestParam(required = false) Float salaryMin,
                                         @RequestParam(required = false) Float salaryMax,
                                         @RequestParam(required = false) Boolean isNegotiable,
-                                        @RequestParam(required = false) String sort) throws IOException {
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Boolean pit,
+                                        @RequestParam(required = false) Boolean facets) throws IOException {
 
         JobSearchRequest request = new JobSearchRequest();
         request.setKeyword(keyword);
@@ -49,12 +67,15 @@ public class JobSearchController {
         request.setSalaryMin(salaryMin);
         request.setSalaryMax(salaryMax);
         request.setSalaryNegotiable(isNegotiable);
-        if (sort != null && !sort.equalsIgnoreCase("asc") && !sort.equalsIgnoreCase("desc")) {
+        if (sort != null && !SUPPORTED_SORTS.contains(sort.toLowerCase())) {
             sort = null;
         }
         request.setSort(sort);
         request.setPage(page);
         request.setSize(size);
+        request.setCursor(cursor);
+        request.setPit(pit);
+        request.setFacets(facets);
 
         if ((keyword == null || keyword.isEmpty()) && location == null && categoryId == null
                 && jobLevelId == null && jobTypeId == null && educationId == null 
@@ -66,6 +87,23 @@ public class JobSearchController {
         return jobSearchService.searchWithIsSaveStatus(request);
     }
 
+    // Toàn bộ job đang mở dạng NDJSON (mỗi dòng một JobDocument), ghi dần ra response
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportJobs() {
+        Long userId = currentPrincipal.getUserIdOrNull();
+        StreamingResponseBody body = out -> jobExportService.exportActiveJobs(out, userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Bản phân trang theo con trỏ của /export
+    @GetMapping("/export/page")
+    public CursorPageResponse<JobDocument> exportJobsPage(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return jobExportService.getActiveJobsPage(currentPrincipal.getUserIdOrNull(), cursor, size);
+    }
+
     @GetMapping("/suggest")
     public List<String> suggest(@RequestParam String keyword) throws IOException {
         return jobSuggestionService.suggestTitles(keyword);
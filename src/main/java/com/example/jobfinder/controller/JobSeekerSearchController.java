@@ -28,7 +28,9 @@ public class JobSeekerSearchController {
             @RequestParam(required = false) Long experienceId,
             @RequestParam(required = false) String location,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) throws IOException {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean pit) throws IOException {
 
         JobSeekerSearchRequest request = JobSeekerSearchRequest.builder()
 
@@ -37,6 +39,8 @@ public class JobSeekerSearchController {
                 .location(location)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .pit(pit)
                 .build();
 
         return jobSeekerSearchService.search(request);
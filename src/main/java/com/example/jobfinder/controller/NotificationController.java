@@ -1,20 +1,26 @@
 package com.example.jobfinder.controller;
 
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.notification.NotificationResponse;
 import com.example.jobfinder.model.User;
 import com.example.jobfinder.repository.UserRepository;
+import com.example.jobfinder.service.CurrentPrincipal;
 import com.example.jobfinder.service.NotificationService;
+import com.example.jobfinder.service.NotificationStreamService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -24,16 +30,29 @@ public class NotificationController {
 
     NotificationService notificationService;
     UserRepository userRepository;
+    NotificationStreamService notificationStreamService;
+    CurrentPrincipal currentPrincipal;
+
+    // SSE: nhận thông báo mới và số chưa đọc theo thời gian thực thay vì poll /unread
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamMyNotifications() {
+        Long userId = currentPrincipal.require().getId();
+        return notificationStreamService.subscribe(userId);
+    }
 
-    @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getMyNotifications(Authentication authentication) {
-        String userEmail = authentication.getName();
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException(userEmail));
-        Long userId = user.getId();
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Integer>> getMyUnreadCount() {
+        Long userId = currentPrincipal.require().getId();
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(userId)));
+    }
 
-        List<NotificationResponse> notifications = notificationService.getNotificationsForUser(userId);
-        return ResponseEntity.ok(notifications);
+    // Phân trang theo con trỏ: truyền lại nextCursor của trang trước để lấy trang tiếp theo
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<NotificationResponse>> getMyNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = currentPrincipal.require().getId();
+        return ResponseEntity.ok(notificationService.getNotificationsForUser(userId, cursor, size));
     }
 
     @GetMapping("/unread")
@@ -72,18 +91,15 @@ public class NotificationController {
     }
 
     @GetMapping("/get-saved-job")
-    public ResponseEntity<List<NotificationResponse>> getUserNotifications() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+    public ResponseEntity<CursorPageResponse<NotificationResponse>> getUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (!currentPrincipal.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException(email));
-
-        List<NotificationResponse> notifications = notificationService.getNotificationsForUser(user.getId());
-        return ResponseEntity.ok(notifications);
+        Long userId = currentPrincipal.require().getId();
+        return ResponseEntity.ok(notificationService.getNotificationsForUser(userId, cursor, size));
     }
 
     @DeleteMapping("/clear-all")
@@ -1,7 +1,7 @@
 package com.example.jobfinder.controller;
 
 import com.example.jobfinder.dto.job.*;
-import com.example.jobfinder.repository.*;
+import com.example.jobfinder.service.ReferenceDataCache;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -14,22 +14,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class OptionController {
-    JobTypeRepository jobTypeRepository;
-    JobLevelRepository jobLevelRepository;
-    EducationRepository educationRepository;
-    CategoryRepository categoryRepository;
-    ExperienceRepository experienceRepository;
-    OrganizationRepository organizationRepository;
+    ReferenceDataCache referenceDataCache;
 
     @GetMapping("/all")
     public JobOptionsResponse getAllOptions() {
-        return new JobOptionsResponse(
-                jobTypeRepository.findAll().stream().map(JobTypeDTO::fromEntity).toList(),
-                jobLevelRepository.findAll().stream().map(JobLevelDTO::fromEntity).toList(),
-                educationRepository.findAll().stream().map(EducationDTO::fromEntity).toList(),
-                categoryRepository.findAll().stream().map(CategoryDTO::fromEntity).toList(),
-                experienceRepository.findAll().stream().map(ExperienceDTO::fromEntity).toList(),
-                organizationRepository.findAll().stream().map(OrganizationDTO::fromEntity).toList()
-        );
+        return referenceDataCache.getOptions();
     }
 }
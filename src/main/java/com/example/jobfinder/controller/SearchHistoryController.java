@@ -2,6 +2,7 @@
 package com.example.jobfinder.controller;
 
 import com.example.jobfinder.dto.ApiResponse;
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.searchHistory.SearchHistoryRequest;
 import com.example.jobfinder.dto.searchHistory.SearchHistoryResponse;
 import com.example.jobfinder.service.SearchHistoryService;
@@ -91,13 +92,16 @@ public class SearchHistoryController {
      * Lấy tất cả lịch sử tìm kiếm trong hệ thống (dành cho Admin).
      * Endpoint: GET /search-history
      * Yêu cầu: Quyền ADMIN.
-     * @return ApiResponse chứa danh sách SearchHistoryResponse.
+     * Phân trang theo con trỏ: truyền lại nextCursor của trang trước để lấy trang tiếp theo.
+     * @return ApiResponse chứa một trang SearchHistoryResponse.
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')") // Chỉ ADMIN mới có thể xem tất cả lịch sử
-    public ApiResponse<List<SearchHistoryResponse>> getAllSearchHistory() {
-        List<SearchHistoryResponse> response = searchHistoryService.getAllSearchHistoryForAdmin();
-        return ApiResponse.<List<SearchHistoryResponse>>builder()
+    public ApiResponse<CursorPageResponse<SearchHistoryResponse>> getAllSearchHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<SearchHistoryResponse> response = searchHistoryService.getAllSearchHistoryForAdmin(cursor, size);
+        return ApiResponse.<CursorPageResponse<SearchHistoryResponse>>builder()
                 .code(HttpStatus.OK.value())
                 .message("All search history fetched successfully (Admin access)")
                 .result(response)
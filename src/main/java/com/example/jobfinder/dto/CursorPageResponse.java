@@ -0,0 +1,47 @@
+package com.example.jobfinder.dto;
+
+import com.example.jobfinder.util.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+// Trang kết quả phân trang theo con trỏ (keyset): không có tổng số bản ghi,
+// client gửi lại nextCursor để lấy trang tiếp theo (null khi đã hết)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+
+    /**
+     * Dựng trang từ danh sách đã truy vấn dư 1 bản ghi (limit = size + 1):
+     * có bản ghi dư nghĩa là còn trang sau, con trỏ lấy từ bản ghi cuối cùng được trả về.
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int size,
+                                                  Function<E, LocalDateTime> createdAt,
+                                                  Function<E, Long> id,
+                                                  Function<E, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            E last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(createdAt.apply(last), id.apply(last));
+        }
+        return CursorPageResponse.<T>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
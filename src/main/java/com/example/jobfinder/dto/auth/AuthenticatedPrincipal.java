@@ -0,0 +1,20 @@
+package com.example.jobfinder.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Objects;
+
+// Thông tin tối thiểu của người dùng đang đăng nhập (id, email, vai trò, trạng thái active).
+@Getter
+@AllArgsConstructor
+public class AuthenticatedPrincipal {
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final Boolean active;
+
+    public boolean hasRole(String roleName) {
+        return Objects.equals(role, roleName);
+    }
+}
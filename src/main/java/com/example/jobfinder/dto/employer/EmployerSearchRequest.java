@@ -12,6 +12,10 @@ public class EmployerSearchRequest {
     private String location;
     private Long organizationId;
     private String keyword;
+    // Phân trang theo cursor (search_after): "*" cho trang đầu, sau đó gửi lại nextCursor; khi có cursor thì bỏ qua page
+    private String cursor;
+    // Giữ point-in-time trong suốt quá trình cuộn (chỉ xét ở trang đầu)
+    private Boolean pit;
     private Integer page = 1;
     private Integer size = 10;
 }
@@ -15,8 +15,13 @@ public class EmployerSearchResponse {
     private long totalHits;
     private int page;
     private int size;
+    // Chỉ có ở chế độ cursor (page = 0); null khi đã hết kết quả
+    private String nextCursor;
     
     public boolean isHasNext() {
+        if (page == 0) {
+            return nextCursor != null;
+        }
         return (long) page * size < totalHits;
     }
     
@@ -0,0 +1,4 @@
+package com.example.jobfinder.dto.job;
+
+// Một giá trị của facet: id (null với facet theo chuỗi như location), tên hiển thị và số job khớp
+public record FacetBucket(Long id, String name, long count) {}
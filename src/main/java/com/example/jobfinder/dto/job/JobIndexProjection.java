@@ -0,0 +1,26 @@
+package com.example.jobfinder.dto.job;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Dòng dữ liệu phẳng để build JobDocument khi reindex, không hydrate entity Job
+public interface JobIndexProjection {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getLocation();
+    Long getEmployerId();
+    String getCompanyName();
+    Long getCategoryId();
+    Long getJobLevelId();
+    Long getJobTypeId();
+    Long getEducationId();
+    Long getExperienceId();
+    Float getSalaryMin();
+    Float getSalaryMax();
+    Boolean getActive();
+    LocalDate getExpiredDate();
+    LocalDateTime getCreatedAt();
+    Long getApplicationCount();
+    Long getViewCount();
+}
@@ -0,0 +1,21 @@
+package com.example.jobfinder.dto.job;
+
+import lombok.*;
+
+import java.util.List;
+
+// Số job theo từng giá trị bộ lọc, tính trên cùng truy vấn tìm kiếm (cùng các bộ lọc đang chọn)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JobSearchFacets {
+    private List<FacetBucket> categories;
+    private List<FacetBucket> jobLevels;
+    private List<FacetBucket> jobTypes;
+    private List<FacetBucket> educations;
+    private List<FacetBucket> experiences;
+    private List<FacetBucket> locations;
+    private List<SalaryBucket> salaries;
+}
@@ -13,9 +13,17 @@ public class JobSearchRequest {
     private Float salaryMin;
     private Float salaryMax;
     private Long educationId;
+    // "asc"/"desc" theo ngày đăng, "popular" hoặc "trending" theo độ phổ biến (function_score)
     private String sort;
     private Boolean salaryNegotiable;
 
+    // Phân trang theo cursor (search_after): "*" cho trang đầu, sau đó gửi lại nextCursor; khi có cursor thì bỏ qua page
+    private String cursor;
+    // Giữ point-in-time trong suốt quá trình cuộn (chỉ xét ở trang đầu)
+    private Boolean pit;
+    // Trả kèm số đếm theo từng bộ lọc (facets) trong cùng một truy vấn
+    private Boolean facets;
+
     private Integer page = 0;
     private Integer size = 10;
 
@@ -16,4 +16,8 @@ public class JobSearchResponse {
     private long totalHits;
     private int page;
     private int size;
+    // Chỉ có ở chế độ cursor; null khi đã hết kết quả
+    private String nextCursor;
+    // Chỉ có khi request yêu cầu facets
+    private JobSearchFacets facets;
 }
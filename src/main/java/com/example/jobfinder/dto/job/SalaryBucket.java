@@ -0,0 +1,4 @@
+package com.example.jobfinder.dto.job;
+
+// Khoảng lương [from, to) theo salaryMin và số job khớp
+public record SalaryBucket(double from, double to, long count) {}
@@ -11,6 +11,10 @@ public class JobSeekerSearchRequest {
     private Long educationId;
     private Long experienceId;
     private String location;
+    // Phân trang theo cursor (search_after): "*" cho trang đầu, sau đó gửi lại nextCursor; khi có cursor thì bỏ qua page
+    private String cursor;
+    // Giữ point-in-time trong suốt quá trình cuộn (chỉ xét ở trang đầu)
+    private Boolean pit;
     private Integer page = 1;
     private Integer size = 10;
 }
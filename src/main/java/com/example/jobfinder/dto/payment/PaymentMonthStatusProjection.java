@@ -0,0 +1,10 @@
+package com.example.jobfinder.dto.payment;
+
+// Tổng tiền và số lượng payment theo tháng (theo paidAt) và trạng thái payOS
+public interface PaymentMonthStatusProjection {
+    Integer getPaidYear();
+    Integer getPaidMonth();
+    String getStatus();
+    Double getTotalAmount();
+    Long getPaymentCount();
+}
@@ -0,0 +1,23 @@
+package com.example.jobfinder.dto.user;
+
+// Dòng dữ liệu phẳng để build UserDocument khi reindex, không hydrate entity UserDetail/User
+public interface UserIndexProjection {
+    Long getId();
+    String getEmail();
+    String getFullName();
+    String getCompanyName();
+    String getLocation();
+    String getDescription();
+    String getWebsite();
+    String getAvatarUrl();
+    String getPhone();
+    String getTeamSize();
+    Integer getYearOfEstablishment();
+    String getMapLocation();
+    Long getRoleId();
+    String getRoleName();
+    Long getEducationId();
+    Long getOrganizationId();
+    Long getExperienceId();
+    Long getActiveJobCount();
+}
@@ -15,6 +15,7 @@ public enum ErrorCode {
     INVALID_PARAMETER(1002, "Invalid parameter"), // Tham số không hợp lệ (có thể kèm thông tin chi tiết từ validation)
     INVALID_INPUT_DATA(1003, "Invalid input data"), // Dữ liệu đầu vào chung không hợp lệ (validation tổng quát)
     ACCOUNT_BLOCKED(1004, "Account is blocked"), // Tài khoản bị khóa (có thể do vi phạm quy định)
+    INVALID_CURSOR(1005, "Invalid pagination cursor"), // Con trỏ phân trang bị sửa hoặc không đúng định dạng
 
     // -----------------------------------------------------------
     // Nhóm lỗi xác thực & phân quyền (Authentication & Authorization Errors) - Mã từ 2000 đến 2999
@@ -179,6 +180,7 @@ public enum ErrorCode {
     AI_SERVICE_ERROR(2027, "AI service error" ),
     AI_PARSE_ERROR(2028, "AI parse error" ),
     INVALID_PLAN_CONFIGURATION(2029, "Invalid plan configuration" ),
+    AI_SERVICE_BUSY(2030, "AI service is busy, please try again later"), // Quá số lời gọi LLM đồng thời cho phép
 
 
     EXPERIENCE_EXISTED(2015, "EXPERIENCE_EXISTED"),
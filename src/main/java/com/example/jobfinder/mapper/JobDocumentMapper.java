@@ -1,15 +1,21 @@
 package com.example.jobfinder.mapper;
 
+import com.example.jobfinder.dto.job.JobIndexProjection;
 import com.example.jobfinder.dto.job.JobResponse;
 import com.example.jobfinder.dto.simple.SimpleNameResponse;
+import com.example.jobfinder.model.Job;
 import com.example.jobfinder.model.JobDocument;
 import com.example.jobfinder.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.format.DateTimeFormatter;
+
 @Component
 @RequiredArgsConstructor
 public class JobDocumentMapper {
+    private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter EXPIRED_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     private final EducationRepository educationRepository;
     private final CategoryRepository categoryRepository;
@@ -37,6 +43,75 @@ public class JobDocumentMapper {
         return response;
     }
 
+    // Job -> JobDocument dùng chung cho sync/indexing, các quan hệ nên được fetch sẵn
+    public JobDocument toDocument(Job job, Long applicationCount, Long viewCount) {
+        JobDocument doc = new JobDocument();
+        doc.setId(job.getId());
+        doc.setTitle(job.getTitle());
+        doc.setDescription(job.getDescription());
+        doc.setLocation(job.getLocation());
+        doc.setEmployerId(job.getEmployer().getId());
+        if (job.getEmployer().getUserDetail() != null) {
+            doc.setCompanyName(job.getEmployer().getUserDetail().getCompanyName());
+        }
+        doc.setCategoryId(job.getCategory().getId());
+        if (job.getJobLevel() != null) {
+            doc.setJobLevelId(job.getJobLevel().getId());
+        }
+        if (job.getJobType() != null) {
+            doc.setJobTypeId(job.getJobType().getId());
+        }
+        if (job.getEducation() != null) {
+            doc.setEducationId(job.getEducation().getId());
+        }
+        if (job.getExperience() != null) {
+            doc.setExperience(job.getExperience().getId());
+        }
+        doc.setSalaryMin(job.getSalaryMin());
+        doc.setSalaryMax(job.getSalaryMax());
+        doc.setActive(job.getActive());
+        doc.setIsSave(false);
+        doc.setExpiredDate(job.getExpiredDate() != null
+                ? job.getExpiredDate().format(EXPIRED_DATE_FORMATTER)
+                : null);
+        doc.setCreatedAt(job.getCreatedAt() != null
+                ? job.getCreatedAt().format(CREATED_AT_FORMATTER)
+                : null);
+        doc.setJobApplicationCounts(applicationCount);
+        doc.setApplicantCount(applicationCount != null ? applicationCount.intValue() : 0);
+        doc.setViewCount(viewCount != null ? viewCount.intValue() : 0);
+        return doc;
+    }
+
+    public JobDocument toDocument(JobIndexProjection row) {
+        JobDocument doc = new JobDocument();
+        doc.setId(row.getId());
+        doc.setTitle(row.getTitle());
+        doc.setDescription(row.getDescription());
+        doc.setLocation(row.getLocation());
+        doc.setEmployerId(row.getEmployerId());
+        doc.setCompanyName(row.getCompanyName());
+        doc.setCategoryId(row.getCategoryId());
+        doc.setJobLevelId(row.getJobLevelId());
+        doc.setJobTypeId(row.getJobTypeId());
+        doc.setEducationId(row.getEducationId());
+        doc.setExperience(row.getExperienceId());
+        doc.setSalaryMin(row.getSalaryMin());
+        doc.setSalaryMax(row.getSalaryMax());
+        doc.setActive(row.getActive());
+        doc.setIsSave(false);
+        doc.setExpiredDate(row.getExpiredDate() != null
+                ? row.getExpiredDate().format(EXPIRED_DATE_FORMATTER)
+                : null);
+        doc.setCreatedAt(row.getCreatedAt() != null
+                ? row.getCreatedAt().format(CREATED_AT_FORMATTER)
+                : null);
+        doc.setJobApplicationCounts(row.getApplicationCount());
+        doc.setApplicantCount(row.getApplicationCount() != null ? row.getApplicationCount().intValue() : 0);
+        doc.setViewCount(row.getViewCount() != null ? row.getViewCount().intValue() : 0);
+        return doc;
+    }
+
     private SimpleNameResponse getEducation(Long id) {
         if (id == null) return null;
         return educationRepository.findById(id)
@@ -1,6 +1,7 @@
 package com.example.jobfinder.mapper;
 
 import com.example.jobfinder.dto.simple.SimpleNameResponse;
+import com.example.jobfinder.dto.user.UserIndexProjection;
 import com.example.jobfinder.dto.user.UserResponse;
 import com.example.jobfinder.model.UserDocument;
 import com.example.jobfinder.repository.EducationRepository;
@@ -36,6 +37,33 @@ public class UserDocumentMapper {
         return response;
     }
 
+    public UserDocument toDocument(UserIndexProjection row) {
+        UserDocument userDocument = new UserDocument();
+        userDocument.setId(row.getId());
+        userDocument.setEmail(row.getEmail());
+        userDocument.setFullName(row.getFullName());
+        userDocument.setCompanyName(row.getCompanyName());
+        userDocument.setLocation(row.getLocation());
+        userDocument.setDescription(row.getDescription());
+        userDocument.setWebsite(row.getWebsite());
+        userDocument.setAvatarUrl(row.getAvatarUrl());
+        userDocument.setPhone(row.getPhone());
+        userDocument.setTeamSize(row.getTeamSize());
+        userDocument.setYearOfEstablishment(row.getYearOfEstablishment());
+        userDocument.setMapLocation(row.getMapLocation());
+        userDocument.setRoleId(row.getRoleId());
+        userDocument.setEducationId(row.getEducationId());
+        userDocument.setOrganizationId(row.getOrganizationId());
+        userDocument.setExperienceId(row.getExperienceId());
+        // Chỉ employer mới có số job active
+        if ("EMPLOYER".equals(row.getRoleName()) && row.getActiveJobCount() != null) {
+            userDocument.setJobsPosted(row.getActiveJobCount().intValue());
+        } else {
+            userDocument.setJobsPosted(0);
+        }
+        return userDocument;
+    }
+
     private SimpleNameResponse getRole(Long roleId) {
         if (roleId == null) return null;
         return roleRepository.findById(roleId)
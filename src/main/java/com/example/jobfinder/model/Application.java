@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "applications", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"job_seeker_id", "job_id"}) // Ánh xạ UNIQUE constraint từ DB
-})
+}, indexes = {@Index(name = "idx_applications_applied_at", columnList = "applied_at")})
 @Getter
 @Setter
 @NoArgsConstructor
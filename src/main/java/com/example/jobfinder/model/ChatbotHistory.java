@@ -8,7 +8,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chatbot_history")
+@Table(name = "chatbot_history", indexes = {
+        @Index(name = "idx_chatbot_history_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_chatbot_history_created", columnList = "created_at, id")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,43 @@
+package com.example.jobfinder.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Số lượng phát sinh trong từng ngày (delta), cộng dồn (prefix sum) ra các chỉ số tổng cho trang thống kê admin
+@Entity
+@Table(name = "daily_metrics")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyMetric {
+    @Id
+    @Column(name = "metric_date")
+    private LocalDate metricDate;
+
+    @Column(name = "new_job_seekers", nullable = false)
+    private long newJobSeekers;
+
+    @Column(name = "new_employers", nullable = false)
+    private long newEmployers;
+
+    @Column(name = "new_jobs", nullable = false)
+    private long newJobs;
+
+    // Số job nhận application đầu tiên trong ngày (để cộng dồn ra số job đã có người ứng tuyển)
+    @Column(name = "new_applied_jobs", nullable = false)
+    private long newAppliedJobs;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -15,7 +15,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs",
+        indexes = {@Index(name = "idx_jobs_created_at", columnList = "created_at")})
 @Getter
 @Setter
 @NoArgsConstructor
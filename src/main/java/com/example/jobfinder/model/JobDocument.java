@@ -33,6 +33,10 @@ public class JobDocument {
     @Field(type = FieldType.Long)
     private Long employerId;
 
+    // Tên công ty của employer (lấy từ user_details) để truy vấn/hiển thị không phải join
+    @Field(type = FieldType.Text, analyzer = "standard")
+    private String companyName;
+
     @Field(type = FieldType.Long)
     private Long categoryId;
 
@@ -69,6 +73,13 @@ public class JobDocument {
     @Field(type = FieldType.Integer)
     private Integer applicantCount;
 
+    // Tín hiệu độ phổ biến, được JobPopularityAggregator cập nhật định kỳ bằng partial update
+    @Field(type = FieldType.Integer)
+    private Integer saveCount;
+
+    @Field(type = FieldType.Integer)
+    private Integer recentViewCount;
+
     @Field(type = FieldType.Boolean)
     @Builder.Default
     private Boolean isSave = false;
@@ -0,0 +1,25 @@
+package com.example.jobfinder.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Mốc nhận application đầu tiên của từng job, do rollup daily_metrics ghi cho các ngày đã rollup.
+// Phần đếm trực tiếp chỉ đọc application có appliedAt >= ngày chưa rollup rồi loại các job đã có mốc
+@Entity
+@Table(name = "job_first_applications",
+        indexes = {@Index(name = "idx_job_first_applications_applied_at", columnList = "first_applied_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobFirstApplication {
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "first_applied_at", nullable = false)
+    private LocalDateTime firstAppliedAt;
+}
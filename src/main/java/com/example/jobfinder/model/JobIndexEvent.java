@@ -0,0 +1,41 @@
+package com.example.jobfinder.model;
+
+import com.example.jobfinder.model.enums.JobIndexChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+// Bảng outbox: ghi cùng transaction với thay đổi của job, worker đọc và đẩy sang index "jobs"
+@Entity
+@Table(name = "job_index_outbox",
+        indexes = {@Index(name = "idx_job_index_outbox_job", columnList = "job_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobIndexEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // VARCHAR thay vì kiểu ENUM của MySQL để thêm loại thay đổi mới không cần ALTER cột
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "change_type", nullable = false, length = 30)
+    private JobIndexChangeType changeType;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "job_views",
-        indexes = {@Index(name = "idx_job_seeker_job", columnList = "job_id, job_seeker_id")})
+        indexes = {@Index(name = "idx_job_seeker_job", columnList = "job_id, job_seeker_id"),
+                @Index(name = "idx_job_views_viewed_at", columnList = "viewed_at")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,34 @@
+package com.example.jobfinder.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Tầng cache thứ hai (MySQL) cho câu trả lời LLM của các phân tích tốn kém, khoá là SHA-256 của (model, system prompt, nội dung)
+@Entity
+@Table(name = "llm_response_cache", indexes = {
+        @Index(name = "idx_llm_response_cache_expires", columnList = "expires_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmResponseCacheEntry {
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "model", nullable = false, length = 100)
+    private String model;
+
+    @Lob
+    @Column(name = "response", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -7,7 +7,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        indexes = {@Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id")})
 @Getter
 @Setter
 @NoArgsConstructor
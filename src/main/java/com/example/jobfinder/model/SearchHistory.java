@@ -8,7 +8,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "search_history")
+@Table(name = "search_history", indexes = {
+        @Index(name = "idx_search_history_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_search_history_created", columnList = "created_at, id"),
+        @Index(name = "idx_search_history_user_type_created", columnList = "user_id, search_type, created_at, id")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,12 @@
+package com.example.jobfinder.model.enums;
+
+public enum JobIndexChangeType {
+    // Tạo mới / cập nhật toàn bộ job -> build lại toàn bộ document
+    JOB_UPSERT,
+    // Chỉ thay đổi trạng thái active -> partial update
+    JOB_STATUS,
+    // Có application mới -> partial update jobApplicationCounts
+    APPLICATION_COUNT,
+    // Lượt xem mới được flush từ JobViewRecorder -> partial update viewCount
+    VIEW_COUNT
+}
@@ -13,7 +13,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
@@ -36,6 +39,25 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
 
     Long countByJob_Id (Long jobId);
 
+    @Query("SELECT a.job.id, COUNT(a) FROM Application a WHERE a.job.id IN :jobIds GROUP BY a.job.id")
+    List<Object[]> countGroupedByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    // Số application của mọi job (job không có application -> không có dòng), dùng cho tổng hợp độ phổ biến
+    @Query("SELECT a.job.id, COUNT(a) FROM Application a GROUP BY a.job.id")
+    List<Object[]> countAllGroupedByJob();
+
+    // Đếm số application cho nhiều job trong một truy vấn GROUP BY; job không có application -> không có key
+    default Map<Long, Long> countByJobIds(Collection<Long> jobIds) {
+        Map<Long, Long> counts = new HashMap<>(Math.max(16, jobIds.size() * 2));
+        if (jobIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : countGroupedByJobIds(jobIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
     @Query("SELECT COUNT(ja) FROM Application ja WHERE ja.jobSeeker.id = :applicantId")
     long countByApplicantId(Long applicantId);
 
@@ -56,6 +78,16 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT COUNT(DISTINCT a.job.id) FROM Application a WHERE a.appliedAt <= :endDate")
     long countUniqueAppliedJobsBeforeOrEquals(@Param("endDate") LocalDateTime endDate);
 
+    // (jobId, application sớm nhất trong [from, to)) của các job có application trong khoảng; dùng index applied_at.
+    // Job đã nhận application trước from vẫn có mặt: loại bằng job_first_applications
+    @Query("SELECT a.job.id, MIN(a.appliedAt) FROM Application a " +
+            "WHERE a.appliedAt >= :from AND a.appliedAt < :to GROUP BY a.job.id")
+    List<Object[]> findEarliestApplicationPerJobBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT extract(hour from a.appliedAt), COUNT(a) FROM Application a " +
+            "WHERE a.appliedAt >= :from AND a.appliedAt < :to GROUP BY extract(hour from a.appliedAt)")
+    List<Object[]> countAppliedByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     @Query("SELECT a FROM Application a " +
             "WHERE a.jobSeeker.id = :jobSeekerId " +
             "AND (:jobTitle IS NULL OR LOWER(a.job.title) LIKE LOWER(CONCAT('%', :jobTitle, '%'))) " +
@@ -3,11 +3,14 @@ package com.example.jobfinder.repository;
 
 import com.example.jobfinder.model.ChatbotHistory;
 import com.example.jobfinder.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,6 +23,34 @@ public interface ChatbotHistoryRepository extends JpaRepository<ChatbotHistory,
 
     List<ChatbotHistory> findAllByOrderByCreatedAtDesc(); // Thêm phương thức này cho ADMIN
 
+    // Phân trang keyset theo (created_at, id) giảm dần cho lịch sử của một user
+    @Query("SELECT h FROM ChatbotHistory h WHERE h.user.id = :userId ORDER BY h.createdAt DESC, h.id DESC")
+    List<ChatbotHistory> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            SELECT h FROM ChatbotHistory h
+            WHERE h.user.id = :userId
+              AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id))
+            ORDER BY h.createdAt DESC, h.id DESC
+            """)
+    List<ChatbotHistory> findPageByUserIdBefore(@Param("userId") Long userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    // Bản cho ADMIN: fetch luôn user để map email không phát sinh N+1
+    @Query("SELECT h FROM ChatbotHistory h JOIN FETCH h.user ORDER BY h.createdAt DESC, h.id DESC")
+    List<ChatbotHistory> findFirstPage(Limit limit);
+
+    @Query("""
+            SELECT h FROM ChatbotHistory h JOIN FETCH h.user
+            WHERE h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)
+            ORDER BY h.createdAt DESC, h.id DESC
+            """)
+    List<ChatbotHistory> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
     @Modifying // Bắt buộc cho các query thay đổi dữ liệu (INSERT, UPDATE, DELETE)
     @Query("DELETE FROM ChatbotHistory h WHERE h.user.id = :userId")
     void deleteByUserId(Long userId);
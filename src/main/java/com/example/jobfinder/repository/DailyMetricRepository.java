@@ -0,0 +1,17 @@
+package com.example.jobfinder.repository;
+
+import com.example.jobfinder.model.DailyMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyMetricRepository extends JpaRepository<DailyMetric, LocalDate> {
+
+    List<DailyMetric> findAllByOrderByMetricDateAsc();
+
+    Optional<DailyMetric> findFirstByOrderByMetricDateDesc();
+}
@@ -0,0 +1,25 @@
+package com.example.jobfinder.repository;
+
+import com.example.jobfinder.model.JobFirstApplication;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobFirstApplicationRepository extends JpaRepository<JobFirstApplication, Long> {
+
+    @Query("SELECT m.jobId FROM JobFirstApplication m WHERE m.jobId IN :jobIds")
+    List<Long> findJobIdsByJobIdIn(@Param("jobIds") Collection<Long> jobIds);
+
+    // Số job nhận application đầu tiên theo từng ngày trong [from, to)
+    @Query("SELECT extract(date from m.firstAppliedAt), COUNT(m) FROM JobFirstApplication m " +
+            "WHERE m.firstAppliedAt >= :from AND m.firstAppliedAt < :to GROUP BY extract(date from m.firstAppliedAt)")
+    List<Object[]> countByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    boolean existsBy();
+}
@@ -0,0 +1,16 @@
+package com.example.jobfinder.repository;
+
+import com.example.jobfinder.model.JobIndexEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobIndexEventRepository extends JpaRepository<JobIndexEvent, Long> {
+
+    @Query("SELECT e FROM JobIndexEvent e ORDER BY e.id ASC")
+    List<JobIndexEvent> findOldest(Pageable pageable);
+}
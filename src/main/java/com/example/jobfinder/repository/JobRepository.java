@@ -1,17 +1,24 @@
 package com.example.jobfinder.repository;
 
+import com.example.jobfinder.dto.job.JobIndexProjection;
 import com.example.jobfinder.model.Job;
 import com.example.jobfinder.util.QueryConstants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job> {
@@ -38,20 +45,17 @@ public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificatio
     @Query("SELECT COUNT(j) FROM Job j WHERE j.createdAt <= :endDate")
     long countTotalJobsPostedBeforeOrEquals(@Param("endDate") LocalDateTime endDate);
 
+    @Query("SELECT extract(date from j.createdAt), COUNT(j) FROM Job j " +
+            "WHERE j.createdAt >= :from AND j.createdAt < :to GROUP BY extract(date from j.createdAt)")
+    List<Object[]> countNewJobsByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT extract(hour from j.createdAt), COUNT(j) FROM Job j " +
+            "WHERE j.createdAt >= :from AND j.createdAt < :to GROUP BY extract(hour from j.createdAt)")
+    List<Object[]> countCreatedByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     @Query("SELECT COUNT(j) FROM Job j")
     long countAllJobs();
 
-    // Hàm tìm kiếm linh hoạt hơn
-    @Query(QueryConstants.FIND_JOBS_BY_CRITERIA)
-    List<Job> findJobsByCriteria(@Param("title") String title,
-                                 @Param("location") String location,
-                                 @Param("minSalary") Float minSalary,
-                                 @Param("maxSalary") Float maxSalary,
-                                 @Param("categoryName") String categoryName,
-                                 @Param("jobLevelName") String jobLevelName,
-                                 @Param("jobTypeName") String jobTypeName,
-                                 @Param("employerName") String employerName);
-
     @Query("SELECT j.category.name, COUNT(j.id) " +
             "FROM Job j " +
             "GROUP BY j.category.name " +
@@ -125,5 +129,54 @@ public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificatio
     long countJobsPostedSince(@Param("employerId") Long employerId,
                               @Param("startDate") LocalDateTime startDate);
 
-
+    // Dùng cho indexing: fetch sẵn các quan hệ cần cho JobDocument, tránh lazy load từng dòng
+    @Query("""
+    SELECT j FROM Job j
+    JOIN FETCH j.employer e
+    LEFT JOIN FETCH e.userDetail
+    JOIN FETCH j.category
+    LEFT JOIN FETCH j.jobLevel
+    LEFT JOIN FETCH j.jobType
+    LEFT JOIN FETCH j.education
+    LEFT JOIN FETCH j.experience
+    WHERE j.id IN :ids
+""")
+    List<Job> findAllForIndexByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Employer đổi tên công ty thì cần reindex các job của họ (companyName nằm trong JobDocument)
+    @Query("SELECT j.id FROM Job j WHERE j.employer.id = :employerId")
+    List<Long> findIdsByEmployerId(@Param("employerId") Long employerId);
+
+    @Query("SELECT j.id FROM Job j WHERE j.id IN :ids")
+    List<Long> findExistingIdsIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT j.id, j.active FROM Job j WHERE j.id IN :ids")
+    List<Object[]> findActiveFlagsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination theo id cho full reindex: mỗi trang là một truy vấn có chỉ mục, không OFFSET
+    @Query(QueryConstants.JOB_INDEX_ROW_SELECT + "WHERE j.id > :lastId ORDER BY j.id ASC")
+    List<JobIndexProjection> findIndexRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Export: fetch size Integer.MIN_VALUE bật chế độ streaming từng dòng của MySQL Connector/J cho riêng truy vấn này
+    // (không cần useCursorFetch trên cả URL), bộ nhớ không phụ thuộc số job. Khi stream đang mở, connection
+    // không chạy được truy vấn khác: mọi dữ liệu phụ phải được nạp trước khi mở stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(QueryConstants.JOB_INDEX_ROW_SELECT + "WHERE j.active = true ORDER BY j.id ASC")
+    Stream<JobIndexProjection> streamActiveIndexRows();
+
+    // Export phân trang keyset theo (created_at, id) giảm dần
+    @Query(QueryConstants.JOB_INDEX_ROW_SELECT + "WHERE j.active = true ORDER BY j.createdAt DESC, j.id DESC")
+    List<JobIndexProjection> findActiveIndexRowsFirstPage(Limit limit);
+
+    @Query(QueryConstants.JOB_INDEX_ROW_SELECT + """
+            WHERE j.active = true
+              AND (j.createdAt < :createdAt OR (j.createdAt = :createdAt AND j.id < :id))
+            ORDER BY j.createdAt DESC, j.id DESC
+            """)
+    List<JobIndexProjection> findActiveIndexRowsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Limit limit);
 }
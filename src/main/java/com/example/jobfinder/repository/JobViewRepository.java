@@ -7,8 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Repository
 public interface JobViewRepository extends JpaRepository<JobView, Long> {
@@ -20,4 +19,30 @@ public interface JobViewRepository extends JpaRepository<JobView, Long> {
             @Param("jobId") Long jobId,
             @Param("startOfDay")LocalDateTime startOfDay
             );
+
+    // Các cặp (job seeker, job) đã xem từ một thời điểm, dùng nạp lại tập chống trùng trong ngày
+    @Query("SELECT jv.jobSeeker.id, jv.job.id FROM JobView jv WHERE jv.viewedAt >= :from")
+    List<Object[]> findViewKeysSince(@Param("from") LocalDateTime from);
+
+    @Query("SELECT jv.job.id, COUNT(jv) FROM JobView jv GROUP BY jv.job.id")
+    List<Object[]> countAllGroupedByJob();
+
+    // Lượt xem gần đây (tín hiệu "trending"), dùng index idx_job_views_viewed_at
+    @Query("SELECT jv.job.id, COUNT(jv) FROM JobView jv WHERE jv.viewedAt >= :from GROUP BY jv.job.id")
+    List<Object[]> countGroupedByJobSince(@Param("from") LocalDateTime from);
+
+    @Query("SELECT jv.job.id, COUNT(jv) FROM JobView jv WHERE jv.job.id IN :jobIds GROUP BY jv.job.id")
+    List<Object[]> countGroupedByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    // Đếm lượt xem cho nhiều job trong một truy vấn GROUP BY; job chưa có lượt xem -> không có key
+    default Map<Long, Long> countByJobIds(Collection<Long> jobIds) {
+        Map<Long, Long> counts = new HashMap<>(Math.max(16, jobIds.size() * 2));
+        if (jobIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : countGroupedByJobIds(jobIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.jobfinder.repository;
+
+import com.example.jobfinder.model.LlmResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntry, String> {
+
+    @Query("SELECT e.response FROM LlmResponseCacheEntry e WHERE e.cacheKey = :cacheKey AND e.expiresAt > :now")
+    Optional<String> findValidResponse(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+
+    // Xoá theo lô các bản ghi đã hết hạn
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
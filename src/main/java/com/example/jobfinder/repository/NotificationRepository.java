@@ -2,11 +2,13 @@ package com.example.jobfinder.repository;
 
 import com.example.jobfinder.model.Notification;
 import com.example.jobfinder.util.QueryConstants;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,6 +20,23 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Tìm tất cả thông báo chưa đọc cho một người dùng
     List<Notification> findByUser_IdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
 
+    long countByUser_IdAndIsReadFalse(Long userId);
+
+    // Phân trang keyset theo (created_at, id) giảm dần, dùng index idx_notifications_user_created
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            SELECT n FROM Notification n
+            WHERE n.user.id = :userId
+              AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<Notification> findPageByUserIdBefore(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
 
     @Query(QueryConstants.FIND_NOTIFICATIONS_BY_CRITERIA)
     List<Notification> findNotificationsByCriteria(@Param("userEmail") String userEmail,
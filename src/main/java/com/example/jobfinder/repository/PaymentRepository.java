@@ -1,5 +1,6 @@
 package com.example.jobfinder.repository;
 
+import com.example.jobfinder.dto.payment.PaymentMonthStatusProjection;
 import com.example.jobfinder.model.Payment;
 import com.example.jobfinder.model.User;
 import com.example.jobfinder.model.Subscription;
@@ -23,6 +24,12 @@ public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpec
     Optional<Payment> findByPayosOrderCode(Long payosOrderCode);
     List<Payment> findByPaidAtBetween(LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+    @Query("SELECT YEAR(p.paidAt) AS paidYear, MONTH(p.paidAt) AS paidMonth, UPPER(p.payosStatus) AS status, " +
+            "SUM(p.amount) AS totalAmount, COUNT(p) AS paymentCount " +
+            "FROM Payment p WHERE p.paidAt >= :from AND p.paidAt < :to " +
+            "GROUP BY YEAR(p.paidAt), MONTH(p.paidAt), UPPER(p.payosStatus)")
+    List<PaymentMonthStatusProjection> sumByMonthAndStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     @EntityGraph(attributePaths = {"user", "intendedPlan"})
     Page<Payment> findByUserIdAndPaidAtBetween(Long userId, LocalDateTime fromDate, LocalDateTime toDate, Pageable pageable);
 
@@ -26,6 +26,10 @@ public interface SavedJobRepository extends JpaRepository<SavedJob, Long> {
 
     Long countByJobSeeker_Id(Long jobSeekerId);
 
+    // Số lượt lưu của mọi job, dùng cho tổng hợp độ phổ biến
+    @Query("SELECT s.job.id, COUNT(s) FROM SavedJob s GROUP BY s.job.id")
+    List<Object[]> countAllGroupedByJob();
+
     @Query("""
     SELECT DISTINCT sj.jobSeeker.id 
     FROM SavedJob sj 
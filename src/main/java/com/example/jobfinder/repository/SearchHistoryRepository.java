@@ -3,9 +3,13 @@ package com.example.jobfinder.repository;
 
 import com.example.jobfinder.model.SearchHistory;
 import com.example.jobfinder.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -34,6 +38,29 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
 
     SearchHistory findFirstByUserAndSearchTypeOrderByCreatedAtDesc(User user, SearchHistory.SearchType type);
 
+    // Phân trang keyset theo (created_at, id) giảm dần cho ADMIN, fetch user để tránh N+1 khi map
+    @Query("SELECT s FROM SearchHistory s JOIN FETCH s.user ORDER BY s.createdAt DESC, s.id DESC")
+    List<SearchHistory> findFirstPage(Limit limit);
+
+    @Query("""
+            SELECT s FROM SearchHistory s JOIN FETCH s.user
+            WHERE s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)
+            ORDER BY s.createdAt DESC, s.id DESC
+            """)
+    List<SearchHistory> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    // Các truy vấn gần nhất của user theo loại (chỉ lấy chuỗi truy vấn)
+    @Query("""
+            SELECT s.searchQuery FROM SearchHistory s
+            WHERE s.user.id = :userId AND s.searchType = :type
+            ORDER BY s.createdAt DESC, s.id DESC
+            """)
+    List<String> findRecentQueries(@Param("userId") Long userId,
+                                   @Param("type") SearchHistory.SearchType type,
+                                   Limit limit);
+
     // Xóa tất cả lịch sử tìm kiếm của một người dùng
     void deleteByUser(User user);
 }
\ No newline at end of file
@@ -1,13 +1,16 @@
 package com.example.jobfinder.repository;
 
+import com.example.jobfinder.dto.user.UserIndexProjection;
 import com.example.jobfinder.model.User;
 import com.example.jobfinder.model.UserDetail;
 import com.example.jobfinder.util.QueryConstants;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 @Repository
@@ -19,10 +22,34 @@ public interface UserDetailsRepository extends JpaRepository<UserDetail, Long> {
     List<UserDetail> findByCompanyNameContainingIgnoreCase(String companyName);
     List<UserDetail> findByCompanyNameContainingIgnoreCaseAndLocationContainingIgnoreCase(String companyName, String location);
 
+    // [userId, companyName] cho nhiều employer trong một truy vấn
+    @Query("SELECT ud.user.id, ud.companyName FROM UserDetail ud WHERE ud.user.id IN :userIds")
+    List<Object[]> findCompanyNamesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     @Query(QueryConstants.FIND_USER_DETAILS_BY_CRITERIA)
     List<UserDetail> findUserDetailsByCriteria(@Param("fullName") String fullName,
                                                @Param("location") String location,
                                                @Param("yearsExperience") Integer yearsExperience,
                                                @Param("educationType") String educationType,
                                                @Param("companyName") String companyName);
+
+    // Keyset pagination theo id cho full reindex index "users"
+    @Query("""
+    SELECT ud.id AS id, u.email AS email, ud.fullName AS fullName, ud.companyName AS companyName,
+           ud.location AS location, ud.description AS description, ud.website AS website,
+           ud.avatarUrl AS avatarUrl, ud.phone AS phone, ud.teamSize AS teamSize,
+           ud.yearOfEstablishment AS yearOfEstablishment, ud.mapLocation AS mapLocation,
+           r.id AS roleId, r.name AS roleName,
+           ed.id AS educationId, o.id AS organizationId, ex.id AS experienceId,
+           (SELECT COUNT(j) FROM Job j WHERE j.employer.id = u.id AND j.active = true) AS activeJobCount
+    FROM UserDetail ud
+    JOIN ud.user u
+    LEFT JOIN u.role r
+    LEFT JOIN ud.education ed
+    LEFT JOIN ud.organization o
+    LEFT JOIN ud.experience ex
+    WHERE ud.id > :lastId
+    ORDER BY ud.id ASC
+""")
+    List<UserIndexProjection> findIndexRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.example.jobfinder.repository;
 
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.model.User;
 import com.example.jobfinder.util.QueryConstants;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,6 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    // Chỉ lấy id, email, vai trò, active - dùng cho CurrentPrincipal thay vì load cả entity User
+    @Query("SELECT new com.example.jobfinder.dto.auth.AuthenticatedPrincipal(u.id, u.email, r.name, u.isActive) " +
+            "FROM User u JOIN u.role r WHERE u.email = :email")
+    Optional<AuthenticatedPrincipal> findPrincipalByEmail(@Param("email") String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
+
     Optional<User> findByVerificationToken(String verificationToken);
 
     Optional<User>  findByResetPasswordToken(String resetPasswordToken);
@@ -30,6 +39,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u JOIN u.role r WHERE r.name = :roleName AND u.createdAt <= :endDate")
     long countUsersByRoleNameAndCreatedAtBeforeOrEquals(@Param("roleName") String roleName, @Param("endDate") LocalDateTime endDate);
 
+    // Số người dùng mới theo ngày và vai trò trong khoảng [from, to) - dùng cho bảng daily_metrics
+    @Query("SELECT extract(date from u.createdAt), r.name, COUNT(u) FROM User u JOIN u.role r " +
+            "WHERE u.createdAt >= :from AND u.createdAt < :to AND r.name IN ('JOB_SEEKER', 'EMPLOYER') " +
+            "GROUP BY extract(date from u.createdAt), r.name")
+    List<Object[]> countNewUsersByDayAndRole(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [giờ, số lượng] cho người dùng tạo trong [from, to)
+    @Query("SELECT extract(hour from u.createdAt), COUNT(u) FROM User u " +
+            "WHERE u.createdAt >= :from AND u.createdAt < :to GROUP BY extract(hour from u.createdAt)")
+    List<Object[]> countCreatedByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     // Đếm tổng số người dùng được tạo cho đến một ngày cụ thể
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt <= :endDate")
     long countTotalUsersCreatedBeforeOrEquals(@Param("endDate") LocalDateTime endDate);
@@ -0,0 +1,98 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Số lượng application theo job cho các trang danh sách (chỉ dùng để hiển thị).
+ * Job chưa có trong cache được đếm gộp bằng một truy vấn GROUP BY cho cả trang;
+ * applyJob tăng bộ đếm sau khi commit trên instance xử lý request. Cache là riêng từng instance nên
+ * instance khác có thể lệch tối đa một TTL; giá trị ghi vào index "jobs" luôn đếm lại từ DB.
+ */
+@Service
+@Slf4j
+public class ApplicationCountCache {
+    private final ApplicationRepository applicationRepository;
+    private final boolean enabled;
+    private final Cache<Long, AtomicLong> counts;
+
+    public ApplicationCountCache(ApplicationRepository applicationRepository,
+                                 @Value("${app.cache.application-counts.enabled:true}") boolean enabled,
+                                 @Value("${app.cache.application-counts.max-size:100000}") long maxSize,
+                                 @Value("${app.cache.application-counts.ttl-minutes:10}") long ttlMinutes) {
+        this.applicationRepository = applicationRepository;
+        this.enabled = enabled;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public Map<Long, Long> getCounts(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return Map.of();
+        }
+        if (!enabled) {
+            return applicationRepository.countByJobIds(jobIds);
+        }
+
+        Map<Long, Long> result = new HashMap<>(jobIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long jobId : jobIds) {
+            AtomicLong cached = counts.getIfPresent(jobId);
+            if (cached != null) {
+                result.put(jobId, cached.get());
+            } else {
+                missing.add(jobId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loaded = applicationRepository.countByJobIds(missing);
+            for (Long jobId : missing) {
+                AtomicLong counter = counts.get(jobId, id -> new AtomicLong(loaded.getOrDefault(id, 0L)));
+                result.put(jobId, counter.get());
+            }
+        }
+        return result;
+    }
+
+    public long getCount(Long jobId) {
+        return getCounts(List.of(jobId)).getOrDefault(jobId, 0L);
+    }
+
+    // Gọi trong transaction tạo application: chỉ tăng bộ đếm khi transaction commit thành công
+    public void incrementAfterCommit(Long jobId) {
+        if (!enabled || jobId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(jobId);
+                }
+            });
+        } else {
+            increment(jobId);
+        }
+    }
+
+    private void increment(Long jobId) {
+        // Job chưa được cache thì lần đọc sau sẽ đếm lại từ DB
+        AtomicLong counter = counts.getIfPresent(jobId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+}
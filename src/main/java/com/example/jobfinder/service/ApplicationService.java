@@ -16,6 +16,7 @@ import com.example.jobfinder.mapper.ApplicationMapper;
 import com.example.jobfinder.mapper.JobMapper;
 import com.example.jobfinder.model.*;
 import com.example.jobfinder.model.enums.ApplicationStatus;
+import com.example.jobfinder.model.enums.JobIndexChangeType;
 import com.example.jobfinder.repository.*;
 import jakarta.mail.MessagingException;
 import lombok.AccessLevel;
@@ -65,6 +66,9 @@ public class ApplicationService {
     EmailService emailService;
     NotificationService notificationService;
     SubscriptionRepository subscriptionRepository;
+    JobIndexEventPublisher jobIndexEventPublisher;
+    ApplicationCountCache applicationCountCache;
+    HourlyActivityCounter hourlyActivityCounter;
 
     @Transactional
     public ApplicationResponse applyJob(ApplicationRequest request) throws IOException {
@@ -126,6 +130,9 @@ public class ApplicationService {
         application.setCoverLetter(request.getCoverLetter());
         application.setAppliedAt(LocalDateTime.now());
         Application createdApplication = applicationRepository.save(application);
+        jobIndexEventPublisher.publish(job.getId(), JobIndexChangeType.APPLICATION_COUNT);
+        applicationCountCache.incrementAfterCommit(job.getId());
+        hourlyActivityCounter.recordAfterCommit(HourlyActivityCounter.Activity.NEW_APPLICATION);
 
         // Xây dựng nội dung thông báo
         String jobSeekerName = application.getJobSeeker().getUserDetail() != null
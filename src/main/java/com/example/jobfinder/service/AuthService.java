@@ -40,6 +40,7 @@ public class AuthService {
     GoogleTokenVerifierService googleTokenVerifierService;
     SubscriptionRepository subscriptionRepository;
     SubscriptionPlanRepository subscriptionPlanRepository;
+    HourlyActivityCounter hourlyActivityCounter;
 
     public void register(RegisterRequest request) throws Exception {
         if(userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -57,6 +58,7 @@ public class AuthService {
         user.setVerified(0);
         user.setIsActive(true);
         userRepository.save(user);
+        hourlyActivityCounter.recordAfterCommit(HourlyActivityCounter.Activity.NEW_USER);
         UserDetail userDetail = new UserDetail();
         userDetail.setUser(user);
 
@@ -90,7 +92,7 @@ public class AuthService {
             throw new AppException(ErrorCode.WRONG_PASSWORD);
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().getName());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId(), user.getIsActive());
         return LoginResponse.builder()
                 .token(token)
                 .role(user.getRole().getName())
@@ -118,7 +120,7 @@ public class AuthService {
             return LoginResponse.builder()
                     .build();
         }
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().getName());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId(), user.getIsActive());
 
         return LoginResponse.builder()
                 .token(token)
@@ -140,7 +142,9 @@ public class AuthService {
                 .orElseThrow(() -> new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION));
 
         newUser.setRole(defaultRole);
-        return userRepository.save(newUser);
+        User savedUser = userRepository.save(newUser);
+        hourlyActivityCounter.recordAfterCommit(HourlyActivityCounter.Activity.NEW_USER);
+        return savedUser;
     }
 
 
@@ -28,6 +28,10 @@ public abstract class BaseNameService<T> {
     protected abstract ErrorCode getNotFoundErrorCode();
     protected abstract String getEntityNameForLog(); // Ví dụ: "Category", "Job Level"
 
+    // Gọi trong transaction sau mỗi lần tạo/sửa/xoá; các danh mục nằm trong ReferenceDataCache nạp lại snapshot ở đây
+    protected void afterWrite() {
+    }
+
     // CREATE
     @Transactional
     public SimpleNameResponse create(SimpleNameCreationRequest request) {
@@ -40,6 +44,7 @@ public abstract class BaseNameService<T> {
 
         T entity = createEntity(request);
         T savedEntity = repository.save(entity);
+        afterWrite();
         log.info("{} created successfully with ID: {}", getEntityNameForLog(), repository.getId(savedEntity));
         return toResponse(savedEntity);
     }
@@ -83,6 +88,7 @@ public abstract class BaseNameService<T> {
 
         updateEntity(existingEntity, request);
         T updatedEntity = repository.save(existingEntity);
+        afterWrite();
         log.info("{} with ID {} updated successfully.", getEntityNameForLog(), repository.getId(updatedEntity));
         return toResponse(updatedEntity);
     }
@@ -96,6 +102,7 @@ public abstract class BaseNameService<T> {
             throw new AppException(getNotFoundErrorCode());
         }
         repository.deleteById(id);
+        afterWrite();
         log.info("{} with ID {} deleted successfully.", getEntityNameForLog(), id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tập id người dùng bị khoá, giữ trong bộ nhớ cho chế độ xác thực stateless
+ * (JWT đã ký vẫn còn hạn nhưng tài khoản đã bị khoá thì phải bị từ chối).
+ * Đồng bộ lại định kỳ từ DB để các instance khác cũng thấy thay đổi;
+ * UserService.updateUserStatus cập nhật ngay trên instance hiện tại.
+ * Khi tắt chế độ stateless, filter đọc trạng thái từ DB nên không đồng bộ định kỳ.
+ */
+@Service
+@Slf4j
+public class BlockedUserRegistry {
+    private final UserRepository userRepository;
+    private final boolean statelessEnabled;
+
+    // Snapshot bất biến, thay thế nguyên khối khi có thay đổi (ít ghi, đọc mỗi request)
+    private volatile Set<Long> blockedUserIds = Set.of();
+
+    public BlockedUserRegistry(UserRepository userRepository,
+                               @Value("${app.security.stateless.enabled:false}") boolean statelessEnabled) {
+        this.userRepository = userRepository;
+        this.statelessEnabled = statelessEnabled;
+    }
+
+    public boolean isBlocked(Long userId) {
+        return blockedUserIds.contains(userId);
+    }
+
+    public synchronized void markBlocked(Long userId) {
+        Set<Long> next = new HashSet<>(blockedUserIds);
+        next.add(userId);
+        blockedUserIds = Set.copyOf(next);
+    }
+
+    public synchronized void markActive(Long userId) {
+        if (!blockedUserIds.contains(userId)) {
+            return;
+        }
+        Set<Long> next = new HashSet<>(blockedUserIds);
+        next.remove(userId);
+        blockedUserIds = Set.copyOf(next);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless.blocked-refresh-ms:30000}")
+    public void refresh() {
+        if (!statelessEnabled) {
+            return;
+        }
+        try {
+            Set<Long> loaded = Set.copyOf(userRepository.findInactiveUserIds());
+            synchronized (this) {
+                blockedUserIds = loaded;
+            }
+            log.debug("Loaded {} blocked user ids", loaded.size());
+        } catch (Exception e) {
+            // Giữ snapshot cũ nếu DB lỗi tạm thời
+            log.error("Failed to refresh blocked users: {}", e.getMessage());
+        }
+    }
+}
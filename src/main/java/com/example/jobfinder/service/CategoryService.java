@@ -19,11 +19,14 @@ public class CategoryService extends BaseNameService<Category> {
 
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public CategoryService(BaseNameRepository<Category, Long> repository, CategoryMapper categoryMapper, CategoryRepository categoryRepository) {
+    public CategoryService(BaseNameRepository<Category, Long> repository, CategoryMapper categoryMapper, CategoryRepository categoryRepository,
+                           ReferenceDataCache referenceDataCache) {
         super(repository);
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -56,6 +59,11 @@ public class CategoryService extends BaseNameService<Category> {
         return "Category";
     }
 
+    @Override
+    protected void afterWrite() {
+        referenceDataCache.reloadAfterCommit();
+    }
+
     public List<TopCategoryProjection> getTopCategories() {
         return categoryRepository.findTopCategoriesWithMostJobs();
     }
@@ -0,0 +1,349 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.gemini.GeminiIntentResponse;
+import com.example.jobfinder.util.AhoCorasick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Phân loại ý định chatbot ngay trong tiến trình, chạy trước khi gọi LLM.
+ * Từ khoá tiếng Việt/tiếng Anh được dựng sẵn thành một automaton Aho-Corasick trên văn bản đã bỏ dấu;
+ * địa điểm, cấp bậc, loại hình và mức lương được trích xuất bằng từ điển + regex.
+ * Chỉ trả kết quả khi câu hỏi được phủ gần hết bởi từ khoá đã biết (chào hỏi, tìm việc đơn giản, hỏi bảng giá gói);
+ * mọi trường hợp mơ hồ trả Optional.empty() để ChatbotService hỏi LLM như cũ.
+ */
+@Service
+public class ChatIntentClassifier {
+    private static final Set<String> KNOWN_INTENTS = Set.of("job_search", "user_info", "subscription_info",
+            "company_info", "employer_reviews", "application_status", "general_chat", "unclear");
+
+    private enum Kind { GREETING, THANKS, BYE, JOB, SUBSCRIPTION, LOCATION, LEVEL, JOB_TYPE, FILLER, BLOCKER }
+
+    private static final Set<Kind> SMALL_TALK = EnumSet.of(Kind.GREETING, Kind.THANKS, Kind.BYE);
+
+    // phrase: dạng có dấu (chữ thường); value: giá trị chuẩn hoá cho địa điểm/cấp bậc/loại hình
+    private record Trigger(Kind kind, String phrase, String value) {}
+
+    public record LocalIntent(GeminiIntentResponse.IntentAnalysisResult analysis, String reply) {}
+
+    private static final String NUMBER = "(\\d+(?:[.,]\\d+)?)";
+    private static final String UNIT = "\\s*(trieu|tr|k|usd|do)?\\b";
+    // Chạy trên văn bản đã bỏ dấu: "từ 15 đến 20 triệu", "15-20tr", "trên 1000 đô", "dưới 30 triệu"
+    private static final Pattern SALARY_RANGE = Pattern.compile(
+            "(?:\\b(?:luong|tu|from)\\s+)?" + NUMBER + UNIT + "\\s*(?:-|~|\\bden\\b|\\btoi\\b|\\bto\\b)\\s*" + NUMBER + UNIT);
+    private static final Pattern SALARY_MIN = Pattern.compile(
+            "\\b(?:tren|tu|hon|it nhat|toi thieu|over|from|above|at least)\\s+" + NUMBER + UNIT);
+    private static final Pattern SALARY_MAX = Pattern.compile(
+            "\\b(?:duoi|toi da|khong qua|under|below|up to|max)\\s+" + NUMBER + UNIT);
+    private static final Pattern NUMERIC_TOKEN = Pattern.compile("\\d+(?:[.,]\\d+)?");
+
+    private static final String GREETING_REPLY = "Xin chào! Tôi là trợ lý tuyển dụng của JobFinder. Bạn có thể nhờ tôi "
+            + "tìm việc (ví dụ: \"tìm việc Java ở Hà Nội lương trên 20 triệu\"), xem thông tin công ty, đánh giá nhà tuyển dụng, "
+            + "các gói đăng ký hoặc trạng thái đơn ứng tuyển của bạn.";
+    private static final String THANKS_REPLY = "Rất vui được giúp bạn! Nếu cần tìm thêm việc làm hay thông tin gì khác, cứ hỏi tôi nhé.";
+    private static final String BYE_REPLY = "Tạm biệt bạn! Chúc bạn sớm tìm được công việc ưng ý.";
+
+    private final AhoCorasick<Trigger> automaton;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxMessageLength;
+    private final int maxTitleWords;
+
+    public ChatIntentClassifier(MeterRegistry meterRegistry,
+                                @Value("${app.chatbot.local-intent.enabled:true}") boolean enabled,
+                                @Value("${app.chatbot.local-intent.max-message-length:200}") int maxMessageLength,
+                                @Value("${app.chatbot.local-intent.max-title-words:4}") int maxTitleWords) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxMessageLength = maxMessageLength;
+        this.maxTitleWords = maxTitleWords;
+        this.automaton = buildAutomaton();
+    }
+
+    public Optional<LocalIntent> classify(String message) {
+        if (!enabled || message == null) {
+            return Optional.empty();
+        }
+        String text = Normalizer.normalize(message, Normalizer.Form.NFC).strip();
+        if (text.isEmpty() || text.length() > maxMessageLength || text.indexOf('@') >= 0) {
+            return Optional.empty();
+        }
+        String lower = lowerCase(text);
+        String folded = fold(lower);
+        boolean[] covered = new boolean[text.length()];
+
+        GeminiIntentResponse.JobSearchParams.JobSearchParamsBuilder params = GeminiIntentResponse.JobSearchParams.builder();
+        boolean hasSalary = extractSalary(folded, covered, params);
+
+        EnumSet<Kind> kinds = EnumSet.noneOf(Kind.class);
+        for (AhoCorasick.Match<Trigger> match : selectMatches(lower, folded, covered)) {
+            Trigger trigger = match.value();
+            kinds.add(trigger.kind());
+            switch (trigger.kind()) {
+                case LOCATION -> params.location(trigger.value());
+                case LEVEL -> params.jobLevel(trigger.value());
+                case JOB_TYPE -> params.jobType(trigger.value());
+                default -> { }
+            }
+            cover(covered, match.start(), match.end());
+        }
+        if (kinds.contains(Kind.BLOCKER)) {
+            return Optional.empty();
+        }
+
+        List<String> residual = residualTokens(text, covered);
+        if (residual.stream().anyMatch(token -> NUMERIC_TOKEN.matcher(token).matches())) {
+            // Còn con số chưa hiểu (vd. "lương 15 triệu" không rõ min hay max) thì để LLM suy luận
+            return Optional.empty();
+        }
+
+        if (kinds.contains(Kind.JOB) && !kinds.contains(Kind.SUBSCRIPTION)) {
+            if (residual.size() > maxTitleWords) {
+                return Optional.empty();
+            }
+            String jobTitle = residual.isEmpty() ? null : String.join(" ", residual);
+            boolean hasCriteria = jobTitle != null || hasSalary
+                    || kinds.contains(Kind.LOCATION) || kinds.contains(Kind.LEVEL) || kinds.contains(Kind.JOB_TYPE);
+            if (!hasCriteria) {
+                // "Tìm việc" trống trơn: để LLM xử lý như "unclear"
+                return Optional.empty();
+            }
+            GeminiIntentResponse.IntentAnalysisResult analysis = new GeminiIntentResponse.IntentAnalysisResult();
+            analysis.setIntent("job_search");
+            analysis.setJobSearchParams(params.jobTitle(jobTitle).build());
+            return Optional.of(new LocalIntent(analysis, null));
+        }
+
+        // Các ý định còn lại chỉ xử lý khi câu hỏi không chứa gì ngoài từ khoá
+        if (!residual.isEmpty() || hasSalary) {
+            return Optional.empty();
+        }
+        if (kinds.contains(Kind.SUBSCRIPTION) && !kinds.contains(Kind.JOB)
+                && EnumSet.of(Kind.SUBSCRIPTION, Kind.FILLER).containsAll(kinds)) {
+            GeminiIntentResponse.IntentAnalysisResult analysis = new GeminiIntentResponse.IntentAnalysisResult();
+            analysis.setIntent("subscription_info");
+            return Optional.of(new LocalIntent(analysis, null));
+        }
+        if (!kinds.isEmpty() && kinds.stream().anyMatch(SMALL_TALK::contains)
+                && kinds.stream().allMatch(kind -> SMALL_TALK.contains(kind) || kind == Kind.FILLER)) {
+            GeminiIntentResponse.IntentAnalysisResult analysis = new GeminiIntentResponse.IntentAnalysisResult();
+            analysis.setIntent("general_chat");
+            String reply = kinds.contains(Kind.THANKS) ? THANKS_REPLY
+                    : kinds.contains(Kind.BYE) ? BYE_REPLY : GREETING_REPLY;
+            return Optional.of(new LocalIntent(analysis, reply));
+        }
+        return Optional.empty();
+    }
+
+    // Đếm tỉ lệ xử lý cục bộ / qua LLM theo ý định: chatbot.intent{source, intent}
+    public void record(boolean local, String intent) {
+        String tag = intent != null && KNOWN_INTENTS.contains(intent) ? intent : "other";
+        String source = local ? "local" : "llm";
+        counters.computeIfAbsent(source + ':' + tag, key -> Counter.builder("chatbot.intent")
+                .tag("source", source)
+                .tag("intent", tag)
+                .register(meterRegistry)).increment();
+    }
+
+    private boolean extractSalary(String folded, boolean[] covered,
+                                  GeminiIntentResponse.JobSearchParams.JobSearchParamsBuilder params) {
+        // Chỉ nhận khi có đơn vị tiền, tránh hiểu nhầm "2-3 năm" là lương; số còn sót lại sẽ đẩy câu hỏi sang LLM
+        Matcher range = SALARY_RANGE.matcher(folded);
+        if (range.find() && (range.group(2) != null || range.group(4) != null)) {
+            // "15-20 triệu": đơn vị viết ở cuối áp dụng cho cả hai số
+            String upperUnit = range.group(4);
+            String lowerUnit = range.group(2) != null ? range.group(2) : upperUnit;
+            params.minSalary(amount(range.group(1), lowerUnit)).maxSalary(amount(range.group(3), upperUnit));
+            cover(covered, range.start(), range.end());
+            return true;
+        }
+        boolean found = false;
+        Matcher min = SALARY_MIN.matcher(folded);
+        if (min.find() && min.group(2) != null) {
+            params.minSalary(amount(min.group(1), min.group(2)));
+            cover(covered, min.start(), min.end());
+            found = true;
+        }
+        Matcher max = SALARY_MAX.matcher(folded);
+        if (max.find() && max.group(2) != null) {
+            params.maxSalary(amount(max.group(1), max.group(2)));
+            cover(covered, max.start(), max.end());
+            found = true;
+        }
+        return found;
+    }
+
+    private static Float amount(String number, String unit) {
+        float value = Float.parseFloat(number.replace(',', '.'));
+        if (unit == null) {
+            return value;
+        }
+        return switch (unit) {
+            case "trieu", "tr" -> value * 1_000_000f;
+            case "k" -> value * 1_000f;
+            default -> value; // usd/đô: giữ nguyên số như LLM đang trích xuất
+        };
+    }
+
+    /**
+     * Chọn các match không chồng lấn, ưu tiên match bắt đầu sớm nhất rồi dài nhất, phải đứng trọn từ.
+     * Người dùng gõ có dấu thì phải đúng dấu ("ở" khác "ô"); gõ không dấu thì khớp theo dạng bỏ dấu.
+     */
+    private List<AhoCorasick.Match<Trigger>> selectMatches(String lower, String folded, boolean[] covered) {
+        List<AhoCorasick.Match<Trigger>> candidates = new ArrayList<>(automaton.findAll(folded));
+        candidates.sort(Comparator.<AhoCorasick.Match<Trigger>>comparingInt(AhoCorasick.Match::start)
+                .thenComparing(Comparator.<AhoCorasick.Match<Trigger>>comparingInt(AhoCorasick.Match::end).reversed()));
+
+        List<AhoCorasick.Match<Trigger>> selected = new ArrayList<>();
+        int lastEnd = 0;
+        for (AhoCorasick.Match<Trigger> match : candidates) {
+            if (match.start() < lastEnd || !isWholeWord(folded, match) || overlaps(covered, match)) {
+                continue;
+            }
+            String typed = lower.substring(match.start(), match.end());
+            String phrase = match.value().phrase();
+            if (!typed.equals(phrase) && !typed.equals(fold(typed))) {
+                continue;
+            }
+            selected.add(match);
+            lastEnd = match.end();
+        }
+        return selected;
+    }
+
+    private static boolean isWholeWord(String text, AhoCorasick.Match<?> match) {
+        return (match.start() == 0 || !Character.isLetterOrDigit(text.charAt(match.start() - 1)))
+                && (match.end() == text.length() || !Character.isLetterOrDigit(text.charAt(match.end())));
+    }
+
+    private static boolean overlaps(boolean[] covered, AhoCorasick.Match<?> match) {
+        for (int i = match.start(); i < match.end(); i++) {
+            if (covered[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void cover(boolean[] covered, int start, int end) {
+        for (int i = start; i < end; i++) {
+            covered[i] = true;
+        }
+    }
+
+    // Phần chữ gốc (giữ dấu, giữ hoa thường) không thuộc từ khoá nào, dùng làm job_title
+    private static List<String> residualTokens(String text, boolean[] covered) {
+        StringBuilder rest = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            rest.append(covered[i] ? ' ' : text.charAt(i));
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : rest.toString().split("\\s+")) {
+            // Bỏ dấu câu ở hai đầu nhưng giữ các tên như "C++", "C#", ".NET", "Node.js"
+            String cleaned = token.replaceAll("^[\\p{Punct}&&[^.#+]]+|[\\p{Punct}&&[^#+]]+$", "");
+            if (!cleaned.isEmpty() && cleaned.chars().anyMatch(Character::isLetterOrDigit)) {
+                tokens.add(cleaned);
+            }
+        }
+        return tokens;
+    }
+
+    // Chữ thường từng ký tự để độ dài không đổi (vị trí match trùng với văn bản gốc)
+    private static String lowerCase(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            result.append(Character.toLowerCase(text.charAt(i)));
+        }
+        return result.toString();
+    }
+
+    // Bỏ dấu tiếng Việt từng ký tự ("việc" -> "viec", "đ" -> "d"), giữ nguyên độ dài
+    private static String fold(String lower) {
+        StringBuilder result = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == 'đ') {
+                result.append('d');
+            } else if (c < 0x80) {
+                result.append(c);
+            } else {
+                result.append(Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+            }
+        }
+        return result.toString();
+    }
+
+    private static AhoCorasick<Trigger> buildAutomaton() {
+        AhoCorasick.Builder<Trigger> builder = AhoCorasick.builder();
+        addAll(builder, Kind.GREETING, "xin chào", "chào", "chào bạn", "hello", "hi", "hey", "alo", "good morning");
+        addAll(builder, Kind.THANKS, "cảm ơn", "cám ơn", "thank", "thanks", "thank you", "tks");
+        addAll(builder, Kind.BYE, "tạm biệt", "bye", "goodbye", "see you");
+        addAll(builder, Kind.JOB, "tìm việc", "việc làm", "công việc", "việc", "tuyển dụng", "tuyển", "vị trí",
+                "cơ hội việc làm", "job", "jobs", "tìm job", "hiring", "vacancy", "vacancies", "position", "positions");
+        addAll(builder, Kind.SUBSCRIPTION, "gói đăng ký", "các gói đăng ký", "gói dịch vụ", "bảng giá",
+                "giá các gói", "subscription", "subscriptions", "subscription plans", "pricing");
+        // Các chủ đề cần tham số tự do (tên công ty, email, trạng thái đơn...) luôn để LLM phân tích
+        addAll(builder, Kind.BLOCKER, "công ty", "doanh nghiệp", "company", "đánh giá", "review", "reviews",
+                "ứng tuyển", "đơn", "hồ sơ", "cv", "trạng thái", "người dùng", "user", "tài khoản", "admin", "email",
+                "của", "ngành", "không phải", "ngoại trừ", "trừ", "except", "not", "thông tin", "so sánh", "tại sao", "why");
+        addAll(builder, Kind.FILLER, "tìm", "tìm kiếm", "kiếm", "cho tôi", "cho mình", "tôi", "mình", "em", "muốn",
+                "cần", "giúp", "giúp tôi", "hãy", "xin", "ở", "tại", "khu vực", "thành phố", "tp", "lương", "mức lương",
+                "có", "không", "nào", "các", "những", "một số", "vài", "cấp", "cấp bậc", "làm", "đang", "hiện", "hiện có",
+                "mới", "mới nhất", "với", "và", "hoặc", "bạn", "nhé", "nha", "ạ", "nhiều", "rất", "giá", "bao nhiêu",
+                "gì", "như thế nào", "thế nào", "xem", "liệt kê", "find", "search", "show", "me", "list", "in", "at",
+                "for", "the", "a", "an", "any", "some", "with", "salary", "please", "pls", "i", "want", "need",
+                "looking", "look", "is", "are", "there", "what", "which", "new", "latest", "ok", "oke");
+        addLocation(builder, "Hà Nội", "hà nội", "hn", "hanoi");
+        addLocation(builder, "Hồ Chí Minh", "hồ chí minh", "tp hcm", "tp.hcm", "tphcm", "hcm", "sài gòn", "saigon", "sg");
+        addLocation(builder, "Đà Nẵng", "đà nẵng", "danang");
+        addLocation(builder, "Hải Phòng", "hải phòng");
+        addLocation(builder, "Cần Thơ", "cần thơ");
+        addLocation(builder, "Bình Dương", "bình dương");
+        addLocation(builder, "Đồng Nai", "đồng nai");
+        addLocation(builder, "Bắc Ninh", "bắc ninh");
+        addLocation(builder, "Quảng Ninh", "quảng ninh");
+        addLocation(builder, "Huế", "huế");
+        addLocation(builder, "Nha Trang", "nha trang");
+        addLocation(builder, "Vũng Tàu", "vũng tàu");
+        addValues(builder, Kind.LEVEL, "Intern", "intern", "internship", "thực tập", "thực tập sinh");
+        addValues(builder, Kind.LEVEL, "Fresher", "fresher");
+        addValues(builder, Kind.LEVEL, "Junior", "junior");
+        addValues(builder, Kind.LEVEL, "Middle", "middle", "mid-level");
+        addValues(builder, Kind.LEVEL, "Senior", "senior");
+        addValues(builder, Kind.LEVEL, "Leader", "leader", "team lead", "trưởng nhóm");
+        addValues(builder, Kind.JOB_TYPE, "Full-time", "full-time", "full time", "fulltime", "toàn thời gian");
+        addValues(builder, Kind.JOB_TYPE, "Part-time", "part-time", "part time", "parttime", "bán thời gian");
+        addValues(builder, Kind.JOB_TYPE, "Remote", "remote", "từ xa", "làm từ xa");
+        addValues(builder, Kind.JOB_TYPE, "Freelance", "freelance", "freelancer");
+        return builder.build();
+    }
+
+    private static void addAll(AhoCorasick.Builder<Trigger> builder, Kind kind, String... phrases) {
+        addValues(builder, kind, null, phrases);
+    }
+
+    private static void addLocation(AhoCorasick.Builder<Trigger> builder, String name, String... aliases) {
+        addValues(builder, Kind.LOCATION, name, aliases);
+    }
+
+    private static void addValues(AhoCorasick.Builder<Trigger> builder, Kind kind, String value, String... phrases) {
+        for (String phrase : phrases) {
+            builder.add(fold(phrase), new Trigger(kind, phrase, value));
+        }
+    }
+}
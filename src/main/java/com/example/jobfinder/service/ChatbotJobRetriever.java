@@ -0,0 +1,151 @@
+package com.example.jobfinder.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.example.jobfinder.dto.gemini.GeminiIntentResponse;
+import com.example.jobfinder.model.JobDocument;
+import com.example.jobfinder.repository.UserDetailsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tìm job cho ý định job_search của chatbot trên index "jobs" thay vì JPQL LIKE '%..%' (quét toàn bảng, 5 join).
+ * - Tiêu đề, tên công ty: match full-text; địa điểm: wildcard không phân biệt hoa thường trên keyword
+ * - Danh mục/cấp bậc/loại hình: đổi tên sang id qua ReferenceDataCache rồi lọc terms
+ * - Chỉ lấy top-k hit với các field cần cho câu trả lời; job cũ chưa có companyName trong document
+ *   được bổ sung bằng một truy vấn gộp theo employerId
+ */
+@Service
+@Slf4j
+public class ChatbotJobRetriever {
+    private static final String JOBS_INDEX = "jobs";
+    private static final List<String> SOURCE_FIELDS = List.of("id", "title", "description", "location",
+            "employerId", "companyName", "salaryMin", "salaryMax");
+
+    private final ElasticsearchClient client;
+    private final ReferenceDataCache referenceDataCache;
+    private final UserDetailsRepository userDetailsRepository;
+    private final int topK;
+
+    public ChatbotJobRetriever(ElasticsearchClient client,
+                               ReferenceDataCache referenceDataCache,
+                               UserDetailsRepository userDetailsRepository,
+                               @Value("${app.chatbot.job-search.top-k:5}") int topK) {
+        this.client = client;
+        this.referenceDataCache = referenceDataCache;
+        this.userDetailsRepository = userDetailsRepository;
+        this.topK = topK;
+    }
+
+    public record Result(List<JobDocument> jobs, long totalHits) {
+        static final Result EMPTY = new Result(List.of(), 0);
+    }
+
+    public Result search(GeminiIntentResponse.JobSearchParams params) throws IOException {
+        List<Query> must = new ArrayList<>();
+        List<Query> filter = new ArrayList<>();
+        filter.add(Query.of(q -> q.term(t -> t.field("active").value(true))));
+
+        if (hasText(params.getJobTitle())) {
+            must.add(Query.of(q -> q.match(m -> m.field("title").query(params.getJobTitle()).operator(Operator.And))));
+        }
+        if (hasText(params.getEmployerName())) {
+            must.add(Query.of(q -> q.match(m -> m.field("companyName").query(params.getEmployerName())
+                    .operator(Operator.And))));
+        }
+        if (hasText(params.getLocation())) {
+            String pattern = "*" + escapeWildcard(params.getLocation().trim()) + "*";
+            filter.add(Query.of(q -> q.wildcard(w -> w.field("location").value(pattern).caseInsensitive(true))));
+        }
+        if (params.getMinSalary() != null) {
+            filter.add(Query.of(q -> q.range(r -> r.number(n -> n.field("salaryMin")
+                    .gte(params.getMinSalary().doubleValue())))));
+        }
+        if (params.getMaxSalary() != null) {
+            filter.add(Query.of(q -> q.range(r -> r.number(n -> n.field("salaryMax")
+                    .lte(params.getMaxSalary().doubleValue())))));
+        }
+        // Tên không khớp mục nào thì không có job nào thoả (giống LIKE trên bảng danh mục)
+        if (!addIdFilter(filter, "categoryId", params.getCategory(), referenceDataCache::categoryIdsMatching)
+                || !addIdFilter(filter, "jobLevelId", params.getJobLevel(), referenceDataCache::jobLevelIdsMatching)
+                || !addIdFilter(filter, "jobTypeId", params.getJobType(), referenceDataCache::jobTypeIdsMatching)) {
+            return Result.EMPTY;
+        }
+
+        SearchResponse<JobDocument> response = client.search(s -> s
+                .index(JOBS_INDEX)
+                .query(q -> q.bool(b -> b.must(must).filter(filter)))
+                .size(topK)
+                .source(src -> src.filter(f -> f.includes(SOURCE_FIELDS)))
+                // Không có điều kiện full-text thì điểm như nhau, ưu tiên tin mới
+                .sort(srt -> srt.score(sc -> sc.order(SortOrder.Desc)))
+                .sort(srt -> srt.field(f -> f.field("createdAt").order(SortOrder.Desc))),
+                JobDocument.class);
+
+        List<JobDocument> jobs = response.hits().hits().stream()
+                .map(Hit::source)
+                .filter(Objects::nonNull)
+                .toList();
+        fillMissingCompanyNames(jobs);
+
+        long totalHits = response.hits().total() != null ? response.hits().total().value() : jobs.size();
+        log.debug("Chatbot job search matched {} jobs (returning {})", totalHits, jobs.size());
+        return new Result(jobs, totalHits);
+    }
+
+    private static boolean addIdFilter(List<Query> filter, String field, String name,
+                                       Function<String, List<Long>> idsMatching) {
+        if (!hasText(name)) {
+            return true;
+        }
+        List<Long> ids = idsMatching.apply(name.trim());
+        if (ids.isEmpty()) {
+            return false;
+        }
+        List<FieldValue> values = ids.stream().map(FieldValue::of).toList();
+        filter.add(Query.of(q -> q.terms(t -> t.field(field).terms(v -> v.value(values)))));
+        return true;
+    }
+
+    // Document index trước khi có companyName (chưa reindex): lấy tên công ty cho cả trang trong một truy vấn
+    private void fillMissingCompanyNames(List<JobDocument> jobs) {
+        Set<Long> employerIds = jobs.stream()
+                .filter(job -> job.getCompanyName() == null && job.getEmployerId() != null)
+                .map(JobDocument::getEmployerId)
+                .collect(Collectors.toSet());
+        if (employerIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> companyNames = new HashMap<>();
+        for (Object[] row : userDetailsRepository.findCompanyNamesByUserIdIn(employerIds)) {
+            companyNames.put((Long) row[0], (String) row[1]);
+        }
+        jobs.stream()
+                .filter(job -> job.getCompanyName() == null)
+                .forEach(job -> job.setCompanyName(companyNames.get(job.getEmployerId())));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeWildcard(String value) {
+        return value.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+    }
+}
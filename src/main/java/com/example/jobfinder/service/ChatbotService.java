@@ -1,6 +1,9 @@
 // src/main/java/com/example/jobfinder/service/ChatbotService.java
 package com.example.jobfinder.service;
 
+import com.example.jobfinder.dto.ApiResponse;
+import com.example.jobfinder.dto.CursorPageResponse;
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.dto.gemini.GeminiIntentResponse;
 import com.example.jobfinder.dto.chatbot.ChatbotMessageRequest;
 import com.example.jobfinder.dto.chatbot.ChatbotHistoryResponse;
@@ -9,18 +12,25 @@ import com.example.jobfinder.repository.*;
 import com.example.jobfinder.exception.AppException; // Sử dụng AppException thay vì ResponseStatusException
 import com.example.jobfinder.exception.ErrorCode;
 import com.example.jobfinder.mapper.ChatbotHistoryMapper;
+import com.example.jobfinder.util.KeysetCursor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +49,9 @@ public class ChatbotService {
     SubscriptionPlanRepository subscriptionPlanRepository;
     ChatbotHistoryRepository chatbotHistoryRepository;
     ChatbotHistoryMapper chatbotHistoryMapper;
+    CurrentPrincipal currentPrincipal;
+    ChatIntentClassifier chatIntentClassifier;
+    ChatbotJobRetriever chatbotJobRetriever;
 
     private static final String INTENT_SYSTEM_INSTRUCTION = """
         ## Vai trò & Nhiệm vụ của bạn: Trợ lý Phân tích Ý định Chatbot Tuyển dụng
@@ -149,306 +162,400 @@ public class ChatbotService {
         Luôn luôn trả về một đối tượng JSON hoàn chỉnh theo cấu trúc đã định nghĩa cho ý định được xác định.
         """;
 
+    public static final String TOKEN_EVENT = "token";
+    public static final String DONE_EVENT = "done";
+    public static final String ERROR_EVENT = "error";
+
+    // localReply != null: trả lời được ngay, không cần LLM; ngược lại context là dữ liệu đưa cho LLM diễn đạt
+    private record PreparedReply(String localReply, String context) {}
+
     @Transactional
     public ChatbotHistoryResponse sendMessageToChatbot(ChatbotMessageRequest request) {
         String userMessage = request.getMessage();
         log.info("Processing chat message with advanced RAG and authorization: {}", userMessage);
+        User currentUser = resolveCurrentUser();
+
+        String finalGeminiResponse;
+        try {
+            PreparedReply prepared = prepareReply(userMessage, currentUser);
+            finalGeminiResponse = prepared.localReply() != null
+                    ? prepared.localReply()
+                    : geminiService.generateResponseWithContext(userMessage, prepared.context());
+        } catch (IOException e) {
+            log.error("Error communicating with Gemini API: {}", e.getMessage(), e);
+            throw new AppException(ErrorCode.GEMINI_API_ERROR);
+        } catch (AppException e) {
+            // Giữ nguyên mã lỗi đã phân loại (vd. AI_SERVICE_BUSY khi hết lượt gọi LLM đồng thời)
+            throw e;
+        } catch (Exception e) {
+            log.error("An unexpected error occurred during chat processing: {}", e.getMessage(), e);
+            throw new AppException(ErrorCode.UNEXPECTED_ERROR);
+        }
+        return saveHistory(currentUser, userMessage, finalGeminiResponse);
+    }
+
+    /**
+     * Bản stream của sendMessageToChatbot: phân tích ý định và truy vấn dữ liệu chạy trên request thread như cũ,
+     * sau đó câu trả lời được relay từng đoạn qua SSE (event "token"), lưu ChatbotHistory khi stream xong
+     * rồi gửi event "done" kèm bản ghi đã lưu; lỗi giữa chừng được gửi thành event "error".
+     * Không đánh @Transactional: method trả Flux sẽ bị coi là reactive transaction; lazy loading dựa vào open-in-view.
+     */
+    public Flux<ServerSentEvent<Object>> streamMessageToChatbot(ChatbotMessageRequest request) {
+        String userMessage = request.getMessage();
+        log.info("Processing streaming chat message: {}", userMessage);
+        User currentUser = resolveCurrentUser();
+
+        PreparedReply prepared;
+        try {
+            prepared = prepareReply(userMessage, currentUser);
+        } catch (IOException e) {
+            log.error("Error communicating with Gemini API: {}", e.getMessage(), e);
+            return Flux.just(errorEvent(ErrorCode.GEMINI_API_ERROR));
+        } catch (AppException e) {
+            return Flux.just(errorEvent(e.getErrorCode()));
+        } catch (RuntimeException e) {
+            log.error("An unexpected error occurred during chat processing: {}", e.getMessage(), e);
+            return Flux.just(errorEvent(ErrorCode.UNEXPECTED_ERROR));
+        }
 
+        Flux<String> tokens = prepared.localReply() != null
+                ? Flux.just(prepared.localReply())
+                : geminiService.streamResponseWithContext(userMessage, prepared.context());
+
+        return Flux.defer(() -> {
+            StringBuilder answer = new StringBuilder();
+            return tokens
+                    .doOnNext(answer::append)
+                    .map(token -> ServerSentEvent.<Object>builder().event(TOKEN_EVENT).data(token).build())
+                    // Lưu DB là thao tác chặn, không chạy trên thread của Reactor/HttpClient
+                    .concatWith(Mono.fromCallable(() -> saveHistory(currentUser, userMessage, answer.toString()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .map(saved -> ServerSentEvent.<Object>builder().event(DONE_EVENT).data(saved).build()));
+        }).onErrorResume(e -> {
+            ErrorCode errorCode = e instanceof AppException appException
+                    ? appException.getErrorCode() : ErrorCode.UNEXPECTED_ERROR;
+            log.error("Streaming chat response failed for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            return Flux.just(errorEvent(errorCode));
+        });
+    }
+
+    private static ServerSentEvent<Object> errorEvent(ErrorCode errorCode) {
+        return ServerSentEvent.<Object>builder()
+                .event(ERROR_EVENT)
+                .data(ApiResponse.builder()
+                        .code(errorCode.getErrorCode())
+                        .message(errorCode.getErrorMessage())
+                        .build())
+                .build();
+    }
+
+    private User resolveCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
-        String currentUserEmail = authentication.getName();
-        User currentUser = userRepository.findByEmail(currentUserEmail)
+        User currentUser = userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        String currentUserRole = currentUser.getRole().getName();
-        log.info("Current user: {} with role: {}", currentUserEmail, currentUserRole);
+        log.info("Current user: {} with role: {}", currentUser.getEmail(), currentUser.getRole().getName());
+        return currentUser;
+    }
 
-        String finalGeminiResponse;
+    // Phân tích ý định (cục bộ hoặc qua LLM) và truy vấn dữ liệu tương ứng
+    private PreparedReply prepareReply(String userMessage, User currentUser) throws IOException {
+        String currentUserEmail = currentUser.getEmail();
+        String currentUserRole = currentUser.getRole().getName();
         StringBuilder contextForGemini = new StringBuilder();
-        ChatbotHistory savedChatbotHistory = null;
 
-        try {
-            GeminiIntentResponse.IntentAnalysisResult analysisResult =
-                    geminiService.analyzeIntent(userMessage, INTENT_SYSTEM_INSTRUCTION);
-
-            String intent = analysisResult.getIntent();
-            log.info("Gemini identified intent: {}", intent);
-
-            switch (intent) {
-                case "job_search":
-                    GeminiIntentResponse.JobSearchParams searchParams = analysisResult.getJobSearchParams();
-                    if (searchParams != null) {
-                        List<Job> foundJobs = jobRepository.findJobsByCriteria(
-                                searchParams.getJobTitle(), searchParams.getLocation(),
-                                searchParams.getMinSalary(), searchParams.getMaxSalary(),
-                                searchParams.getCategory(), searchParams.getJobLevel(),
-                                searchParams.getJobType(), searchParams.getEmployerName());
-
-                        if (!foundJobs.isEmpty()) {
-                            contextForGemini.append("Dưới đây là một số thông tin công việc phù hợp mà tôi tìm thấy: ");
-                            String jobListString = foundJobs.stream()
-                                    .limit(5)
-                                    .map(job -> {
-                                        String companyName = userDetailsRepository.findByUserId(job.getEmployer().getId())
-                                                .map(UserDetail::getCompanyName).orElse("N/A");
-                                        return String.format("- Vị trí: %s, Công ty: %s, Địa điểm: %s, Lương: %.0f-%.0f, Mô tả: %s...",
-                                                job.getTitle(), companyName, job.getLocation(),
-                                                job.getSalaryMin(), job.getSalaryMax(),
-                                                job.getDescription().substring(0, Math.min(job.getDescription().length(), 100)));
-                                    }).collect(Collectors.joining("\n"));
-                            contextForGemini.append("\n").append(jobListString);
-                            if (foundJobs.size() > 5) contextForGemini.append("\n\n(Có thêm nhiều kết quả khác.)");
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích và giới thiệu các công việc tìm được.");
-                        } else {
-                            contextForGemini.append("Tôi không tìm thấy công việc nào phù hợp với yêu cầu của bạn.");
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
+        // Câu hỏi rõ ràng (chào hỏi, tìm việc đơn giản, bảng giá gói) được phân loại và trả lời tại chỗ, không gọi LLM
+        Optional<ChatIntentClassifier.LocalIntent> localIntent = chatIntentClassifier.classify(userMessage);
+        boolean answerLocally = localIntent.isPresent();
+        GeminiIntentResponse.IntentAnalysisResult analysisResult = answerLocally
+                ? localIntent.get().analysis()
+                : geminiService.analyzeIntent(userMessage, INTENT_SYSTEM_INSTRUCTION);
+        String localReply = localIntent.map(ChatIntentClassifier.LocalIntent::reply).orElse(null);
+
+        String intent = analysisResult.getIntent();
+        chatIntentClassifier.record(answerLocally, intent);
+        log.info("{} identified intent: {}", answerLocally ? "Local classifier" : "Gemini", intent);
+
+        switch (intent) {
+            case "job_search":
+                GeminiIntentResponse.JobSearchParams searchParams = analysisResult.getJobSearchParams();
+                if (searchParams != null) {
+                    // Tìm trên index "jobs" (top-k, tên công ty có sẵn trong document) thay vì LIKE trên MySQL
+                    ChatbotJobRetriever.Result found = chatbotJobRetriever.search(searchParams);
+                    List<JobDocument> foundJobs = found.jobs();
+                    boolean hasMoreJobs = found.totalHits() > foundJobs.size();
+
+                    if (!foundJobs.isEmpty()) {
+                        contextForGemini.append("Dưới đây là một số thông tin công việc phù hợp mà tôi tìm thấy: ");
+                        String jobListString = foundJobs.stream()
+                                .map(job -> {
+                                    String description = job.getDescription() != null ? job.getDescription() : "";
+                                    return String.format("- Vị trí: %s, Công ty: %s, Địa điểm: %s, Lương: %.0f-%.0f, Mô tả: %s...",
+                                            job.getTitle(), job.getCompanyName() != null ? job.getCompanyName() : "N/A",
+                                            job.getLocation(), job.getSalaryMin(), job.getSalaryMax(),
+                                            description.substring(0, Math.min(description.length(), 100)));
+                                }).collect(Collectors.joining("\n"));
+                        contextForGemini.append("\n").append(jobListString);
+                        if (hasMoreJobs) contextForGemini.append("\n\n(Có thêm nhiều kết quả khác.)");
+                        if (answerLocally) {
+                            localReply = "Dưới đây là một số công việc phù hợp mà tôi tìm thấy:\n" + jobListString
+                                    + (hasMoreJobs ? "\n\n(Có thêm nhiều kết quả khác.)" : "");
                         }
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích và giới thiệu các công việc tìm được.");
                     } else {
-                        contextForGemini.append("Yêu cầu tìm kiếm công việc của bạn chưa đủ thông tin hoặc không rõ ràng.");
-                        contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp thêm thông tin.");
-                    }
-                    break;
-
-                case "user_info":
-                    if (!"ADMIN".equals(currentUserRole)) {
-                        GeminiIntentResponse.UserSearchParams userSearchParams = analysisResult.getUserSearchParams();
-                        boolean isAskingAboutSelf = userSearchParams != null &&
-                                (currentUserEmail.equalsIgnoreCase(userSearchParams.getEmail()) ||
-                                        (userSearchParams.getFullName() != null &&
-                                                userDetailsRepository.findByUserId(currentUser.getId()).map(UserDetail::getFullName).orElse("").equalsIgnoreCase(userSearchParams.getFullName()))
-                                );
-                        if (!isAskingAboutSelf) {
-                            log.warn("User {} (role {}) attempted to access unauthorized user info.", currentUserEmail, currentUserRole);
-                            contextForGemini.append("Xin lỗi, bạn không có quyền truy vấn thông tin cá nhân của người dùng khác.");
-                            contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
-                            break;
+                        if (answerLocally) {
+                            localReply = "Tôi không tìm thấy công việc nào phù hợp với yêu cầu của bạn. "
+                                    + "Bạn có thể thử từ khoá khác hoặc bớt điều kiện về địa điểm, mức lương.";
                         }
+                        contextForGemini.append("Tôi không tìm thấy công việc nào phù hợp với yêu cầu của bạn.");
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
                     }
+                } else {
+                    contextForGemini.append("Yêu cầu tìm kiếm công việc của bạn chưa đủ thông tin hoặc không rõ ràng.");
+                    contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp thêm thông tin.");
+                }
+                break;
+
+            case "user_info":
+                if (!"ADMIN".equals(currentUserRole)) {
                     GeminiIntentResponse.UserSearchParams userSearchParams = analysisResult.getUserSearchParams();
-                    if (userSearchParams != null) {
-                        if (!"ADMIN".equals(currentUserRole)) userSearchParams.setEmail(currentUserEmail);
-                        List<User> foundUsers = userRepository.findUsersByCriteria(
-                                userSearchParams.getEmail(), userSearchParams.getFullName(),
-                                userSearchParams.getRole(), userSearchParams.getLocation(),
-                                userSearchParams.getIsPremium(),
-                                userSearchParams.getIsVerified(), userSearchParams.getResumeUrl(),
-                                userSearchParams.getCompanyName(), userSearchParams.getWebsite());
-                        if (!foundUsers.isEmpty()) {
-                            contextForGemini.append("Dưới đây là một số thông tin người dùng phù hợp mà tôi tìm thấy: ");
-                            String userListString = foundUsers.stream().limit(3)
-                                    .map(user -> {
-                                        String roleName = (user.getRole() != null) ? user.getRole().getName() : "N/A";
-                                        UserDetail userDetail = userDetailsRepository.findByUserId(user.getId())
-                                                .orElseThrow(() -> new AppException(ErrorCode.PROFILE_NOT_FOUND));
-
-                                        String fullName = (userDetail != null && userDetail.getFullName() != null) ? userDetail.getFullName() : "N/A";
-                                        return String.format("- Email: %s, Tên: %s, Vai trò: %s, Địa điểm: %s, Premium: %b",
-                                                user.getEmail(), fullName, roleName, (userDetail != null ? userDetail.getLocation() : "N/A"), user.getIsPremium());
-                                    }).collect(Collectors.joining("\n"));
-                            contextForGemini.append("\n").append(userListString);
-                            if (foundUsers.size() > 3) contextForGemini.append("\n\n(Có thêm người dùng khác.)");
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
-                        } else {
-                            contextForGemini.append("Tôi không tìm thấy người dùng nào phù hợp với yêu cầu của bạn.");
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
-                        }
-                    } else {
-                        contextForGemini.append("Yêu cầu tìm kiếm người dùng của bạn chưa đủ thông tin hoặc không rõ ràng.");
-                        contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp email, tên hoặc vai trò cụ thể.");
+                    boolean isAskingAboutSelf = userSearchParams != null &&
+                            (currentUserEmail.equalsIgnoreCase(userSearchParams.getEmail()) ||
+                                    (userSearchParams.getFullName() != null &&
+                                            userDetailsRepository.findByUserId(currentUser.getId()).map(UserDetail::getFullName).orElse("").equalsIgnoreCase(userSearchParams.getFullName()))
+                            );
+                    if (!isAskingAboutSelf) {
+                        log.warn("User {} (role {}) attempted to access unauthorized user info.", currentUserEmail, currentUserRole);
+                        contextForGemini.append("Xin lỗi, bạn không có quyền truy vấn thông tin cá nhân của người dùng khác.");
+                        contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
+                        break;
                     }
-                    break;
-
-                case "subscription_info":
-                    if (!"ADMIN".equals(currentUserRole)) {
-                        GeminiIntentResponse.SubscriptionSearchParams subSearchParams = analysisResult.getSubscriptionSearchParams();
-                        boolean isAskingAboutSelf = subSearchParams != null && currentUserEmail.equalsIgnoreCase(subSearchParams.getUserEmail());
-                        if (!isAskingAboutSelf && subSearchParams != null && subSearchParams.getUserEmail() != null) {
-                            log.warn("User {} (role {}) attempted to access unauthorized subscription info for another user: {}", currentUserEmail, currentUserRole, subSearchParams.getUserEmail());
-                            contextForGemini.append("Xin lỗi, bạn không có quyền truy vấn thông tin gói đăng ký của người dùng khác.");
-                            contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
-                            break;
-                        }
+                }
+                GeminiIntentResponse.UserSearchParams userSearchParams = analysisResult.getUserSearchParams();
+                if (userSearchParams != null) {
+                    if (!"ADMIN".equals(currentUserRole)) userSearchParams.setEmail(currentUserEmail);
+                    List<User> foundUsers = userRepository.findUsersByCriteria(
+                            userSearchParams.getEmail(), userSearchParams.getFullName(),
+                            userSearchParams.getRole(), userSearchParams.getLocation(),
+                            userSearchParams.getIsPremium(),
+                            userSearchParams.getIsVerified(), userSearchParams.getResumeUrl(),
+                            userSearchParams.getCompanyName(), userSearchParams.getWebsite());
+                    if (!foundUsers.isEmpty()) {
+                        contextForGemini.append("Dưới đây là một số thông tin người dùng phù hợp mà tôi tìm thấy: ");
+                        String userListString = foundUsers.stream().limit(3)
+                                .map(user -> {
+                                    String roleName = (user.getRole() != null) ? user.getRole().getName() : "N/A";
+                                    UserDetail userDetail = userDetailsRepository.findByUserId(user.getId())
+                                            .orElseThrow(() -> new AppException(ErrorCode.PROFILE_NOT_FOUND));
+
+                                    String fullName = (userDetail != null && userDetail.getFullName() != null) ? userDetail.getFullName() : "N/A";
+                                    return String.format("- Email: %s, Tên: %s, Vai trò: %s, Địa điểm: %s, Premium: %b",
+                                            user.getEmail(), fullName, roleName, (userDetail != null ? userDetail.getLocation() : "N/A"), user.getIsPremium());
+                                }).collect(Collectors.joining("\n"));
+                        contextForGemini.append("\n").append(userListString);
+                        if (foundUsers.size() > 3) contextForGemini.append("\n\n(Có thêm người dùng khác.)");
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
+                    } else {
+                        contextForGemini.append("Tôi không tìm thấy người dùng nào phù hợp với yêu cầu của bạn.");
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
                     }
+                } else {
+                    contextForGemini.append("Yêu cầu tìm kiếm người dùng của bạn chưa đủ thông tin hoặc không rõ ràng.");
+                    contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp email, tên hoặc vai trò cụ thể.");
+                }
+                break;
+
+            case "subscription_info":
+                if (!"ADMIN".equals(currentUserRole)) {
                     GeminiIntentResponse.SubscriptionSearchParams subSearchParams = analysisResult.getSubscriptionSearchParams();
-                    if (subSearchParams != null && (subSearchParams.getUserEmail() != null || subSearchParams.getPlanName() != null || subSearchParams.getIsActive() != null)) {
-                        if (!"ADMIN".equals(currentUserRole) && subSearchParams.getUserEmail() != null) subSearchParams.setUserEmail(currentUserEmail);
-                        List<Subscription> foundSubscriptions = subscriptionRepository.findSubscriptionsByCriteria(
-                                subSearchParams.getUserEmail(), subSearchParams.getPlanName(), subSearchParams.getIsActive());
-                        if (!foundSubscriptions.isEmpty()) {
-                            contextForGemini.append("Dưới đây là thông tin gói đăng ký phù hợp mà tôi tìm thấy: ");
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                            String subListString = foundSubscriptions.stream().limit(3)
-                                    .map(sub -> String.format("- Người dùng: %s, Gói: %s, Bắt đầu: %s, Kết thúc: %s, Hoạt động: %b",
-                                            sub.getUser().getEmail(), sub.getPlan().getSubscriptionPlanName(),
-                                            sub.getStartDate() != null ? sub.getStartDate().format(formatter) : "N/A",
-                                            sub.getEndDate() != null ? sub.getEndDate().format(formatter) : "N/A", sub.getIsActive()))
-                                    .collect(Collectors.joining("\n"));
-                            contextForGemini.append("\n").append(subListString);
-                            if (foundSubscriptions.size() > 3) contextForGemini.append("\n\n(Có thêm các gói đăng ký khác.)");
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
-                        } else {
-                            contextForGemini.append("Tôi không tìm thấy thông tin gói đăng ký nào phù hợp với yêu cầu của bạn.");
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
-                        }
+                    boolean isAskingAboutSelf = subSearchParams != null && currentUserEmail.equalsIgnoreCase(subSearchParams.getUserEmail());
+                    if (!isAskingAboutSelf && subSearchParams != null && subSearchParams.getUserEmail() != null) {
+                        log.warn("User {} (role {}) attempted to access unauthorized subscription info for another user: {}", currentUserEmail, currentUserRole, subSearchParams.getUserEmail());
+                        contextForGemini.append("Xin lỗi, bạn không có quyền truy vấn thông tin gói đăng ký của người dùng khác.");
+                        contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
+                        break;
+                    }
+                }
+                GeminiIntentResponse.SubscriptionSearchParams subSearchParams = analysisResult.getSubscriptionSearchParams();
+                if (subSearchParams != null && (subSearchParams.getUserEmail() != null || subSearchParams.getPlanName() != null || subSearchParams.getIsActive() != null)) {
+                    if (!"ADMIN".equals(currentUserRole) && subSearchParams.getUserEmail() != null) subSearchParams.setUserEmail(currentUserEmail);
+                    List<Subscription> foundSubscriptions = subscriptionRepository.findSubscriptionsByCriteria(
+                            subSearchParams.getUserEmail(), subSearchParams.getPlanName(), subSearchParams.getIsActive());
+                    if (!foundSubscriptions.isEmpty()) {
+                        contextForGemini.append("Dưới đây là thông tin gói đăng ký phù hợp mà tôi tìm thấy: ");
+                        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+                        String subListString = foundSubscriptions.stream().limit(3)
+                                .map(sub -> String.format("- Người dùng: %s, Gói: %s, Bắt đầu: %s, Kết thúc: %s, Hoạt động: %b",
+                                        sub.getUser().getEmail(), sub.getPlan().getSubscriptionPlanName(),
+                                        sub.getStartDate() != null ? sub.getStartDate().format(formatter) : "N/A",
+                                        sub.getEndDate() != null ? sub.getEndDate().format(formatter) : "N/A", sub.getIsActive()))
+                                .collect(Collectors.joining("\n"));
+                        contextForGemini.append("\n").append(subListString);
+                        if (foundSubscriptions.size() > 3) contextForGemini.append("\n\n(Có thêm các gói đăng ký khác.)");
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
                     } else {
-                        List<SubscriptionPlan> allPlans = subscriptionPlanRepository.findAll();
-                        if (!allPlans.isEmpty()) {
-                            contextForGemini.append("Dưới đây là các gói đăng ký hiện có trên hệ thống của chúng tôi: ");
-                            String planListString = allPlans.stream()
-                                    .map(plan -> String.format("- Gói: %s, Giá: %.2f VNĐ, Thời hạn: %d ngày, Đăng bài tối đa: %d, Xem ứng tuyển tối đa: %d, Nổi bật việc làm: %b",
-                                            plan.getSubscriptionPlanName(), plan.getPrice(), plan.getDurationDays(),
-                                            plan.getMaxJobsPost(), plan.getMaxApplications(), plan.getHighlightJobs()))
-                                    .collect(Collectors.joining("\n"));
-                            contextForGemini.append("\n").append(planListString);
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
-                        } else {
-                            contextForGemini.append("Tôi không tìm thấy thông tin gói đăng ký nào. Bạn có thể thử hỏi về một gói cụ thể không?");
-                        }
+                        contextForGemini.append("Tôi không tìm thấy thông tin gói đăng ký nào phù hợp với yêu cầu của bạn.");
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
                     }
-                    break;
-
-                case "company_info":
-                    GeminiIntentResponse.CompanyInfoParams companyInfoParams = analysisResult.getCompanyInfoParams();
-                    if (companyInfoParams != null && companyInfoParams.getCompanyName() != null) {
-                        List<UserDetail> foundCompanyDetails = companyInfoParams.getLocation() != null ?
-                                userDetailsRepository.findByCompanyNameContainingIgnoreCaseAndLocationContainingIgnoreCase(
-                                        companyInfoParams.getCompanyName(), companyInfoParams.getLocation()) :
-                                userDetailsRepository.findByCompanyNameContainingIgnoreCase(companyInfoParams.getCompanyName());
-                        if (!foundCompanyDetails.isEmpty()) {
-                            UserDetail companyDetail = foundCompanyDetails.get(0);
-                            contextForGemini.append("Dưới đây là thông tin tôi tìm được về công ty: ");
-                            contextForGemini.append(String.format("\n- Tên công ty: %s, Địa điểm: %s, Mô tả: %s, Website: %s",
-                                    companyDetail.getCompanyName(), companyDetail.getLocation(),
-                                    companyDetail.getDescription() != null ? companyDetail.getDescription() : "N/A",
-                                    companyDetail.getWebsite() != null ? companyDetail.getWebsite() : "N/A"));
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
-                        } else {
-                            contextForGemini.append("Tôi không tìm thấy thông tin về công ty này.");
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý kiểm tra lại tên công ty.");
+                } else {
+                    List<SubscriptionPlan> allPlans = subscriptionPlanRepository.findAll();
+                    if (!allPlans.isEmpty()) {
+                        contextForGemini.append("Dưới đây là các gói đăng ký hiện có trên hệ thống của chúng tôi: ");
+                        String planListString = allPlans.stream()
+                                .map(plan -> String.format("- Gói: %s, Giá: %.2f VNĐ, Thời hạn: %d ngày, Đăng bài tối đa: %d, Xem ứng tuyển tối đa: %d, Nổi bật việc làm: %b",
+                                        plan.getSubscriptionPlanName(), plan.getPrice(), plan.getDurationDays(),
+                                        plan.getMaxJobsPost(), plan.getMaxApplications(), plan.getHighlightJobs()))
+                                .collect(Collectors.joining("\n"));
+                        contextForGemini.append("\n").append(planListString);
+                        if (answerLocally) {
+                            localReply = "Dưới đây là các gói đăng ký hiện có trên hệ thống của chúng tôi:\n" + planListString;
                         }
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
+                    } else {
+                        contextForGemini.append("Tôi không tìm thấy thông tin gói đăng ký nào. Bạn có thể thử hỏi về một gói cụ thể không?");
+                    }
+                }
+                break;
+
+            case "company_info":
+                GeminiIntentResponse.CompanyInfoParams companyInfoParams = analysisResult.getCompanyInfoParams();
+                if (companyInfoParams != null && companyInfoParams.getCompanyName() != null) {
+                    List<UserDetail> foundCompanyDetails = companyInfoParams.getLocation() != null ?
+                            userDetailsRepository.findByCompanyNameContainingIgnoreCaseAndLocationContainingIgnoreCase(
+                                    companyInfoParams.getCompanyName(), companyInfoParams.getLocation()) :
+                            userDetailsRepository.findByCompanyNameContainingIgnoreCase(companyInfoParams.getCompanyName());
+                    if (!foundCompanyDetails.isEmpty()) {
+                        UserDetail companyDetail = foundCompanyDetails.get(0);
+                        contextForGemini.append("Dưới đây là thông tin tôi tìm được về công ty: ");
+                        contextForGemini.append(String.format("\n- Tên công ty: %s, Địa điểm: %s, Mô tả: %s, Website: %s",
+                                companyDetail.getCompanyName(), companyDetail.getLocation(),
+                                companyDetail.getDescription() != null ? companyDetail.getDescription() : "N/A",
+                                companyDetail.getWebsite() != null ? companyDetail.getWebsite() : "N/A"));
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng một cách hữu ích.");
                     } else {
-                        contextForGemini.append("Bạn muốn tìm thông tin về công ty nào? Vui lòng cung cấp tên công ty.");
+                        contextForGemini.append("Tôi không tìm thấy thông tin về công ty này.");
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý kiểm tra lại tên công ty.");
                     }
-                    break;
-
-                case "employer_reviews":
-                    GeminiIntentResponse.EmployerReviewParams reviewParams = analysisResult.getEmployerReviewParams();
-                    if (reviewParams != null && reviewParams.getEmployerName() != null) {
-                        List<UserDetail> employerDetails = userDetailsRepository.findByCompanyNameContainingIgnoreCase(reviewParams.getEmployerName());
-                        if (!employerDetails.isEmpty()) {
-                            User employerUser = employerDetails.get(0).getUser();
-                            List<EmployerReview> reviews = employerReviewRepository.findEmployerReviewsByEmployerAndRating(
-                                    employerUser.getId(), reviewParams.getMinRating(), reviewParams.getMaxRating());
-                            if (!reviews.isEmpty()) {
-                                contextForGemini.append(String.format("Dưới đây là một số đánh giá về công ty %s: ", reviewParams.getEmployerName()));
-                                String reviewListString = reviews.stream().limit(3)
-                                        .map(review -> String.format("- Đánh giá: %d sao, Bình luận: \"%s\"",
-                                                review.getRating(), review.getComment().substring(0, Math.min(review.getComment().length(), 100)) + "..."))
-                                        .collect(Collectors.joining("\n"));
-                                contextForGemini.append("\n").append(reviewListString);
-                                if (reviews.size() > 3) contextForGemini.append("\n\n(Có thêm các đánh giá khác.)");
-                                contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
-                            } else {
-                                contextForGemini.append(String.format("Không có đánh giá nào được tìm thấy cho công ty %s với tiêu chí này.", reviewParams.getEmployerName()));
-                                contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả.");
-                            }
+                } else {
+                    contextForGemini.append("Bạn muốn tìm thông tin về công ty nào? Vui lòng cung cấp tên công ty.");
+                }
+                break;
+
+            case "employer_reviews":
+                GeminiIntentResponse.EmployerReviewParams reviewParams = analysisResult.getEmployerReviewParams();
+                if (reviewParams != null && reviewParams.getEmployerName() != null) {
+                    List<UserDetail> employerDetails = userDetailsRepository.findByCompanyNameContainingIgnoreCase(reviewParams.getEmployerName());
+                    if (!employerDetails.isEmpty()) {
+                        User employerUser = employerDetails.get(0).getUser();
+                        List<EmployerReview> reviews = employerReviewRepository.findEmployerReviewsByEmployerAndRating(
+                                employerUser.getId(), reviewParams.getMinRating(), reviewParams.getMaxRating());
+                        if (!reviews.isEmpty()) {
+                            contextForGemini.append(String.format("Dưới đây là một số đánh giá về công ty %s: ", reviewParams.getEmployerName()));
+                            String reviewListString = reviews.stream().limit(3)
+                                    .map(review -> String.format("- Đánh giá: %d sao, Bình luận: \"%s\"",
+                                            review.getRating(), review.getComment().substring(0, Math.min(review.getComment().length(), 100)) + "..."))
+                                    .collect(Collectors.joining("\n"));
+                            contextForGemini.append("\n").append(reviewListString);
+                            if (reviews.size() > 3) contextForGemini.append("\n\n(Có thêm các đánh giá khác.)");
+                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
                         } else {
-                            contextForGemini.append(String.format("Tôi không tìm thấy công ty '%s' trong hệ thống để tìm đánh giá.", reviewParams.getEmployerName()));
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy công ty.");
+                            contextForGemini.append(String.format("Không có đánh giá nào được tìm thấy cho công ty %s với tiêu chí này.", reviewParams.getEmployerName()));
+                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả.");
                         }
                     } else {
-                        contextForGemini.append("Bạn muốn xem đánh giá về công ty nào? Vui lòng cung cấp tên công ty.");
+                        contextForGemini.append(String.format("Tôi không tìm thấy công ty '%s' trong hệ thống để tìm đánh giá.", reviewParams.getEmployerName()));
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy công ty.");
                     }
-                    break;
-
-                case "application_status":
-                    GeminiIntentResponse.ApplicationSearchParams appSearchParams = analysisResult.getApplicationSearchParams();
-                    List<Application> foundApplications = null;
-                    if (appSearchParams != null && (appSearchParams.getJobSeekerEmail() != null || appSearchParams.getJobTitle() != null || appSearchParams.getStatus() != null)) {
-                        if ("JOB_SEEKER".equals(currentUserRole)) {
-                            if (appSearchParams.getJobSeekerEmail() != null && !currentUserEmail.equalsIgnoreCase(appSearchParams.getJobSeekerEmail())) {
-                                log.warn("Job Seeker {} attempted to access application status of another user: {}", currentUserEmail, appSearchParams.getJobSeekerEmail());
-                                contextForGemini.append("Xin lỗi, bạn chỉ có thể xem tình trạng đơn ứng tuyển của chính mình.");
-                                contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
-                                break;
-                            }
-                            appSearchParams.setJobSeekerEmail(currentUserEmail);
-                            foundApplications = applicationRepository.findApplicationsByJobSeekerAndJobTitleAndStatus(
-                                    currentUser.getId(), appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
-                        } else if ("EMPLOYER".equals(currentUserRole)) {
-                            List<Long> employerJobIds = jobRepository.findByEmployerId(currentUser.getId())
-                                    .stream().map(Job::getId).collect(Collectors.toList());
-                            if (employerJobIds.isEmpty()) {
-                                contextForGemini.append("Bạn chưa đăng công việc nào nên không có đơn ứng tuyển để hiển thị.");
-                                contextForGemini.append("\n\nHãy trả lời người dùng rằng không có công việc nào được đăng.");
-                                break;
-                            }
-                            foundApplications = applicationRepository.findApplicationsByJobIdsAndJobTitleAndStatus(
-                                    employerJobIds, appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
-                        } else if ("ADMIN".equals(currentUserRole)) {
-                            Long jobSeekerId = null;
-                            if (appSearchParams.getJobSeekerEmail() != null) {
-                                User jobSeeker = userRepository.findByEmail(appSearchParams.getJobSeekerEmail()).orElse(null);
-                                if (jobSeeker != null) jobSeekerId = jobSeeker.getId();
-                            }
-                            foundApplications = applicationRepository.findApplicationsByJobSeekerAndJobTitleAndStatus(
-                                    jobSeekerId, appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
-                        } else {
-                            contextForGemini.append("Xin lỗi, vai trò của bạn không được phép truy vấn thông tin đơn ứng tuyển.");
-                            contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép.");
+                } else {
+                    contextForGemini.append("Bạn muốn xem đánh giá về công ty nào? Vui lòng cung cấp tên công ty.");
+                }
+                break;
+
+            case "application_status":
+                GeminiIntentResponse.ApplicationSearchParams appSearchParams = analysisResult.getApplicationSearchParams();
+                List<Application> foundApplications = null;
+                if (appSearchParams != null && (appSearchParams.getJobSeekerEmail() != null || appSearchParams.getJobTitle() != null || appSearchParams.getStatus() != null)) {
+                    if ("JOB_SEEKER".equals(currentUserRole)) {
+                        if (appSearchParams.getJobSeekerEmail() != null && !currentUserEmail.equalsIgnoreCase(appSearchParams.getJobSeekerEmail())) {
+                            log.warn("Job Seeker {} attempted to access application status of another user: {}", currentUserEmail, appSearchParams.getJobSeekerEmail());
+                            contextForGemini.append("Xin lỗi, bạn chỉ có thể xem tình trạng đơn ứng tuyển của chính mình.");
+                            contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép truy cập thông tin này.");
                             break;
                         }
-
-                        if (foundApplications != null && !foundApplications.isEmpty()) {
-                            contextForGemini.append("Dưới đây là một số đơn ứng tuyển phù hợp: ");
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                            String appListString = foundApplications.stream().limit(5)
-                                    .map(app -> String.format("- Vị trí: %s, Người ứng tuyển: %s, Trạng thái: %s, Ngày ứng tuyển: %s",
-                                            app.getJob().getTitle(), app.getJobSeeker().getEmail(),
-                                            app.getStatus(),
-                                            app.getAppliedAt() != null ? app.getAppliedAt().format(formatter) : "N/A"))
-                                    .collect(Collectors.joining("\n"));
-                            contextForGemini.append("\n").append(appListString);
-                            if (foundApplications.size() > 5) contextForGemini.append("\n\n(Có thêm các đơn ứng tuyển khác.)");
-                            contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
-                        } else {
-                            contextForGemini.append("Không tìm thấy đơn ứng tuyển nào phù hợp với yêu cầu của bạn.");
-                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
+                        appSearchParams.setJobSeekerEmail(currentUserEmail);
+                        foundApplications = applicationRepository.findApplicationsByJobSeekerAndJobTitleAndStatus(
+                                currentUser.getId(), appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
+                    } else if ("EMPLOYER".equals(currentUserRole)) {
+                        List<Long> employerJobIds = jobRepository.findByEmployerId(currentUser.getId())
+                                .stream().map(Job::getId).collect(Collectors.toList());
+                        if (employerJobIds.isEmpty()) {
+                            contextForGemini.append("Bạn chưa đăng công việc nào nên không có đơn ứng tuyển để hiển thị.");
+                            contextForGemini.append("\n\nHãy trả lời người dùng rằng không có công việc nào được đăng.");
+                            break;
+                        }
+                        foundApplications = applicationRepository.findApplicationsByJobIdsAndJobTitleAndStatus(
+                                employerJobIds, appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
+                    } else if ("ADMIN".equals(currentUserRole)) {
+                        Long jobSeekerId = null;
+                        if (appSearchParams.getJobSeekerEmail() != null) {
+                            User jobSeeker = userRepository.findByEmail(appSearchParams.getJobSeekerEmail()).orElse(null);
+                            if (jobSeeker != null) jobSeekerId = jobSeeker.getId();
                         }
+                        foundApplications = applicationRepository.findApplicationsByJobSeekerAndJobTitleAndStatus(
+                                jobSeekerId, appSearchParams.getJobTitle(), appSearchParams.getStatus()); // dùng getStatus()
                     } else {
-                        contextForGemini.append("Yêu cầu tìm kiếm trạng thái đơn ứng tuyển của bạn chưa đủ thông tin hoặc không rõ ràng.");
-                        contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp thêm thông tin.");
+                        contextForGemini.append("Xin lỗi, vai trò của bạn không được phép truy vấn thông tin đơn ứng tuyển.");
+                        contextForGemini.append("\n\nHãy thông báo cho người dùng rằng họ không được phép.");
+                        break;
                     }
-                    break;
 
-                case "general_chat":
-                    contextForGemini.append("Đây là một cuộc trò chuyện chung. Hãy trả lời câu hỏi của người dùng một cách tự nhiên và thân thiện.");
-                    break;
-
-                case "unclear":
-                default:
-                    contextForGemini.append("Xin lỗi, tôi không thể hiểu rõ yêu cầu của bạn. Vui lòng thử lại với một câu hỏi rõ ràng hơn.");
-                    contextForGemini.append("\n\nHãy thông báo cho người dùng rằng bạn không hiểu yêu cầu và gợi ý các chủ đề mà bạn có thể hỗ trợ.");
-                    break;
-            }
-
-            finalGeminiResponse = geminiService.generateResponseWithContext(userMessage, contextForGemini.toString());
-
-        } catch (IOException e) {
-            log.error("Error communicating with Gemini API: {}", e.getMessage(), e);
-            throw new AppException(ErrorCode.GEMINI_API_ERROR);
-        } catch (Exception e) {
-            log.error("An unexpected error occurred during chat processing: {}", e.getMessage(), e);
-            throw new AppException(ErrorCode.UNEXPECTED_ERROR);
+                    if (foundApplications != null && !foundApplications.isEmpty()) {
+                        contextForGemini.append("Dưới đây là một số đơn ứng tuyển phù hợp: ");
+                        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+                        String appListString = foundApplications.stream().limit(5)
+                                .map(app -> String.format("- Vị trí: %s, Người ứng tuyển: %s, Trạng thái: %s, Ngày ứng tuyển: %s",
+                                        app.getJob().getTitle(), app.getJobSeeker().getEmail(),
+                                        app.getStatus(),
+                                        app.getAppliedAt() != null ? app.getAppliedAt().format(formatter) : "N/A"))
+                                .collect(Collectors.joining("\n"));
+                        contextForGemini.append("\n").append(appListString);
+                        if (foundApplications.size() > 5) contextForGemini.append("\n\n(Có thêm các đơn ứng tuyển khác.)");
+                        contextForGemini.append("\n\nDựa vào thông tin này, hãy trả lời câu hỏi của người dùng.");
+                    } else {
+                        contextForGemini.append("Không tìm thấy đơn ứng tuyển nào phù hợp với yêu cầu của bạn.");
+                        contextForGemini.append("\n\nHãy trả lời người dùng rằng không tìm thấy kết quả và gợi ý tìm kiếm khác.");
+                    }
+                } else {
+                    contextForGemini.append("Yêu cầu tìm kiếm trạng thái đơn ứng tuyển của bạn chưa đủ thông tin hoặc không rõ ràng.");
+                    contextForGemini.append("\n\nHãy yêu cầu người dùng cung cấp thêm thông tin.");
+                }
+                break;
+
+            case "general_chat":
+                contextForGemini.append("Đây là một cuộc trò chuyện chung. Hãy trả lời câu hỏi của người dùng một cách tự nhiên và thân thiện.");
+                break;
+
+            case "unclear":
+            default:
+                contextForGemini.append("Xin lỗi, tôi không thể hiểu rõ yêu cầu của bạn. Vui lòng thử lại với một câu hỏi rõ ràng hơn.");
+                contextForGemini.append("\n\nHãy thông báo cho người dùng rằng bạn không hiểu yêu cầu và gợi ý các chủ đề mà bạn có thể hỗ trợ.");
+                break;
         }
 
+        return new PreparedReply(localReply, contextForGemini.toString());
+    }
+
+    private ChatbotHistoryResponse saveHistory(User currentUser, String userMessage, String response) {
+        String currentUserEmail = currentUser.getEmail();
+        ChatbotHistory savedChatbotHistory;
         try {
             ChatbotHistory chatbotHistoryToSave = ChatbotHistory.builder()
                     .user(currentUser)
                     .message(userMessage)
-                    .response(finalGeminiResponse)
+                    .response(response)
                     .build();
             savedChatbotHistory = chatbotHistoryRepository.save(chatbotHistoryToSave);
             log.info("Chatbot history saved successfully for user {}. ID: {}", currentUserEmail, savedChatbotHistory.getId());
@@ -460,19 +567,20 @@ public class ChatbotService {
     }
 
     @PreAuthorize("hasAnyRole('JOB_SEEKER', 'EMPLOYER', 'ADMIN')")
-    public List<ChatbotHistoryResponse> getMyChatbotHistory() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUserEmail = authentication.getName();
-
-        User currentUser = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-
-        List<ChatbotHistory> userHistory = chatbotHistoryRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
-
-        log.info("Found {} chat history entries for user {}.", userHistory.size(), currentUserEmail);
-        return userHistory.stream()
-                .map(chatbotHistoryMapper::toChatbotHistoryResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ChatbotHistoryResponse> getMyChatbotHistory(String cursor, Integer size) {
+        AuthenticatedPrincipal principal = currentPrincipal.require();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.normalizeSize(size);
+
+        List<ChatbotHistory> rows = after == null
+                ? chatbotHistoryRepository.findFirstPageByUserId(principal.getId(), KeysetCursor.fetchLimit(pageSize))
+                : chatbotHistoryRepository.findPageByUserIdBefore(principal.getId(), after.createdAt(), after.id(),
+                        KeysetCursor.fetchLimit(pageSize));
+
+        log.info("Fetched {} chat history entries for user {}.", Math.min(rows.size(), pageSize), principal.getEmail());
+        return CursorPageResponse.of(rows, pageSize, ChatbotHistory::getCreatedAt, ChatbotHistory::getId,
+                chatbotHistoryMapper::toChatbotHistoryResponse);
     }
 
     @PreAuthorize("hasAnyRole('JOB_SEEKER', 'EMPLOYER', 'ADMIN')")
@@ -518,13 +626,17 @@ public class ChatbotService {
 
 
     @PreAuthorize("hasRole('ADMIN')")
-    public List<ChatbotHistoryResponse> getAllChatbotHistoryForAdmin() {
-        log.info("Admin user is requesting all chatbot history.");
-        List<ChatbotHistory> allHistory = chatbotHistoryRepository.findAllByOrderByCreatedAtDesc();
-
-        return allHistory.stream()
-                .map(chatbotHistoryMapper::toChatbotHistoryResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ChatbotHistoryResponse> getAllChatbotHistoryForAdmin(String cursor, Integer size) {
+        log.info("Admin user is requesting chatbot history page.");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.normalizeSize(size);
+
+        List<ChatbotHistory> rows = after == null
+                ? chatbotHistoryRepository.findFirstPage(KeysetCursor.fetchLimit(pageSize))
+                : chatbotHistoryRepository.findPageBefore(after.createdAt(), after.id(), KeysetCursor.fetchLimit(pageSize));
+        return CursorPageResponse.of(rows, pageSize, ChatbotHistory::getCreatedAt, ChatbotHistory::getId,
+                chatbotHistoryMapper::toChatbotHistoryResponse);
     }
 
     @Transactional
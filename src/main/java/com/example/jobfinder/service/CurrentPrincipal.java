@@ -0,0 +1,79 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.config.JwtUtil;
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * Người dùng đang đăng nhập của request hiện tại.
+ * Chỉ resolve một lần cho mỗi request (từ claims khi bật chế độ stateless, ngược lại qua PrincipalCache),
+ * các service inject bean này thay vì tự gọi userRepository.findByEmail(authentication.getName()).
+ */
+@Component
+@RequestScope
+public class CurrentPrincipal {
+    private final PrincipalCache principalCache;
+    private final HttpServletRequest request;
+    private final boolean statelessEnabled;
+
+    private boolean resolved;
+    private AuthenticatedPrincipal principal;
+
+    public CurrentPrincipal(PrincipalCache principalCache, HttpServletRequest request,
+                            @Value("${app.security.stateless.enabled:false}") boolean statelessEnabled) {
+        this.principalCache = principalCache;
+        this.request = request;
+        this.statelessEnabled = statelessEnabled;
+    }
+
+    public Optional<AuthenticatedPrincipal> get() {
+        if (!resolved) {
+            principal = resolve();
+            resolved = true;
+        }
+        return Optional.ofNullable(principal);
+    }
+
+    // Dùng cho các API bắt buộc đăng nhập
+    public AuthenticatedPrincipal require() {
+        return get().orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+    }
+
+    public boolean isAuthenticated() {
+        return get().isPresent();
+    }
+
+    public Long getUserIdOrNull() {
+        return get().map(AuthenticatedPrincipal::getId).orElse(null);
+    }
+
+    public boolean hasRole(String roleName) {
+        return get().map(p -> p.hasRole(roleName)).orElse(false);
+    }
+
+    private AuthenticatedPrincipal resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        if (statelessEnabled && request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            // Chế độ stateless: lấy thẳng từ claims mà JwtRequestFilter đã verify
+            AuthenticatedPrincipal fromToken = JwtUtil.toPrincipal(claims);
+            if (fromToken != null && authentication.getName().equals(fromToken.getEmail())) {
+                return fromToken;
+            }
+        }
+        return principalCache.get(authentication.getName()).orElse(null);
+    }
+}
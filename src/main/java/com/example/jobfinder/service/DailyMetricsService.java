@@ -0,0 +1,263 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.DailyMetric;
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.example.jobfinder.repository.DailyMetricRepository;
+import com.example.jobfinder.repository.JobFirstApplicationRepository;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rollup các chỉ số theo ngày vào bảng daily_metrics.
+ * Lần đầu chạy sẽ backfill toàn bộ lịch sử bằng vài truy vấn GROUP BY; sau đó mỗi ngày
+ * chỉ tính lại từ ngày đã lưu gần nhất đến hôm qua. Chuỗi cộng dồn (prefix sum) được giữ trong bộ nhớ,
+ * phần của hôm nay (và các ngày chưa rollup) được đếm trực tiếp vì chỉ là một khoảng nhỏ.
+ * Rollup ghi mốc application đầu tiên của từng job (job_first_applications) nên phần đếm trực tiếp
+ * chỉ đọc application có appliedAt trong khoảng chưa rollup, không GROUP BY trên cả bảng.
+ */
+@Service
+@Slf4j
+public class DailyMetricsService {
+    // Mốc bắt đầu khi backfill: lấy mọi bản ghi cũ hơn ngày đầu tiên của hệ thống
+    private static final LocalDateTime BACKFILL_FROM = LocalDate.of(2000, 1, 1).atStartOfDay();
+    private static final String INSERT_FIRST_APPLICATION_SQL =
+            "INSERT IGNORE INTO job_first_applications (job_id, first_applied_at) VALUES (?, ?)";
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final DailyMetricRepository dailyMetricRepository;
+    private final UserRepository userRepository;
+    private final JobRepository jobRepository;
+    private final ApplicationRepository applicationRepository;
+    private final JobFirstApplicationRepository jobFirstApplicationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rollupOnStartup;
+
+    // Tổng cộng dồn đến hết mỗi ngày đã rollup; thay thế nguyên khối sau mỗi lần rollup
+    private volatile NavigableMap<LocalDate, Totals> cumulative = Collections.emptyNavigableMap();
+    // Rollup ghi DB khi giữ khoá: dùng ReentrantLock vì chạy trên virtual thread
+    private final ReentrantLock rollupLock = new ReentrantLock();
+
+    public DailyMetricsService(DailyMetricRepository dailyMetricRepository,
+                               UserRepository userRepository,
+                               JobRepository jobRepository,
+                               ApplicationRepository applicationRepository,
+                               JobFirstApplicationRepository jobFirstApplicationRepository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.metrics.daily-rollup.on-startup:true}") boolean rollupOnStartup) {
+        this.dailyMetricRepository = dailyMetricRepository;
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.applicationRepository = applicationRepository;
+        this.jobFirstApplicationRepository = jobFirstApplicationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupOnStartup = rollupOnStartup;
+    }
+
+    public record Totals(long jobSeekers, long employers, long jobs, long appliedJobs) {
+        Totals plus(Totals other) {
+            return new Totals(jobSeekers + other.jobSeekers, employers + other.employers,
+                    jobs + other.jobs, appliedJobs + other.appliedJobs);
+        }
+
+        public long activeJobs() {
+            return Math.max(0, jobs - appliedJobs);
+        }
+    }
+
+    private static final Totals ZERO = new Totals(0, 0, 0, 0);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (rollupOnStartup) {
+            rollup();
+        } else {
+            reload();
+        }
+    }
+
+    @Scheduled(cron = "${app.metrics.daily-rollup.cron:0 10 0 * * *}")
+    public void scheduledRollup() {
+        rollup();
+    }
+
+    /**
+     * Tính delta cho các ngày từ ngày rollup gần nhất (tính lại cả ngày đó để bắt các bản ghi commit muộn)
+     * đến hết hôm qua, rồi dựng lại chuỗi cộng dồn. Bảng trống thì backfill toàn bộ.
+     * Mốc application đầu tiên và các dòng daily_metrics được ghi trong cùng một transaction.
+     */
+    public void rollup() {
+        rollupLock.lock();
+        try {
+            rollupLocked();
+        } finally {
+            rollupLock.unlock();
+        }
+    }
+
+    private void rollupLocked() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Optional<LocalDate> lastRolled = dailyMetricRepository.findFirstByOrderByMetricDateDesc()
+                .map(DailyMetric::getMetricDate);
+
+        LocalDateTime from = lastRolled.map(LocalDate::atStartOfDay).orElse(BACKFILL_FROM);
+        LocalDateTime to = yesterday.plusDays(1).atStartOfDay();
+        if (from.isBefore(to)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Chưa có mốc nào (lần đầu, hoặc daily_metrics có từ trước khi có bảng mốc): ghi cho toàn bộ lịch sử
+                LocalDateTime markFrom = jobFirstApplicationRepository.existsBy() ? from : BACKFILL_FROM;
+                recordFirstApplications(markFrom, to);
+                Map<LocalDate, Totals> deltas = loadDeltas(from, to, countByDay(
+                        jobFirstApplicationRepository.countByDay(from, to)));
+                LocalDate firstDay = lastRolled.orElseGet(() -> deltas.keySet().stream()
+                        .min(Comparator.naturalOrder())
+                        .orElse(yesterday));
+
+                // Lưu cả những ngày không phát sinh gì để biết đã rollup tới đâu
+                List<DailyMetric> rows = new ArrayList<>();
+                for (LocalDate day = firstDay; !day.isAfter(yesterday); day = day.plusDays(1)) {
+                    Totals delta = deltas.getOrDefault(day, ZERO);
+                    rows.add(DailyMetric.builder()
+                            .metricDate(day)
+                            .newJobSeekers(delta.jobSeekers())
+                            .newEmployers(delta.employers())
+                            .newJobs(delta.jobs())
+                            .newAppliedJobs(delta.appliedJobs())
+                            .build());
+                }
+                dailyMetricRepository.saveAll(rows);
+                log.info("Rolled up daily metrics for {} day(s) from {} to {}", rows.size(), firstDay, yesterday);
+            });
+        }
+        reload();
+    }
+
+    // Ghi mốc cho các job nhận application đầu tiên trong [from, to); job đã có mốc được giữ nguyên
+    private void recordFirstApplications(LocalDateTime from, LocalDateTime to) {
+        List<Map.Entry<Long, LocalDateTime>> rows = new ArrayList<>(findFirstApplications(from, to).entrySet());
+        jdbcTemplate.batchUpdate(INSERT_FIRST_APPLICATION_SQL, rows, ID_CHUNK_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            ps.setTimestamp(2, Timestamp.valueOf(row.getValue()));
+        });
+    }
+
+    /**
+     * Job có application đầu tiên rơi vào [from, to) cùng thời điểm đó: đọc application trong khoảng (index applied_at)
+     * rồi loại job đã có mốc, tức đã nhận application trước from. Chỉ đúng khi from không sớm hơn ngày sau mốc cuối
+     * đã ghi, điều mà rollup và phần đếm trực tiếp đều đảm bảo.
+     */
+    private Map<Long, LocalDateTime> findFirstApplications(LocalDateTime from, LocalDateTime to) {
+        Map<Long, LocalDateTime> firstTimes = new HashMap<>();
+        for (Object[] row : applicationRepository.findEarliestApplicationPerJobBetween(from, to)) {
+            firstTimes.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        List<Long> jobIds = new ArrayList<>(firstTimes.keySet());
+        for (int i = 0; i < jobIds.size(); i += ID_CHUNK_SIZE) {
+            List<Long> chunk = jobIds.subList(i, Math.min(i + ID_CHUNK_SIZE, jobIds.size()));
+            jobFirstApplicationRepository.findJobIdsByJobIdIn(chunk).forEach(firstTimes::remove);
+        }
+        return firstTimes;
+    }
+
+    // Một lần đọc theo khoá chính đã sắp xếp, cộng dồn trong bộ nhớ
+    private void reload() {
+        NavigableMap<LocalDate, Totals> next = new TreeMap<>();
+        Totals running = ZERO;
+        for (DailyMetric metric : dailyMetricRepository.findAllByOrderByMetricDateAsc()) {
+            running = running.plus(new Totals(metric.getNewJobSeekers(), metric.getNewEmployers(),
+                    metric.getNewJobs(), metric.getNewAppliedJobs()));
+            next.put(metric.getMetricDate(), running);
+        }
+        cumulative = Collections.unmodifiableNavigableMap(next);
+    }
+
+    /**
+     * Tổng cộng dồn đến hết mỗi ngày trong [startDate, endDate].
+     * Các ngày sau ngày rollup cuối (thường chỉ có hôm nay) được đếm trực tiếp từ DB.
+     */
+    @Transactional(readOnly = true)
+    public NavigableMap<LocalDate, Totals> getCumulativeTotals(LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, Totals> snapshot = cumulative;
+        LocalDate lastRolled = snapshot.isEmpty() ? null : snapshot.lastKey();
+        Totals base = lastRolled == null ? ZERO : snapshot.lastEntry().getValue();
+
+        Map<LocalDate, Totals> liveDeltas = Map.of();
+        if (lastRolled == null || lastRolled.isBefore(endDate)) {
+            LocalDateTime liveFrom = lastRolled == null ? BACKFILL_FROM : lastRolled.plusDays(1).atStartOfDay();
+            LocalDateTime liveTo = endDate.plusDays(1).atStartOfDay();
+            Map<LocalDate, Long> newAppliedJobs = new HashMap<>();
+            findFirstApplications(liveFrom, liveTo).values()
+                    .forEach(firstAppliedAt -> newAppliedJobs.merge(firstAppliedAt.toLocalDate(), 1L, Long::sum));
+            liveDeltas = loadDeltas(liveFrom, liveTo, newAppliedJobs);
+        }
+
+        NavigableMap<LocalDate, Totals> result = new TreeMap<>();
+        Totals liveRunning = base;
+        // Phần đếm trực tiếp rơi vào trước ngày bắt đầu vẫn phải cộng vào tổng
+        for (Totals delta : new TreeMap<>(liveDeltas).headMap(startDate).values()) {
+            liveRunning = liveRunning.plus(delta);
+        }
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (lastRolled != null && !day.isAfter(lastRolled)) {
+                Map.Entry<LocalDate, Totals> floor = snapshot.floorEntry(day);
+                result.put(day, floor == null ? ZERO : floor.getValue());
+            } else {
+                liveRunning = liveRunning.plus(liveDeltas.getOrDefault(day, ZERO));
+                result.put(day, liveRunning);
+            }
+        }
+        return result;
+    }
+
+    private Map<LocalDate, Totals> loadDeltas(LocalDateTime from, LocalDateTime to, Map<LocalDate, Long> newAppliedJobs) {
+        Map<LocalDate, long[]> counts = new HashMap<>();
+        for (Object[] row : userRepository.countNewUsersByDayAndRole(from, to)) {
+            long[] c = counts.computeIfAbsent(toLocalDate(row[0]), d -> new long[4]);
+            if ("JOB_SEEKER".equals(row[1])) {
+                c[0] += (Long) row[2];
+            } else {
+                c[1] += (Long) row[2];
+            }
+        }
+        for (Object[] row : jobRepository.countNewJobsByDay(from, to)) {
+            counts.computeIfAbsent(toLocalDate(row[0]), d -> new long[4])[2] += (Long) row[1];
+        }
+        newAppliedJobs.forEach((day, count) -> counts.computeIfAbsent(day, d -> new long[4])[3] += count);
+
+        Map<LocalDate, Totals> deltas = new HashMap<>(counts.size() * 2);
+        counts.forEach((day, c) -> deltas.put(day, new Totals(c[0], c[1], c[2], c[3])));
+        return deltas;
+    }
+
+    private static Map<LocalDate, Long> countByDay(List<Object[]> rows) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(toLocalDate(row[0]), (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        return ((java.sql.Date) value).toLocalDate();
+    }
+}
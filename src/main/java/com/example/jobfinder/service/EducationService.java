@@ -17,10 +17,13 @@ import org.springframework.stereotype.Service;
 public class EducationService extends BaseNameService<Education> {
 
     private EducationMapper educationMapper;
+    private ReferenceDataCache referenceDataCache;
 
-    public EducationService(EducationRepository educationRepository, EducationMapper educationMapper) {
+    public EducationService(EducationRepository educationRepository, EducationMapper educationMapper,
+                            ReferenceDataCache referenceDataCache) {
         super(educationRepository); // Gọi constructor của lớp cha BaseNameService
         this.educationMapper = educationMapper;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -52,4 +55,9 @@ public class EducationService extends BaseNameService<Education> {
     protected String getEntityNameForLog() {
         return "Education";
     }
+
+    @Override
+    protected void afterWrite() {
+        referenceDataCache.reloadAfterCommit();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.jobfinder.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Full reindex không downtime: đọc dữ liệu theo keyset (id > lastId), build document song song trên
+ * executor có giới hạn, ghi bằng bulk API vào index mới có version ({alias}_vyyyyMMddHHmmss)
+ * rồi chuyển alias sang index mới trong một thao tác atomic. Số batch đang xử lý được giới hạn
+ * bởi app.reindex.concurrency nên bộ nhớ không tăng theo số dòng.
+ */
+@Service
+@Slf4j
+public class ElasticsearchIndexRebuilder {
+    private static final DateTimeFormatter VERSION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final Set<String> rebuildingAliases = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.reindex.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.reindex.concurrency:4}")
+    private int concurrency;
+
+    public ElasticsearchIndexRebuilder(ElasticsearchOperations elasticsearchOperations,
+                                       ElasticsearchClient elasticsearchClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    public boolean isRebuilding(String alias) {
+        return rebuildingAliases.contains(alias);
+    }
+
+    public <R, D> long rebuild(String alias,
+                               Class<D> documentClass,
+                               BiFunction<Long, Pageable, List<R>> pageLoader,
+                               Function<R, Long> idOf,
+                               Function<R, D> toDocument) {
+        if (!rebuildingAliases.add(alias)) {
+            throw new IllegalStateException("Reindex is already running for " + alias);
+        }
+
+        String newIndex = alias + "_v" + LocalDateTime.now().format(VERSION_FORMATTER);
+        IndexCoordinates target = IndexCoordinates.of(newIndex);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency), new ThreadPoolExecutor.CallerRunsPolicy());
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong indexed = new AtomicLong();
+
+        try {
+            createIndex(target, documentClass);
+
+            long lastId = 0L;
+            while (failure.get() == null) {
+                List<R> rows = pageLoader.apply(lastId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                lastId = idOf.apply(rows.get(rows.size() - 1));
+
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        List<IndexQuery> queries = new ArrayList<>(rows.size());
+                        for (R row : rows) {
+                            queries.add(new IndexQueryBuilder()
+                                    .withId(String.valueOf(idOf.apply(row)))
+                                    .withObject(toDocument.apply(row))
+                                    .build());
+                        }
+                        elasticsearchOperations.bulkIndex(queries, target);
+                        indexed.addAndGet(queries.size());
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            // Đợi tất cả batch đang chạy hoàn tất
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+            if (failure.get() != null) {
+                throw new IllegalStateException("Bulk indexing into " + newIndex + " failed", failure.get());
+            }
+
+            finishIndex(newIndex);
+            swapAlias(alias, newIndex);
+            log.info("Rebuilt index {} -> {} with {} documents", alias, newIndex, indexed.get());
+            return indexed.get();
+        } catch (Exception e) {
+            log.error("Reindex of {} failed, dropping {}: {}", alias, newIndex, e.getMessage());
+            try {
+                elasticsearchOperations.indexOps(target).delete();
+            } catch (Exception cleanupError) {
+                log.warn("Could not delete partially built index {}: {}", newIndex, cleanupError.getMessage());
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Reindex of " + alias + " failed", e);
+        } finally {
+            executor.shutdown();
+            rebuildingAliases.remove(alias);
+        }
+    }
+
+    private void createIndex(IndexCoordinates target, Class<?> documentClass) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(target);
+        Document mapping = indexOps.createMapping(documentClass);
+        // Tắt refresh trong lúc nạp dữ liệu, bật lại trước khi chuyển alias
+        indexOps.create(Map.of("index.refresh_interval", "-1"), mapping);
+    }
+
+    private void finishIndex(String index) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s.refreshInterval(t -> t.time("1s"))));
+        elasticsearchClient.indices().refresh(r -> r.index(index));
+    }
+
+    private void swapAlias(String alias, String newIndex) throws IOException {
+        boolean aliasExists = elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value();
+        List<String> oldIndices = aliasExists
+                ? new ArrayList<>(elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet())
+                : List.of();
+        // Lần đầu: "jobs"/"users" vẫn là index thật (do Spring Data tạo) -> xoá nó trong cùng thao tác
+        boolean concreteIndex = !aliasExists && elasticsearchClient.indices().exists(e -> e.index(alias)).value();
+
+        elasticsearchClient.indices().updateAliases(u -> {
+            u.actions(a -> a.add(add -> add.index(newIndex).alias(alias)));
+            for (String oldIndex : oldIndices) {
+                u.actions(a -> a.remove(r -> r.index(oldIndex).alias(alias)));
+            }
+            if (concreteIndex) {
+                u.actions(a -> a.removeIndex(r -> r.index(alias)));
+            }
+            return u;
+        });
+
+        for (String oldIndex : oldIndices) {
+            if (!oldIndex.equals(newIndex)) {
+                elasticsearchClient.indices().delete(d -> d.index(oldIndex));
+            }
+        }
+    }
+}
@@ -9,17 +9,13 @@ import com.example.jobfinder.dto.employer.EmployerSearchResponse;
 import com.example.jobfinder.dto.user.UserResponse;
 import com.example.jobfinder.mapper.UserDocumentMapper;
 import com.example.jobfinder.model.UserDocument;
-import com.example.jobfinder.model.User;
+import com.example.jobfinder.util.KeysetCursor;
 import com.example.jobfinder.model.SearchHistory;
-import com.example.jobfinder.repository.UserRepository;
-import com.example.jobfinder.repository.SearchHistoryRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -36,8 +32,9 @@ public class EmployerSearchService {
 
     private ElasticsearchClient client;
     private UserDocumentMapper userDocumentMapper;
-    private UserRepository userRepository;
-    private SearchHistoryRepository searchHistoryRepository;
+    private SearchAfterPager searchAfterPager;
+    private SearchHistoryRecorder searchHistoryRecorder;
+    private CurrentPrincipal currentPrincipal;
 
     public EmployerSearchResponse search(EmployerSearchRequest request) throws IOException {
         List<Query> mustQueries = new ArrayList<>();
@@ -94,6 +91,10 @@ public class EmployerSearchService {
                 ? Query.of(q -> q.matchAll(m -> m))
                 : Query.of(q -> q.bool(b -> b.must(mustQueries)));
 
+        if (request.getCursor() != null) {
+            return searchByCursor(request, finalQuery);
+        }
+
         int safePage = Math.max(1, request.getPage());
         int size = request.getSize();
 
@@ -132,6 +133,20 @@ public class EmployerSearchService {
                 .build();
     }
 
+    private EmployerSearchResponse searchByCursor(EmployerSearchRequest request, Query query) throws IOException {
+        int size = KeysetCursor.normalizeSize(request.getSize());
+        SearchAfterPager.CursorPage<UserDocument> page = searchAfterPager.search("users", query, request.getCursor(),
+                size, false, Boolean.TRUE.equals(request.getPit()), UserDocument.class);
+        saveEmployerSearchHistory(request);
+        return EmployerSearchResponse.builder()
+                .data(page.items().stream().map(userDocumentMapper::toUserResponse).toList())
+                .totalHits(page.totalHits())
+                .page(0)
+                .size(size)
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     private Query termQuery(String field, Object value) {
         return Query.of(q -> q.term(t -> t
                 .field(field)
@@ -147,60 +162,8 @@ public class EmployerSearchService {
     }
 
     private void saveEmployerSearchHistory(EmployerSearchRequest request) {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-                String email = auth.getName();
-                User user = userRepository.findByEmail(email).orElse(null);
-
-                if (user != null) {
-                    String searchQuery = buildEmployerSearchQueryString(request);
-
-                    if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-                        SearchHistory lastSearchHistory = searchHistoryRepository.findFirstByUserAndSearchTypeOrderByCreatedAtDesc(user, SearchHistory.SearchType.COMPANY);
-
-                        boolean isDuplicate = lastSearchHistory != null &&
-                                normalizeForComparison(searchQuery).equals(
-                                        normalizeForComparison(lastSearchHistory.getSearchQuery())
-                                );
-
-                        if (!isDuplicate) {
-                            SearchHistory searchHistory = SearchHistory.builder()
-                                    .user(user)
-                                    .searchQuery(searchQuery)
-                                    .searchType(SearchHistory.SearchType.COMPANY)
-                                    .build();
-
-                            searchHistoryRepository.save(searchHistory);
-                            log.debug("Saved new employer search history for user {}: {}", email, searchQuery);
-
-                            cleanupOldSearchHistory(user, 50);
-                        } else {
-                            log.debug("Skipped saving duplicate employer search history for user {}: {} (normalized comparison)", email, searchQuery);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to save employer search history: {}", e.getMessage());
-        }
-    }
-
-    private void cleanupOldSearchHistory(User user, int maxRecords) {
-        try {
-            long totalRecords = searchHistoryRepository.countByUserAndSearchType(user, SearchHistory.SearchType.COMPANY);
-            if (totalRecords > maxRecords) {
-                List<SearchHistory> allHistories = searchHistoryRepository.findByUserAndSearchTypeOrderByCreatedAtDesc(user, SearchHistory.SearchType.COMPANY);
-                int recordsToDelete = (int) (totalRecords - maxRecords);
-
-                List<SearchHistory> historiesToDelete = allHistories.subList(0, recordsToDelete);
-                searchHistoryRepository.deleteAll(historiesToDelete);
-
-                log.debug("Cleaned up {} old search history records for user {}", recordsToDelete, user.getEmail());
-            }
-        } catch (Exception e) {
-            log.error("Failed to cleanup old search history: {}", e.getMessage());
-        }
+        searchHistoryRecorder.record(currentPrincipal.getUserIdOrNull(),
+                SearchHistory.SearchType.COMPANY, buildEmployerSearchQueryString(request));
     }
 
     private String buildEmployerSearchQueryString(EmployerSearchRequest request) {
@@ -217,9 +180,4 @@ public class EmployerSearchService {
 
         return queryParts.isEmpty() ? null : String.join(", ", queryParts);
     }
-
-    private String normalizeForComparison(String text) {
-        if (text == null) return null;
-        return text.trim().toLowerCase().replaceAll("\\s+", " ");
-    }
-}
+}
\ No newline at end of file
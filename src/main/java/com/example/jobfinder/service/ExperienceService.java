@@ -19,8 +19,11 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class ExperienceService extends BaseNameService<Experience> {
 
-    public ExperienceService(ExperienceRepository repository) {
+    private final ReferenceDataCache referenceDataCache;
+
+    public ExperienceService(ExperienceRepository repository, ReferenceDataCache referenceDataCache) {
         super(repository);
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -57,4 +60,9 @@ public class ExperienceService extends BaseNameService<Experience> {
     protected String getEntityNameForLog() {
         return "Experience";
     }
+
+    @Override
+    protected void afterWrite() {
+        referenceDataCache.reloadAfterCommit();
+    }
 }
\ No newline at end of file
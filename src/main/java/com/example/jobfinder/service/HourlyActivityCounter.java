@@ -0,0 +1,121 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bộ đếm hoạt động theo giờ của ngày hôm nay (user mới, job mới, application mới).
+ * register / createJob / applyJob tăng bộ đếm sau khi commit; khi khởi động và định kỳ
+ * thì đồng bộ lại từ DB bằng truy vấn GROUP BY giờ (bắt cả thay đổi từ instance khác).
+ */
+@Service
+@Slf4j
+public class HourlyActivityCounter {
+    public enum Activity { NEW_USER, NEW_JOB, NEW_APPLICATION }
+
+    private static final int HOURS = 24;
+
+    private final UserRepository userRepository;
+    private final JobRepository jobRepository;
+    private final ApplicationRepository applicationRepository;
+
+    private volatile DayBuckets buckets = new DayBuckets(LocalDate.now());
+
+    public HourlyActivityCounter(UserRepository userRepository,
+                                 JobRepository jobRepository,
+                                 ApplicationRepository applicationRepository) {
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.applicationRepository = applicationRepository;
+    }
+
+    // Mảng phẳng [activity * 24 + hour] cho một ngày
+    private static final class DayBuckets {
+        final LocalDate day;
+        final AtomicIntegerArray counts = new AtomicIntegerArray(Activity.values().length * HOURS);
+
+        DayBuckets(LocalDate day) {
+            this.day = day;
+        }
+    }
+
+    public void recordAfterCommit(Activity activity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(activity);
+                }
+            });
+        } else {
+            record(activity);
+        }
+    }
+
+    private void record(Activity activity) {
+        LocalDateTime now = LocalDateTime.now();
+        currentBuckets(now.toLocalDate()).counts.incrementAndGet(activity.ordinal() * HOURS + now.getHour());
+    }
+
+    public int get(Activity activity, int hour) {
+        return currentBuckets(LocalDate.now()).counts.get(activity.ordinal() * HOURS + hour);
+    }
+
+    // Sang ngày mới thì bắt đầu lại từ 0, không cần đọc DB
+    private DayBuckets currentBuckets(LocalDate today) {
+        DayBuckets current = buckets;
+        if (current.day.equals(today)) {
+            return current;
+        }
+        synchronized (this) {
+            if (!buckets.day.equals(today)) {
+                buckets = new DayBuckets(today);
+            }
+            return buckets;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.hourly.resync-ms:300000}", initialDelayString = "${app.metrics.hourly.resync-ms:300000}")
+    public void resync() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDateTime from = today.atStartOfDay();
+            LocalDateTime to = today.plusDays(1).atStartOfDay();
+
+            DayBuckets fresh = new DayBuckets(today);
+            fill(fresh, Activity.NEW_USER, userRepository.countCreatedByHour(from, to));
+            fill(fresh, Activity.NEW_JOB, jobRepository.countCreatedByHour(from, to));
+            fill(fresh, Activity.NEW_APPLICATION, applicationRepository.countAppliedByHour(from, to));
+            synchronized (this) {
+                buckets = fresh;
+            }
+        } catch (Exception e) {
+            log.error("Failed to resync hourly activity counters: {}", e.getMessage());
+        }
+    }
+
+    private static void fill(DayBuckets target, Activity activity, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            int hour = ((Number) row[0]).intValue();
+            target.counts.set(activity.ordinal() * HOURS + hour, ((Number) row[1]).intValue());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.CursorPageResponse;
+import com.example.jobfinder.dto.job.JobIndexProjection;
+import com.example.jobfinder.mapper.JobDocumentMapper;
+import com.example.jobfinder.model.JobDocument;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.util.KeysetCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Xuất danh sách job đang mở (kèm isSave của user hiện tại) mà không nạp cả bảng vào bộ nhớ:
+ * bản stream đọc tuần tự (MySQL streaming) và ghi NDJSON từng dòng, bản phân trang dùng keyset (createdAt, id).
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class JobExportService {
+    static final int FLUSH_EVERY = 500;
+
+    JobRepository jobRepository;
+    JobDocumentMapper jobDocumentMapper;
+    SavedJobMembershipCache savedJobMembershipCache;
+    ObjectMapper objectMapper;
+
+    // Chạy trên luồng ghi response (StreamingResponseBody): userId phải được lấy sẵn từ request
+    @Transactional(readOnly = true)
+    public long exportActiveJobs(OutputStream out, Long userId) throws IOException {
+        // Nạp trước khi mở stream: connection đang streaming không chạy được truy vấn khác
+        LongPredicate isSaved = savedMatcher(userId);
+        long written = 0;
+        try (Stream<JobIndexProjection> rows = jobRepository.streamActiveIndexRows();
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<JobIndexProjection> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(toDocument(iterator.next(), isSaved));
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        }
+        if (written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        log.info("Exported {} active jobs", written);
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<JobDocument> getActiveJobsPage(Long userId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.normalizeSize(size);
+        List<JobIndexProjection> rows = after == null
+                ? jobRepository.findActiveIndexRowsFirstPage(KeysetCursor.fetchLimit(pageSize))
+                : jobRepository.findActiveIndexRowsBefore(after.createdAt(), after.id(), KeysetCursor.fetchLimit(pageSize));
+        LongPredicate isSaved = savedMatcher(userId);
+        return CursorPageResponse.of(rows, pageSize, JobIndexProjection::getCreatedAt, JobIndexProjection::getId,
+                row -> toDocument(row, isSaved));
+    }
+
+    private JobDocument toDocument(JobIndexProjection row, LongPredicate isSaved) {
+        JobDocument doc = jobDocumentMapper.toDocument(row);
+        doc.setIsSave(isSaved.test(row.getId()));
+        return doc;
+    }
+
+    private LongPredicate savedMatcher(Long userId) {
+        return userId == null ? jobId -> false : savedJobMembershipCache.savedJobMatcher(userId);
+    }
+}
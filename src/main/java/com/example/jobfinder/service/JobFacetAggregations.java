@@ -0,0 +1,126 @@
+package com.example.jobfinder.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.jobfinder.dto.job.FacetBucket;
+import com.example.jobfinder.dto.job.JobSearchFacets;
+import com.example.jobfinder.dto.job.SalaryBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Các terms aggregation (categoryId, jobLevelId, jobTypeId, educationId, experience, location)
+ * và histogram lương đi kèm truy vấn tìm kiếm job, để trang tìm kiếm có đủ số đếm trong một round trip.
+ * Mỗi facet nằm trong một filter aggregation chứa bộ lọc của các chiều khác (không gồm lựa chọn của chính nó),
+ * nên chọn một danh mục vẫn thấy số đếm của các danh mục còn lại; caller lọc hits bằng post_filter.
+ * Id được đổi sang tên qua ReferenceDataCache, không truy vấn DB.
+ */
+@Service
+public class JobFacetAggregations {
+    public static final String CATEGORY = "categoryId";
+    public static final String JOB_LEVEL = "jobLevelId";
+    public static final String JOB_TYPE = "jobTypeId";
+    public static final String EDUCATION = "educationId";
+    public static final String EXPERIENCE = "experience";
+    public static final String LOCATION = "location";
+    public static final String SALARY = "salaryMin";
+
+    private final ReferenceDataCache referenceDataCache;
+    private final int termsSize;
+    private final double salaryInterval;
+
+    public JobFacetAggregations(ReferenceDataCache referenceDataCache,
+                                @Value("${app.search.facets.terms-size:50}") int termsSize,
+                                @Value("${app.search.facets.salary-interval:5000000}") double salaryInterval) {
+        this.referenceDataCache = referenceDataCache;
+        this.termsSize = termsSize;
+        this.salaryInterval = salaryInterval;
+    }
+
+    // facetFilters: bộ lọc đang chọn theo tên facet (các hằng số ở trên)
+    public Map<String, Aggregation> requests(Map<String, Query> facetFilters) {
+        Map<String, Aggregation> requests = new HashMap<>();
+        facets().forEach((name, facet) -> {
+            List<Query> otherFilters = facetFilters.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(name))
+                    .map(Map.Entry::getValue)
+                    .toList();
+            requests.put(name, Aggregation.of(a -> a
+                    .filter(f -> f.bool(b -> b.filter(otherFilters)))
+                    .aggregations(name, facet)));
+        });
+        return requests;
+    }
+
+    private Map<String, Aggregation> facets() {
+        return Map.of(
+                CATEGORY, terms(CATEGORY),
+                JOB_LEVEL, terms(JOB_LEVEL),
+                JOB_TYPE, terms(JOB_TYPE),
+                EDUCATION, terms(EDUCATION),
+                EXPERIENCE, terms(EXPERIENCE),
+                LOCATION, terms(LOCATION),
+                SALARY, Aggregation.of(a -> a.histogram(h -> h
+                        .field(SALARY)
+                        .interval(salaryInterval)
+                        .minDocCount(1))));
+    }
+
+    public JobSearchFacets toFacets(Map<String, Aggregate> aggregations) {
+        return JobSearchFacets.builder()
+                .categories(idBuckets(facet(aggregations, CATEGORY), referenceDataCache::categoryName))
+                .jobLevels(idBuckets(facet(aggregations, JOB_LEVEL), referenceDataCache::jobLevelName))
+                .jobTypes(idBuckets(facet(aggregations, JOB_TYPE), referenceDataCache::jobTypeName))
+                .educations(idBuckets(facet(aggregations, EDUCATION), referenceDataCache::educationName))
+                .experiences(idBuckets(facet(aggregations, EXPERIENCE), referenceDataCache::experienceName))
+                .locations(locationBuckets(facet(aggregations, LOCATION)))
+                .salaries(salaryBuckets(facet(aggregations, SALARY)))
+                .build();
+    }
+
+    // Lấy aggregation facet nằm bên trong filter aggregation cùng tên
+    private static Aggregate facet(Map<String, Aggregate> aggregations, String name) {
+        Aggregate wrapper = aggregations.get(name);
+        if (wrapper == null || !wrapper.isFilter()) {
+            return null;
+        }
+        return wrapper.filter().aggregations().get(name);
+    }
+
+    private Aggregation terms(String field) {
+        return Aggregation.of(a -> a.terms(t -> t.field(field).size(termsSize)));
+    }
+
+    private static List<FacetBucket> idBuckets(Aggregate aggregate, Function<Long, String> nameOf) {
+        if (aggregate == null || !aggregate.isLterms()) {
+            return List.of();
+        }
+        return aggregate.lterms().buckets().array().stream()
+                .map(bucket -> new FacetBucket(bucket.key(), nameOf.apply(bucket.key()), bucket.docCount()))
+                .toList();
+    }
+
+    private static List<FacetBucket> locationBuckets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isSterms()) {
+            return List.of();
+        }
+        return aggregate.sterms().buckets().array().stream()
+                .map(bucket -> new FacetBucket(null, bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+    }
+
+    private List<SalaryBucket> salaryBuckets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isHistogram()) {
+            return List.of();
+        }
+        return aggregate.histogram().buckets().array().stream()
+                .map(bucket -> new SalaryBucket(bucket.key(), bucket.key() + salaryInterval, bucket.docCount()))
+                .toList();
+    }
+}
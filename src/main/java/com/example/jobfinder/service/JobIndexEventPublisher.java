@@ -0,0 +1,44 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.JobIndexEvent;
+import com.example.jobfinder.model.enums.JobIndexChangeType;
+import com.example.jobfinder.repository.JobIndexEventRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JobIndexEventPublisher {
+    JobIndexEventRepository jobIndexEventRepository;
+
+    // Ghi vào outbox trong cùng transaction với thay đổi của job để không mất sự kiện khi rollback/commit
+    @Transactional
+    public void publish(Long jobId, JobIndexChangeType changeType) {
+        if (jobId == null) {
+            return;
+        }
+        jobIndexEventRepository.save(JobIndexEvent.builder()
+                .jobId(jobId)
+                .changeType(changeType)
+                .build());
+    }
+
+    @Transactional
+    public void publishAll(Collection<Long> jobIds, JobIndexChangeType changeType) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        jobIndexEventRepository.saveAll(jobIds.stream()
+                .map(jobId -> JobIndexEvent.builder()
+                        .jobId(jobId)
+                        .changeType(changeType)
+                        .build())
+                .toList());
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.mapper.JobDocumentMapper;
+import com.example.jobfinder.model.Job;
+import com.example.jobfinder.model.JobDocument;
+import com.example.jobfinder.model.JobIndexEvent;
+import com.example.jobfinder.model.enums.JobIndexChangeType;
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.example.jobfinder.repository.JobIndexEventRepository;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.repository.JobViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Đọc sự kiện từ outbox "job_index_outbox", gộp theo jobId và đẩy sang index "jobs"
+ * bằng bulk index (JOB_UPSERT) hoặc bulk partial update (JOB_STATUS, APPLICATION_COUNT, VIEW_COUNT).
+ * Chi phí tỉ lệ với số thay đổi, không phụ thuộc kích thước bảng jobs.
+ */
+@Service
+@Slf4j
+public class JobIndexOutboxWorker {
+    private static final IndexCoordinates JOBS_INDEX = IndexCoordinates.of(ElasticsearchSyncService.JOBS_ALIAS);
+
+    private final JobIndexEventRepository jobIndexEventRepository;
+    private final JobRepository jobRepository;
+    private final ApplicationRepository applicationRepository;
+    private final JobViewRepository jobViewRepository;
+    private final JobPopularityAggregator jobPopularityAggregator;
+    private final JobDocumentMapper jobDocumentMapper;
+    private final JobIndexEventPublisher jobIndexEventPublisher;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchIndexRebuilder elasticsearchIndexRebuilder;
+    private final JobSearchResultCache jobSearchResultCache;
+
+    @Value("${app.indexing.outbox.batch-size:500}")
+    private int batchSize;
+
+    public JobIndexOutboxWorker(JobIndexEventRepository jobIndexEventRepository,
+                                JobRepository jobRepository,
+                                ApplicationRepository applicationRepository,
+                                JobViewRepository jobViewRepository,
+                                JobPopularityAggregator jobPopularityAggregator,
+                                JobDocumentMapper jobDocumentMapper,
+                                JobIndexEventPublisher jobIndexEventPublisher,
+                                ElasticsearchOperations elasticsearchOperations,
+                                ElasticsearchIndexRebuilder elasticsearchIndexRebuilder,
+                                JobSearchResultCache jobSearchResultCache) {
+        this.jobIndexEventRepository = jobIndexEventRepository;
+        this.jobRepository = jobRepository;
+        this.applicationRepository = applicationRepository;
+        this.jobViewRepository = jobViewRepository;
+        this.jobPopularityAggregator = jobPopularityAggregator;
+        this.jobDocumentMapper = jobDocumentMapper;
+        this.jobIndexEventPublisher = jobIndexEventPublisher;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchIndexRebuilder = elasticsearchIndexRebuilder;
+        this.jobSearchResultCache = jobSearchResultCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.indexing.outbox.poll-interval-ms:2000}")
+    public void drainOutbox() {
+        // Trong lúc full rebuild, giữ sự kiện trong outbox và áp dụng lên index mới sau khi chuyển alias
+        if (elasticsearchIndexRebuilder.isRebuilding(ElasticsearchSyncService.JOBS_ALIAS)) {
+            return;
+        }
+        List<JobIndexEvent> events = jobIndexEventRepository.findOldest(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+
+        // Gộp sự kiện theo job: JOB_UPSERT bao trùm mọi partial update của cùng job
+        Map<Long, EnumSet<JobIndexChangeType>> changesByJob = new LinkedHashMap<>();
+        for (JobIndexEvent event : events) {
+            changesByJob.computeIfAbsent(event.getJobId(), id -> EnumSet.noneOf(JobIndexChangeType.class))
+                    .add(event.getChangeType());
+        }
+
+        Set<Long> upsertIds = new LinkedHashSet<>();
+        Map<Long, EnumSet<JobIndexChangeType>> partialChanges = new LinkedHashMap<>();
+        changesByJob.forEach((jobId, changes) -> {
+            if (changes.contains(JobIndexChangeType.JOB_UPSERT)) {
+                upsertIds.add(jobId);
+            } else {
+                partialChanges.put(jobId, changes);
+            }
+        });
+
+        try {
+            indexFullDocuments(upsertIds);
+            applyPartialUpdates(partialChanges);
+        } catch (Exception e) {
+            // Giữ nguyên outbox để lần poll sau thử lại
+            log.error("Failed to apply {} job index events: {}", events.size(), e.getMessage());
+            return;
+        }
+
+        // Chỉ lượt xem thay đổi thì không làm mới cache kết quả tìm kiếm (viewCount cũ tối đa một TTL)
+        if (!upsertIds.isEmpty() || partialChanges.values().stream()
+                .anyMatch(changes -> !changes.equals(EnumSet.of(JobIndexChangeType.VIEW_COUNT)))) {
+            jobSearchResultCache.onIndexChanged();
+        }
+        jobIndexEventRepository.deleteAllByIdInBatch(events.stream().map(JobIndexEvent::getId).toList());
+        log.debug("Applied {} job index events ({} upserts, {} partial updates)",
+                events.size(), upsertIds.size(), partialChanges.size());
+    }
+
+    private void indexFullDocuments(Set<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        List<Job> jobs = jobRepository.findAllForIndexByIdIn(jobIds);
+        // Đếm trực tiếp từ DB: cache số đếm là riêng từng instance, có thể chưa thấy ghi từ instance khác
+        Map<Long, Long> applicationCounts = applicationRepository.countByJobIds(jobIds);
+        Map<Long, Long> viewCounts = jobViewRepository.countByJobIds(jobIds);
+        Map<Long, JobPopularityAggregator.PopularitySignals> signals = jobPopularityAggregator.getSignals(jobIds);
+        List<IndexQuery> queries = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            JobDocument doc = jobDocumentMapper.toDocument(job, applicationCounts.getOrDefault(job.getId(), 0L),
+                    viewCounts.getOrDefault(job.getId(), 0L));
+            // Các tín hiệu chỉ được tính định kỳ lấy từ lần tổng hợp gần nhất
+            JobPopularityAggregator.PopularitySignals popularity = signals.get(job.getId());
+            doc.setSaveCount((int) popularity.saves());
+            doc.setRecentViewCount((int) popularity.recentViews());
+            queries.add(new IndexQueryBuilder()
+                    .withId(String.valueOf(job.getId()))
+                    .withObject(doc)
+                    .build());
+        }
+        if (!queries.isEmpty()) {
+            elasticsearchOperations.bulkIndex(queries, JOBS_INDEX);
+        }
+
+        // Job không còn trong DB -> xoá khỏi index
+        Set<Long> missing = new HashSet<>(jobIds);
+        jobs.forEach(job -> missing.remove(job.getId()));
+        for (Long jobId : missing) {
+            elasticsearchOperations.delete(String.valueOf(jobId), JOBS_INDEX);
+        }
+    }
+
+    private void applyPartialUpdates(Map<Long, EnumSet<JobIndexChangeType>> partialChanges) {
+        if (partialChanges.isEmpty()) {
+            return;
+        }
+        Set<Long> statusIds = new HashSet<>();
+        Set<Long> countIds = new HashSet<>();
+        Set<Long> viewIds = new HashSet<>();
+        partialChanges.forEach((jobId, changes) -> {
+            if (changes.contains(JobIndexChangeType.JOB_STATUS)) {
+                statusIds.add(jobId);
+            }
+            if (changes.contains(JobIndexChangeType.APPLICATION_COUNT)) {
+                countIds.add(jobId);
+            }
+            if (changes.contains(JobIndexChangeType.VIEW_COUNT)) {
+                viewIds.add(jobId);
+            }
+        });
+
+        Map<Long, Boolean> activeFlags = new HashMap<>();
+        if (!statusIds.isEmpty()) {
+            for (Object[] row : jobRepository.findActiveFlagsByIdIn(statusIds)) {
+                activeFlags.put((Long) row[0], (Boolean) row[1]);
+            }
+        }
+        Map<Long, Long> applicationCounts = applicationRepository.countByJobIds(countIds);
+        Map<Long, Long> viewCounts = jobViewRepository.countByJobIds(viewIds);
+
+        List<UpdateQuery> updates = new ArrayList<>(partialChanges.size());
+        partialChanges.forEach((jobId, changes) -> {
+            Document partial = Document.create();
+            if (changes.contains(JobIndexChangeType.JOB_STATUS) && activeFlags.containsKey(jobId)) {
+                partial.put("active", activeFlags.get(jobId));
+            }
+            if (changes.contains(JobIndexChangeType.APPLICATION_COUNT)) {
+                partial.put("jobApplicationCounts", applicationCounts.getOrDefault(jobId, 0L));
+                partial.put("applicantCount", applicationCounts.getOrDefault(jobId, 0L).intValue());
+            }
+            if (changes.contains(JobIndexChangeType.VIEW_COUNT)) {
+                partial.put("viewCount", viewCounts.getOrDefault(jobId, 0L).intValue());
+            }
+            if (!partial.isEmpty()) {
+                updates.add(UpdateQuery.builder(String.valueOf(jobId)).withDocument(partial).build());
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            elasticsearchOperations.bulkUpdate(updates, JOBS_INDEX);
+        } catch (BulkFailureException e) {
+            // Document chưa có trong index (vd. job tạo trước khi có outbox) -> xếp lại để index đầy đủ
+            e.getFailedDocuments().keySet().forEach(id ->
+                    jobIndexEventPublisher.publish(Long.valueOf(id), JobIndexChangeType.JOB_UPSERT));
+            log.warn("Partial update failed for {} jobs, re-queued as full upserts", e.getFailedDocuments().size());
+        }
+    }
+}
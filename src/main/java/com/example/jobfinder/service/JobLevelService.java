@@ -13,10 +13,12 @@ import org.springframework.stereotype.Service;
 public class JobLevelService extends BaseNameService<JobLevel> {
 
     private final JobLevelMapper jobLevelMapper;
+    private final ReferenceDataCache referenceDataCache;
 
-    public JobLevelService(JobLevelRepository jobLevelRepository, JobLevelMapper jobLevelMapper) {
+    public JobLevelService(JobLevelRepository jobLevelRepository, JobLevelMapper jobLevelMapper, ReferenceDataCache referenceDataCache) {
         super(jobLevelRepository);
         this.jobLevelMapper = jobLevelMapper;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -48,4 +50,9 @@ public class JobLevelService extends BaseNameService<JobLevel> {
     protected String getEntityNameForLog() {
         return "Job Level";
     }
+
+    @Override
+    protected void afterWrite() {
+        referenceDataCache.reloadAfterCommit();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.example.jobfinder.repository.JobViewRepository;
+import com.example.jobfinder.repository.SavedJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tổng hợp định kỳ các tín hiệu độ phổ biến của job (lượt xem, lượt xem gần đây, số application, số lượt lưu)
+ * bằng vài truy vấn GROUP BY, rồi chỉ đẩy các job có giá trị thay đổi sang index "jobs" bằng bulk partial update.
+ * Sắp xếp popular/trending khi tìm kiếm đọc thẳng các field này, không cần truy vấn DB.
+ */
+@Service
+@Slf4j
+public class JobPopularityAggregator {
+    private static final IndexCoordinates JOBS_INDEX = IndexCoordinates.of(ElasticsearchSyncService.JOBS_ALIAS);
+
+    public record PopularitySignals(long views, long recentViews, long applicants, long saves) {
+        public static final PopularitySignals ZERO = new PopularitySignals(0, 0, 0, 0);
+
+        Document toPartialDocument() {
+            Document partial = Document.create();
+            partial.put("viewCount", (int) views);
+            partial.put("recentViewCount", (int) recentViews);
+            partial.put("applicantCount", (int) applicants);
+            partial.put("jobApplicationCounts", applicants);
+            partial.put("saveCount", (int) saves);
+            return partial;
+        }
+    }
+
+    private final JobViewRepository jobViewRepository;
+    private final ApplicationRepository applicationRepository;
+    private final SavedJobRepository savedJobRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchIndexRebuilder elasticsearchIndexRebuilder;
+    private final JobSearchResultCache jobSearchResultCache;
+    private final int batchSize;
+    private final int trendingDays;
+
+    // Giá trị đã đẩy sang index ở lần chạy trước; chỉ job khác với bản này mới cần cập nhật
+    private volatile Map<Long, PopularitySignals> pushed = Map.of();
+    // Không dùng synchronized: lần tổng hợp giữ khoá trong lúc chạy GROUP BY, trên virtual thread sẽ ghim carrier thread
+    private final ReentrantLock aggregateLock = new ReentrantLock();
+
+    public JobPopularityAggregator(JobViewRepository jobViewRepository,
+                                   ApplicationRepository applicationRepository,
+                                   SavedJobRepository savedJobRepository,
+                                   ElasticsearchOperations elasticsearchOperations,
+                                   ElasticsearchIndexRebuilder elasticsearchIndexRebuilder,
+                                   JobSearchResultCache jobSearchResultCache,
+                                   @Value("${app.popularity.batch-size:1000}") int batchSize,
+                                   @Value("${app.popularity.trending-days:7}") int trendingDays) {
+        this.jobViewRepository = jobViewRepository;
+        this.applicationRepository = applicationRepository;
+        this.savedJobRepository = savedJobRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchIndexRebuilder = elasticsearchIndexRebuilder;
+        this.jobSearchResultCache = jobSearchResultCache;
+        this.batchSize = batchSize;
+        this.trendingDays = trendingDays;
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularity.interval-ms:600000}",
+            initialDelayString = "${app.popularity.initial-delay-ms:60000}")
+    public void aggregate() {
+        aggregateLock.lock();
+        try {
+            aggregateLocked();
+        } finally {
+            aggregateLock.unlock();
+        }
+    }
+
+    private void aggregateLocked() {
+        if (elasticsearchIndexRebuilder.isRebuilding(ElasticsearchSyncService.JOBS_ALIAS)) {
+            return;
+        }
+        Map<Long, PopularitySignals> current = load();
+        Map<Long, PopularitySignals> previous = pushed;
+
+        List<UpdateQuery> updates = new ArrayList<>();
+        current.forEach((jobId, signals) -> {
+            if (!signals.equals(previous.get(jobId))) {
+                updates.add(toUpdate(jobId, signals));
+            }
+        });
+        // Job không còn dòng nào trong GROUP BY (vd. bị bỏ lưu hết) -> đưa về 0
+        previous.keySet().stream()
+                .filter(jobId -> !current.containsKey(jobId))
+                .forEach(jobId -> updates.add(toUpdate(jobId, PopularitySignals.ZERO)));
+
+        int missing = 0;
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            try {
+                elasticsearchOperations.bulkUpdate(updates.subList(from, Math.min(from + batchSize, updates.size())), JOBS_INDEX);
+            } catch (BulkFailureException e) {
+                // Document chưa có trong index: outbox/reindex sẽ index đầy đủ kèm tín hiệu từ snapshot
+                missing += e.getFailedDocuments().size();
+            }
+        }
+        pushed = Collections.unmodifiableMap(current);
+        if (!updates.isEmpty()) {
+            // Thứ tự popular/trending đã đổi
+            jobSearchResultCache.onIndexChanged();
+        }
+        log.info("Pushed popularity signals for {} jobs ({} not in index)", updates.size() - missing, missing);
+    }
+
+    // Tín hiệu gần nhất cho các job (dùng khi index lại toàn bộ document), job chưa có -> ZERO
+    public Map<Long, PopularitySignals> getSignals(Collection<Long> jobIds) {
+        Map<Long, PopularitySignals> snapshot = pushed;
+        Map<Long, PopularitySignals> result = new HashMap<>(jobIds.size() * 2);
+        for (Long jobId : jobIds) {
+            result.put(jobId, snapshot.getOrDefault(jobId, PopularitySignals.ZERO));
+        }
+        return result;
+    }
+
+    // Sau khi rebuild index: quên những gì đã đẩy để lần chạy kế tiếp đẩy lại toàn bộ
+    public void reset() {
+        pushed = Map.of();
+    }
+
+    private Map<Long, PopularitySignals> load() {
+        Map<Long, long[]> counts = new HashMap<>();
+        for (Object[] row : jobViewRepository.countAllGroupedByJob()) {
+            counts.computeIfAbsent((Long) row[0], id -> new long[4])[0] = (Long) row[1];
+        }
+        for (Object[] row : jobViewRepository.countGroupedByJobSince(LocalDateTime.now().minusDays(trendingDays))) {
+            counts.computeIfAbsent((Long) row[0], id -> new long[4])[1] = (Long) row[1];
+        }
+        for (Object[] row : applicationRepository.countAllGroupedByJob()) {
+            counts.computeIfAbsent((Long) row[0], id -> new long[4])[2] = (Long) row[1];
+        }
+        for (Object[] row : savedJobRepository.countAllGroupedByJob()) {
+            counts.computeIfAbsent((Long) row[0], id -> new long[4])[3] = (Long) row[1];
+        }
+
+        Map<Long, PopularitySignals> signals = new HashMap<>(counts.size() * 2);
+        counts.forEach((jobId, c) -> signals.put(jobId, new PopularitySignals(c[0], c[1], c[2], c[3])));
+        return signals;
+    }
+
+    private static UpdateQuery toUpdate(Long jobId, PopularitySignals signals) {
+        return UpdateQuery.builder(String.valueOf(jobId)).withDocument(signals.toPartialDocument()).build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.job.JobSearchRequest;
+import com.example.jobfinder.dto.job.JobSearchResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache kết quả tìm kiếm job của khách (chưa đăng nhập): isSave luôn false nên kết quả dùng chung được.
+ * Khoá là request đã chuẩn hoá kèm "thế hệ" của index; mọi luồng ghi vào index "jobs" gọi
+ * {@link #onIndexChanged()} để các kết quả cũ không còn được đọc tới (Caffeine tự dọn theo size/TTL).
+ * Số hit/miss được đăng ký vào Micrometer dưới tên cache "job_search_results".
+ */
+@Service
+@Slf4j
+public class JobSearchResultCache {
+
+    @FunctionalInterface
+    public interface SearchLoader {
+        JobSearchResponse load() throws IOException;
+    }
+
+    private record Key(long generation, String keyword, String location, Long categoryId, Long jobLevelId,
+                       Long jobTypeId, Long experienceId, Long educationId, Float salaryMin, Float salaryMax,
+                       boolean salaryNegotiable, String sort, int page, Integer size,
+                       boolean facets) {}
+
+    private final Cache<Key, JobSearchResponse> cache;
+    private final boolean enabled;
+    private final int maxPage;
+    private final long settleMillis;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long lastChangedAt;
+
+    public JobSearchResultCache(MeterRegistry meterRegistry,
+                                @Value("${app.cache.job-search.enabled:true}") boolean enabled,
+                                @Value("${app.cache.job-search.max-size:2000}") long maxSize,
+                                @Value("${app.cache.job-search.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${app.cache.job-search.max-page:3}") int maxPage,
+                                @Value("${app.cache.job-search.settle-ms:1500}") long settleMillis) {
+        this.enabled = enabled;
+        this.maxPage = maxPage;
+        this.settleMillis = settleMillis;
+        // maximumSize dùng W-TinyLFU: truy vấn hiếm không đẩy được các truy vấn trang chủ ra khỏi cache
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "job_search_results");
+    }
+
+    /**
+     * Trả kết quả đã cache nếu có, ngược lại gọi loader.
+     * Chỉ dùng cho khách; request không cache được (trang sâu, tắt cache) thì luôn gọi loader.
+     */
+    public JobSearchResponse get(JobSearchRequest request, SearchLoader loader) throws IOException {
+        Key key = enabled ? keyOf(request) : null;
+        if (key == null) {
+            return loader.load();
+        }
+        JobSearchResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        JobSearchResponse response = loader.load();
+        // Ngay sau khi ghi, ES có thể chưa refresh: không cache để tránh giữ kết quả cũ dưới thế hệ mới
+        if (System.currentTimeMillis() - lastChangedAt >= settleMillis) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    // Gọi sau mỗi lần ghi làm thay đổi tập kết quả hoặc thứ tự (upsert/xoá, trạng thái, tín hiệu phổ biến)
+    public void onIndexChanged() {
+        lastChangedAt = System.currentTimeMillis();
+        long next = generation.incrementAndGet();
+        cache.invalidateAll();
+        log.debug("Job search result cache invalidated, index generation {}", next);
+    }
+
+    private Key keyOf(JobSearchRequest request) {
+        int page = Math.max(1, request.getPage() == null ? 0 : request.getPage());
+        // Trang theo cursor gắn với vị trí/PIT riêng của từng client
+        if (request.getCursor() != null || page > maxPage) {
+            return null;
+        }
+        // Giống logic trong JobSearchService: chọn "thương lượng" thì bỏ qua khoảng lương
+        boolean negotiable = Boolean.TRUE.equals(request.getSalaryNegotiable());
+        return new Key(generation.get(),
+                normalize(request.getKeyword()),
+                request.getLocation(),
+                request.getCategoryId(),
+                request.getJobLevelId(),
+                request.getJobTypeId(),
+                request.getExperienceId(),
+                request.getEducationId(),
+                negotiable ? null : request.getSalaryMin(),
+                negotiable ? null : request.getSalaryMax(),
+                negotiable,
+                request.getSort() == null ? null : request.getSort().toLowerCase(Locale.ROOT),
+                page,
+                request.getSize(),
+                Boolean.TRUE.equals(request.getFacets()));
+    }
+
+    // keyword đi qua analyzer nên không phân biệt hoa thường và khoảng trắng thừa;
+    // location (term trên ".keyword") và sort giữ gần nguyên để không gộp nhầm hai truy vấn khác kết quả
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -2,6 +2,11 @@ package com.example.jobfinder.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import com.example.jobfinder.dto.job.JobResponse;
 import com.example.jobfinder.dto.job.JobSearchRequest;
@@ -9,40 +14,51 @@ import com.example.jobfinder.dto.job.JobSearchResponse;
 import com.example.jobfinder.mapper.JobDocumentMapper;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
-import com.example.jobfinder.model.Job;
 import com.example.jobfinder.model.JobDocument;
-import com.example.jobfinder.model.User;
 import com.example.jobfinder.model.SearchHistory;
+import com.example.jobfinder.util.KeysetCursor;
 
-import com.example.jobfinder.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.LongPredicate;
 
 
 @Service
 @RequiredArgsConstructor
 public class JobSearchService {
     private static final Logger log = LoggerFactory.getLogger(JobSearchService.class);
-    private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-    private static final DateTimeFormatter EXPIRED_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String SORT_POPULAR = "popular";
+    private static final String SORT_TRENDING = "trending";
+    // Tuổi tin đăng mà tại đó điểm phổ biến còn một nửa
+    private static final String POPULAR_DECAY_SCALE = "60d";
+    private static final String TRENDING_DECAY_SCALE = "7d";
     private final ElasticsearchClient client;
-    private final UserRepository userRepository;
-    private final SavedJobRepository savedJobRepository;
-    private final JobRepository jobRepository;
+    private final SavedJobMembershipCache savedJobMembershipCache;
     private final JobDocumentMapper jobDocumentMapper;
-    private final SearchHistoryRepository searchHistoryRepository;
+    private final SearchHistoryRecorder searchHistoryRecorder;
+    private final JobSearchResultCache jobSearchResultCache;
+    private final SearchAfterPager searchAfterPager;
+    private final JobFacetAggregations jobFacetAggregations;
+    private final CurrentPrincipal currentPrincipal;
 
     public JobSearchResponse search(JobSearchRequest request) throws IOException {
+        // Khách dùng chung kết quả (không có isSave riêng); người đã đăng nhập luôn truy vấn ES
+        if (currentPrincipal.getUserIdOrNull() == null) {
+            return jobSearchResultCache.get(request, () -> searchIndex(request));
+        }
+        return searchIndex(request);
+    }
+
+    private JobSearchResponse searchIndex(JobSearchRequest request) throws IOException {
         List<Query> mustQueries = new ArrayList<>();
 
         if (request.getKeyword() != null && !request.getKeyword().isBlank()) {
@@ -62,6 +78,9 @@ public class JobSearchService {
             ).minimumShouldMatch("1"))));
         }
 
+        // Bộ lọc theo từng chiều facet (key là tên facet), tách khỏi mustQueries để có thể áp bằng post_filter
+        Map<String, Query> facetFilters = new LinkedHashMap<>();
+        List<Query> salaryQueries = new ArrayList<>();
         if (request.getSalaryNegotiable() != null && request.getSalaryNegotiable()) {
             Query noSalaryQuery = Query.of(q -> q.bool(b -> b
                 .mustNot(
@@ -69,14 +88,14 @@ public class JobSearchService {
                     Query.of(q2 -> q2.exists(e -> e.field("salaryMax")))
                 )
             ));
-            mustQueries.add(noSalaryQuery);
+            salaryQueries.add(noSalaryQuery);
             
         } else if (request.getSalaryMin() != null || request.getSalaryMax() != null) {
             Query hasSalaryMinQuery = Query.of(q -> q.exists(e -> e.field("salaryMin")));
-            mustQueries.add(hasSalaryMinQuery);
+            salaryQueries.add(hasSalaryMinQuery);
             
             Query hasSalaryMaxQuery = Query.of(q -> q.exists(e -> e.field("salaryMax")));
-            mustQueries.add(hasSalaryMaxQuery);
+            salaryQueries.add(hasSalaryMaxQuery);
             
             if (request.getSalaryMin() != null && request.getSalaryMax() != null) {
                 Query salaryMinQuery = RangeQuery.of(r -> r
@@ -85,7 +104,7 @@ public class JobSearchService {
                         .gte(request.getSalaryMin().doubleValue())
                     )
                 )._toQuery();
-                mustQueries.add(salaryMinQuery);
+                salaryQueries.add(salaryMinQuery);
 
                 Query salaryMaxQuery = RangeQuery.of(r -> r
                     .number(n -> n
@@ -93,7 +112,7 @@ public class JobSearchService {
                         .lte(request.getSalaryMax().doubleValue())
                     )
                 )._toQuery();
-                mustQueries.add(salaryMaxQuery);
+                salaryQueries.add(salaryMaxQuery);
                 
             } else if (request.getSalaryMin() != null) {
                 Query salaryMinQuery = RangeQuery.of(r -> r
@@ -102,7 +121,7 @@ public class JobSearchService {
                         .gte(request.getSalaryMin().doubleValue())
                     )
                 )._toQuery();
-                mustQueries.add(salaryMinQuery);
+                salaryQueries.add(salaryMinQuery);
                 
             } else if (request.getSalaryMax() != null) {
                 Query salaryMaxQuery = RangeQuery.of(r -> r
@@ -111,27 +130,30 @@ public class JobSearchService {
                         .lte(request.getSalaryMax().doubleValue())
                     )
                 )._toQuery();
-                mustQueries.add(salaryMaxQuery);
+                salaryQueries.add(salaryMaxQuery);
             }
         }
 
+        if (!salaryQueries.isEmpty())
+            facetFilters.put(JobFacetAggregations.SALARY, Query.of(q -> q.bool(b -> b.must(salaryQueries))));
+
         if (request.getLocation() != null)
-            mustQueries.add(matchQuery("location", request.getLocation()));
+            facetFilters.put(JobFacetAggregations.LOCATION, matchQuery("location", request.getLocation()));
 
         if (request.getCategoryId() != null)
-            mustQueries.add(termQuery("categoryId", request.getCategoryId()));
+            facetFilters.put(JobFacetAggregations.CATEGORY, termQuery("categoryId", request.getCategoryId()));
 
         if (request.getJobLevelId() != null)
-            mustQueries.add(termQuery("jobLevelId", request.getJobLevelId()));
+            facetFilters.put(JobFacetAggregations.JOB_LEVEL, termQuery("jobLevelId", request.getJobLevelId()));
 
         if (request.getJobTypeId() != null)
-            mustQueries.add(termQuery("jobTypeId", request.getJobTypeId()));
+            facetFilters.put(JobFacetAggregations.JOB_TYPE, termQuery("jobTypeId", request.getJobTypeId()));
 
         if (request.getEducationId() != null)
-            mustQueries.add(termQuery("educationId", request.getEducationId()));
+            facetFilters.put(JobFacetAggregations.EDUCATION, termQuery("educationId", request.getEducationId()));
 
         if (request.getExperienceId() != null) {
-            mustQueries.add(termQuery("experience", request.getExperienceId()));
+            facetFilters.put(JobFacetAggregations.EXPERIENCE, termQuery("experience", request.getExperienceId()));
         }
 
         mustQueries.add(Query.of(q -> q.term(t -> t
@@ -139,21 +161,37 @@ public class JobSearchService {
                 .value(true)
         )));
 
-        Query finalQuery = mustQueries.isEmpty()
-                ? Query.of(q -> q.matchAll(m -> m))
-                : Query.of(q -> q.bool(b -> b.must(mustQueries)));
+        List<Query> allQueries = new ArrayList<>(mustQueries);
+        allQueries.addAll(facetFilters.values());
+        Query filteredQuery = Query.of(q -> q.bool(b -> b.must(allQueries)));
+
+        if (request.getCursor() != null) {
+            return searchByCursor(request, filteredQuery);
+        }
 
         int safePage = Math.max(1, request.getPage());
         int size = request.getSize();
+        boolean trending = SORT_TRENDING.equalsIgnoreCase(request.getSort());
+        boolean popularitySort = trending || SORT_POPULAR.equalsIgnoreCase(request.getSort());
+        boolean withFacets = Boolean.TRUE.equals(request.getFacets());
+        // Có facets: mỗi facet phải bỏ qua lựa chọn của chính nó (vẫn thấy các lựa chọn khác), nên bộ lọc facet
+        // không nằm trong query mà lọc hits bằng post_filter; aggregation tự áp bộ lọc của các chiều còn lại
+        Query finalQuery = withFacets ? Query.of(q -> q.bool(b -> b.must(mustQueries))) : filteredQuery;
+        Query scoredQuery = popularitySort ? popularityQuery(finalQuery, trending) : finalQuery;
 
         SearchResponse<JobDocument> response = client.search(s -> {
             var searchRequest = s
                     .index("jobs")
-                    .query(finalQuery)
+                    .query(scoredQuery)
                     .from((safePage - 1) * size)
                     .size(size);
 
-            if (request.getSort() != null) {
+            if (popularitySort) {
+                // Cùng điểm thì ưu tiên tin mới hơn
+                searchRequest = searchRequest
+                        .sort(srt -> srt.score(sc -> sc.order(SortOrder.Desc)))
+                        .sort(srt -> srt.field(f -> f.field("createdAt").order(SortOrder.Desc)));
+            } else if (request.getSort() != null) {
                 searchRequest = searchRequest.sort(srt -> srt
                         .field(f -> f
                                 .field("createdAt")
@@ -163,9 +201,17 @@ public class JobSearchService {
                         ));
             }
 
+            if (withFacets) {
+                searchRequest = searchRequest.aggregations(jobFacetAggregations.requests(facetFilters));
+                if (!facetFilters.isEmpty()) {
+                    List<Query> postFilters = List.copyOf(facetFilters.values());
+                    searchRequest = searchRequest.postFilter(q -> q.bool(b -> b.filter(postFilters)));
+                }
+            }
+
             return searchRequest;
         }, JobDocument.class);
-        log.info("Searching with filters: {}", mustQueries);
+        log.info("Searching with filters: {}", allQueries);
 
 
         List<JobDocument> jobs = response.hits().hits().stream()
@@ -190,9 +236,64 @@ public class JobSearchService {
                 .totalHits(totalHits)
                 .page(safePage)
                 .size(size)
+                .facets(withFacets ? jobFacetAggregations.toFacets(response.aggregations()) : null)
+                .build();
+    }
+
+    // Chế độ cursor luôn sắp theo ngày đăng (asc/desc); popular/trending chỉ hỗ trợ phân trang theo page
+    private JobSearchResponse searchByCursor(JobSearchRequest request, Query query) throws IOException {
+        int size = KeysetCursor.normalizeSize(request.getSize());
+        SearchAfterPager.CursorPage<JobDocument> page = searchAfterPager.search("jobs", query, request.getCursor(),
+                size, "asc".equalsIgnoreCase(request.getSort()), Boolean.TRUE.equals(request.getPit()),
+                JobDocument.class);
+        setIsSaveStatus(page.items());
+        saveSearchHistory(request);
+        return JobSearchResponse.builder()
+                .data(page.items().stream().map(jobDocumentMapper::toJobResponse).toList())
+                .totalHits(page.totalHits())
+                .page(0)
+                .size(size)
+                .nextCursor(page.nextCursor())
                 .build();
     }
 
+    /**
+     * Điểm = (độ liên quan văn bản + độ phổ biến) x hệ số suy giảm theo tuổi tin đăng.
+     * Độ phổ biến lấy log1p của các bộ đếm đã có sẵn trong document nên không tốn truy vấn DB;
+     * trending dùng lượt xem gần đây và suy giảm nhanh hơn popular.
+     */
+    private Query popularityQuery(Query baseQuery, boolean trending) {
+        List<FunctionScore> signals = trending
+                ? List.of(log1pFactor("recentViewCount", 1.0), log1pFactor("applicantCount", 1.5),
+                        log1pFactor("saveCount", 1.0))
+                : List.of(log1pFactor("viewCount", 1.0), log1pFactor("applicantCount", 2.0),
+                        log1pFactor("saveCount", 1.5));
+        String decayScale = trending ? TRENDING_DECAY_SCALE : POPULAR_DECAY_SCALE;
+
+        Query withPopularity = Query.of(q -> q.functionScore(fs -> fs
+                .query(baseQuery)
+                .functions(signals)
+                .scoreMode(FunctionScoreMode.Sum)
+                .boostMode(FunctionBoostMode.Sum)));
+        return Query.of(q -> q.functionScore(fs -> fs
+                .query(withPopularity)
+                .functions(FunctionScore.of(f -> f.gauss(g -> g.date(d -> d
+                        .field("createdAt")
+                        .placement(p -> p
+                                .origin("now")
+                                .scale(Time.of(t -> t.time(decayScale)))
+                                .decay(0.5))))))
+                .boostMode(FunctionBoostMode.Multiply)));
+    }
+
+    private static FunctionScore log1pFactor(String field, double factor) {
+        return FunctionScore.of(f -> f.fieldValueFactor(v -> v
+                .field(field)
+                .factor(factor)
+                .modifier(FieldValueFactorModifier.Log1p)
+                .missing(0.0)));
+    }
+
     private Query termQuery(String field, Long value) {
         return Query.of(q -> q.term(t -> t
                 .field(field)
@@ -207,19 +308,14 @@ public class JobSearchService {
     private void setIsSaveStatus(List<JobDocument> jobs) {
         jobs.forEach(job -> job.setIsSave(false));
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            String email = auth.getName();
-            User user = userRepository.findByEmail(email).orElse(null);
-            if (user != null) {
-                List<Long> savedJobIds = savedJobRepository.findSavedJobIdsByUserId(user.getId());
-                log.info("User {} has {} saved jobs", email, savedJobIds.size());
-                
-                for (JobDocument job : jobs) {
-                    if (job.getId() != null && savedJobIds.contains(job.getId())) {
-                        job.setIsSave(true);
-                        log.debug("Job {} marked as saved for user {}", job.getId(), email);
-                    }
+        Long userId = currentPrincipal.getUserIdOrNull();
+        if (userId != null) {
+            LongPredicate isSaved = savedJobMembershipCache.savedJobMatcher(userId);
+
+            for (JobDocument job : jobs) {
+                if (job.getId() != null && isSaved.test(job.getId())) {
+                    job.setIsSave(true);
+                    log.debug("Job {} marked as saved for user {}", job.getId(), userId);
                 }
             }
         }
@@ -229,112 +325,10 @@ public class JobSearchService {
         return search(request);
     }
 
-    public List<JobDocument> getAllJobsWithIsSaveStatus() {
-        List<Job> allJobs = jobRepository.findAll();
-        log.info("Found {} jobs in database", allJobs.size());
-
-        List<JobDocument> jobDocuments = allJobs.stream()
-                .map(this::convertToJobDocument)
-                .toList();
-
-        log.info("Converted {} jobs to JobDocuments", jobDocuments.size());
-
-        setIsSaveStatus(jobDocuments);
-
-        return jobDocuments;
-    }
-
-    private JobDocument convertToJobDocument(Job job) {
-        JobDocument doc = new JobDocument();
-        doc.setId(job.getId());
-        doc.setTitle(job.getTitle());
-        doc.setDescription(job.getDescription());
-        doc.setLocation(job.getLocation());
-        doc.setEmployerId(job.getEmployer().getId());
-        doc.setCategoryId(job.getCategory().getId());
-        doc.setJobLevelId(job.getJobLevel().getId());
-        if (job.getExperience() != null) {
-            doc.setExperience(job.getExperience().getId());
-        }
-        doc.setSalaryMin(job.getSalaryMin());
-        doc.setSalaryMax(job.getSalaryMax());
-        doc.setJobTypeId(job.getJobType().getId());
-        doc.setEducationId(job.getEducation().getId());
-        doc.setActive(job.getActive());
-        doc.setIsSave(false);
-        doc.setExpiredDate(job.getExpiredDate() != null
-                ? job.getExpiredDate().format(EXPIRED_DATE_FORMATTER)
-                : null);
-
-        doc.setCreatedAt(job.getCreatedAt() != null
-                ? job.getCreatedAt().format(CREATED_AT_FORMATTER)
-                : null);
-
-        log.debug("Converted Job {} to JobDocument with title: {}", job.getId(), doc.getTitle());
-        return doc;
-    }
-
+    // Ghi nền qua SearchHistoryRecorder, không thêm truy vấn DB vào request tìm kiếm
     private void saveSearchHistory(JobSearchRequest request) {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-                String email = auth.getName();
-                User user = userRepository.findByEmail(email).orElse(null);
-
-                if (user != null) {
-                    String searchQuery = buildSearchQueryString(request);
-
-                    if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-                        SearchHistory lastSearchHistory = searchHistoryRepository
-                                .findFirstByUserAndSearchTypeOrderByCreatedAtDesc(user, SearchHistory.SearchType.JOB);
-
-                        boolean isDuplicate = lastSearchHistory != null &&
-                                normalizeForComparison(searchQuery).equals(
-                                        normalizeForComparison(lastSearchHistory.getSearchQuery())
-                                );
-
-                        if (!isDuplicate) {
-                            SearchHistory searchHistory = SearchHistory.builder()
-                                    .user(user)
-                                    .searchQuery(searchQuery)
-                                    .searchType(SearchHistory.SearchType.JOB)
-                                    .build();
-                            searchHistoryRepository.save(searchHistory);
-                            log.debug("Saved new job search history for user {}: {}", email, searchQuery);
-
-                            cleanupOldSearchHistory(user, 50);
-                        } else {
-                            log.debug("Skipped saving duplicate job search history for user {}: {}", email, searchQuery);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to save job search history: {}", e.getMessage());
-        }
-    }
-
-    private void cleanupOldSearchHistory(User user, int maxRecords) {
-        try {
-            long totalRecords = searchHistoryRepository.countByUserAndSearchType(user, SearchHistory.SearchType.JOB);
-            if (totalRecords > maxRecords) {
-                List<SearchHistory> allHistories = searchHistoryRepository
-                        .findByUserAndSearchTypeOrderByCreatedAtDesc(user, SearchHistory.SearchType.JOB);
-
-                int recordsToDelete = (int) (totalRecords - maxRecords);
-                List<SearchHistory> historiesToDelete = allHistories.subList(0, recordsToDelete);
-                searchHistoryRepository.deleteAll(historiesToDelete);
-
-                log.debug("Cleaned up {} old job search history records for user {}", recordsToDelete, user.getEmail());
-            }
-        } catch (Exception e) {
-            log.error("Failed to cleanup old job search history: {}", e.getMessage());
-        }
-    }
-
-    private String normalizeForComparison(String text) {
-        if (text == null) return null;
-        return text.trim().toLowerCase().replaceAll("\\s+", " ");
+        searchHistoryRecorder.record(currentPrincipal.getUserIdOrNull(),
+                SearchHistory.SearchType.JOB, buildSearchQueryString(request));
     }
 
     private String buildSearchQueryString(JobSearchRequest request) {
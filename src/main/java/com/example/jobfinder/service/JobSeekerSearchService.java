@@ -9,6 +9,7 @@ import com.example.jobfinder.dto.job_seeker.JobSeekerSearchResponse;
 import com.example.jobfinder.dto.user.UserResponse;
 import com.example.jobfinder.mapper.UserDocumentMapper;
 import com.example.jobfinder.model.UserDocument;
+import com.example.jobfinder.util.KeysetCursor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -30,6 +31,7 @@ public class JobSeekerSearchService {
 
     ElasticsearchClient client;
     UserDocumentMapper userDocumentMapper;
+    SearchAfterPager searchAfterPager;
 
     public JobSeekerSearchResponse search(JobSeekerSearchRequest request) throws IOException {
         List<Query> mustQueries = new ArrayList<>();
@@ -59,6 +61,10 @@ public class JobSeekerSearchService {
                 ? Query.of(q -> q.matchAll(m -> m))
                 : Query.of(q -> q.bool(b -> b.must(mustQueries)));
 
+        if (request.getCursor() != null) {
+            return searchByCursor(request, finalQuery);
+        }
+
         int safePage = Math.max(1, request.getPage());
         int size = request.getSize();
 
@@ -95,6 +101,19 @@ public class JobSeekerSearchService {
                 .build();
     }
 
+    private JobSeekerSearchResponse searchByCursor(JobSeekerSearchRequest request, Query query) throws IOException {
+        int size = KeysetCursor.normalizeSize(request.getSize());
+        SearchAfterPager.CursorPage<UserDocument> page = searchAfterPager.search("users", query, request.getCursor(),
+                size, false, Boolean.TRUE.equals(request.getPit()), UserDocument.class);
+        return JobSeekerSearchResponse.builder()
+                .data(page.items().stream().map(userDocumentMapper::toUserResponse).toList())
+                .totalHits(page.totalHits())
+                .page(0)
+                .size(size)
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     private Query termQuery(String field, Object value) {
         return Query.of(q -> q.term(t -> t
                 .field(field)
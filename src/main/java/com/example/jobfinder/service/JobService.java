@@ -2,6 +2,7 @@ package com.example.jobfinder.service;
 
 
 import com.example.jobfinder.dto.PageResponse;
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.dto.job.JobCreationRequest;
 import com.example.jobfinder.dto.job.JobResponse;
 import com.example.jobfinder.dto.job.JobStatusUpdateRequest;
@@ -11,6 +12,7 @@ import com.example.jobfinder.exception.AppException;
 import com.example.jobfinder.exception.ErrorCode;
 import com.example.jobfinder.mapper.JobMapper;
 import com.example.jobfinder.model.*;
+import com.example.jobfinder.model.enums.JobIndexChangeType;
 import com.example.jobfinder.repository.*;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -29,7 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import jakarta.persistence.criteria.Predicate;
 import java.util.stream.Collectors;
 
@@ -47,10 +49,15 @@ public class JobService {
     EducationRepository educationRepository;
     ExperienceRepository experienceRepository;
     ApplicationRepository applicationRepository;
-    NotificationService notificationService;
     SavedJobRepository savedJobRepository;
     SubscriptionRepository subscriptionRepository;
+    JobIndexEventPublisher jobIndexEventPublisher;
+    ApplicationCountCache applicationCountCache;
+    CurrentPrincipal currentPrincipal;
+    HourlyActivityCounter hourlyActivityCounter;
+    NewJobNotificationDispatcher newJobNotificationDispatcher;
 
+    @Transactional
     public Job createJob(JobCreationRequest jobCreationRequest) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -120,24 +127,18 @@ public class JobService {
         newJob.setActive(true);
 
             Job savedJob = jobRepository.save(newJob);
+            jobIndexEventPublisher.publish(savedJob.getId(), JobIndexChangeType.JOB_UPSERT);
+            hourlyActivityCounter.recordAfterCommit(HourlyActivityCounter.Activity.NEW_JOB);
 
             notifyJobSeekersOfNewJob(savedJob);
         return savedJob;
     }
 
+    // Fan-out chạy nền sau khi commit, request tạo job không phải chờ
     private void notifyJobSeekersOfNewJob(Job newJob) {
-        List<Long> jobSeekerIds = savedJobRepository.findDistinctJobSeekerIdsByEmployerId(newJob.getEmployer().getId());
-
-        for (Long jobSeekerId : jobSeekerIds) {
-            User jobSeeker = userRepository.findById(jobSeekerId)
-                    .orElse(null);
-            if (jobSeeker != null) {
-                String message = String.format(" **%s** has recently posted a new job. You might be interested.",
-                        newJob.getEmployer().getUserDetail().getCompanyName());
-
-                notificationService.createNotification(jobSeeker.getId(), message, newJob.getId());
-            }
-        }
+        String message = String.format(" **%s** has recently posted a new job. You might be interested.",
+                newJob.getEmployer().getUserDetail().getCompanyName());
+        newJobNotificationDispatcher.dispatchAfterCommit(newJob.getId(), newJob.getEmployer().getId(), message);
     }
 
 
@@ -180,31 +181,24 @@ public class JobService {
                     .orElseThrow(() -> new AppException(ErrorCode.EXPERIENCE_NOT_FOUND));
             job.setExperience(newExperience);
         }
-        return jobMapper.toJobResponse(jobRepository.save(job));
+        Job updatedJob = jobRepository.save(job);
+        jobIndexEventPublisher.publish(updatedJob.getId(), JobIndexChangeType.JOB_UPSERT);
+        return jobMapper.toJobResponse(updatedJob);
     }
 
     public Page<JobResponse> getAllJobs(Pageable pageable) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAuthenticated = authentication != null && authentication.isAuthenticated()
-                && !"anonymousUser".equals(authentication.getPrincipal());
-        Long currentUserId = null;
-        if (isAuthenticated) {
-            String currentUserEmail = authentication.getName();
-            Optional<User> userOptional = userRepository.findByEmail(currentUserEmail);
-            currentUserId = userOptional.map(User::getId).orElse(null);
-        }
+        Long currentUserId = currentPrincipal.getUserIdOrNull();
         Page<Job> jobPage;
         if (currentUserId != null) {
             jobPage = jobRepository.findAllActiveJobsNotSavedByUser(currentUserId, pageable);
         } else {
             jobPage = jobRepository.findAllActive(pageable);
         }
+        Map<Long, Long> applicationCounts = applicationCountCache.getCounts(jobIds(jobPage.getContent()));
         return jobPage.map(job -> {
             JobResponse response = jobMapper.toJobResponse(job);
             response.setIsSave(false);
-
-            Long applicationCount = applicationRepository.countByJob_Id(job.getId());
-            response.setJobApplicationCounts(applicationCount);
+            response.setJobApplicationCounts(applicationCounts.getOrDefault(job.getId(), 0L));
             return response;
         });
     }
@@ -213,11 +207,11 @@ public class JobService {
     public Page<JobResponse> getAllJobsForAdmin(Pageable pageable) {
         Page<Job> jobPage = jobRepository.findAll(pageable);
 
+        Map<Long, Long> applicationCounts = applicationCountCache.getCounts(jobIds(jobPage.getContent()));
         return jobPage.map(job -> {
             JobResponse response = jobMapper.toJobResponse(job);
             response.setIsSave(false);
-            Long applicationCount = applicationRepository.countByJob_Id(job.getId());
-            response.setJobApplicationCounts(applicationCount);
+            response.setJobApplicationCounts(applicationCounts.getOrDefault(job.getId(), 0L));
             return response;
         });
     }
@@ -254,16 +248,10 @@ public class JobService {
             LocalDateTime fromDate,
             LocalDateTime toDate
     ) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new IllegalStateException("User not authenticated.");
-        }
+        AuthenticatedPrincipal currentEmployer = currentPrincipal.get()
+                .orElseThrow(() -> new IllegalStateException("User not authenticated."));
 
-        String userEmail = authentication.getName();
-        User currentEmployer = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new IllegalStateException("Employer not found for authenticated user: " + userEmail));
-
-        if (!currentEmployer.getRole().getName().equals("EMPLOYER")) {
+        if (!currentEmployer.hasRole("EMPLOYER")) {
             throw new IllegalStateException("Access denied: User is not an employer.");
         }
 
@@ -301,6 +289,7 @@ public class JobService {
         }, pageable);
 
 
+        Map<Long, Long> applicationCounts = applicationCountCache.getCounts(jobIds(jobsPage.getContent()));
         List<JobResponse> jobResponses = jobsPage.getContent().stream()
                 .map(job -> {
                     SimpleNameResponse categoryResponse = null;
@@ -338,7 +327,7 @@ public class JobService {
                                 .name(job.getExperience().getName())
                                 .build();
                     }
-                    Long jobApplicationCounts = applicationRepository.countByJob_Id(job.getId());
+                    Long jobApplicationCounts = applicationCounts.getOrDefault(job.getId(), 0L);
                     return JobResponse.builder()
                             .id(job.getId())
                             .title(job.getTitle())
@@ -376,12 +365,17 @@ public class JobService {
                 .build();
     }
 
+    private List<Long> jobIds(List<Job> jobs) {
+        return jobs.stream().map(Job::getId).toList();
+    }
+
     @Transactional
     public void updateJobStatus(JobStatusUpdateRequest request) {
         Job job = jobRepository.findById(request.getJobId())
                 .orElseThrow(() -> new AppException(ErrorCode.JOB_NOT_FOUND));
         job.setActive(request.getIsActive());
         jobRepository.save(job);
+        jobIndexEventPublisher.publish(job.getId(), JobIndexChangeType.JOB_STATUS);
         log.info("Job with ID {} active status updated to {}", request.getJobId(), request.getIsActive());
     }
 }
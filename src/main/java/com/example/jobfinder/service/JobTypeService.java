@@ -13,10 +13,12 @@ import org.springframework.stereotype.Service;
 public class JobTypeService extends BaseNameService<JobType> {
 
     private final JobTypeMapper jobTypeMapper;
+    private final ReferenceDataCache referenceDataCache;
 
-    public JobTypeService(JobTypeRepository jobTypeRepository, JobTypeMapper jobTypeMapper) {
+    public JobTypeService(JobTypeRepository jobTypeRepository, JobTypeMapper jobTypeMapper, ReferenceDataCache referenceDataCache) {
         super(jobTypeRepository);
         this.jobTypeMapper = jobTypeMapper;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @Override
@@ -48,4 +50,9 @@ public class JobTypeService extends BaseNameService<JobType> {
     protected String getEntityNameForLog() {
         return "Job Type";
     }
+
+    @Override
+    protected void afterWrite() {
+        referenceDataCache.reloadAfterCommit();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.enums.JobIndexChangeType;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.repository.JobViewRepository;
+import com.example.jobfinder.util.LongPairSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bộ đệm ghi lượt xem job (write-behind).
+ * Request chỉ kiểm tra khoá (seeker, job) trong tập đã xem hôm nay rồi đẩy vào hàng đợi;
+ * hàng đợi được flush xuống job_views bằng JDBC batch mỗi flush-interval-ms hoặc khi đủ batch-size,
+ * sau đó xếp partial update viewCount cho index jobs (worker đếm lại từ DB).
+ * Tập khoá là LongPairSet giới hạn dedupe.max-entries; đầy thì khoá mới không được dedupe nữa
+ * (lượt xem vẫn được ghi) thay vì xoá cả tập.
+ */
+@Service
+@Slf4j
+public class JobViewRecorder {
+    private static final String INSERT_SQL = "INSERT INTO job_views (viewed_at, job_id, job_seeker_id) VALUES (?, ?, ?)";
+
+    private record PendingView(long jobSeekerId, long jobId, LocalDateTime viewedAt) {}
+
+    // Tập khoá đã xem của một ngày; sang ngày mới thì thay bằng tập rỗng
+    private record DayKeys(LocalDate day, LongPairSet keys, AtomicBoolean fullLogged) {}
+
+    private final JobViewRepository jobViewRepository;
+    private final JobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobIndexEventPublisher jobIndexEventPublisher;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxDedupeEntries;
+
+    private final ConcurrentLinkedQueue<PendingView> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-view-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object dayLock = new Object();
+    // Chỉ một luồng flush tại một thời điểm; ReentrantLock để JDBC batch bên trong không ghim carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile DayKeys seenToday;
+
+    public JobViewRecorder(JobViewRepository jobViewRepository,
+                           JobRepository jobRepository,
+                           JdbcTemplate jdbcTemplate,
+                           JobIndexEventPublisher jobIndexEventPublisher,
+                           @Value("${app.job-views.batch-size:500}") int batchSize,
+                           @Value("${app.job-views.max-pending:50000}") int maxPending,
+                           @Value("${app.job-views.dedupe.max-entries:1000000}") int maxDedupeEntries) {
+        this.jobViewRepository = jobViewRepository;
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobIndexEventPublisher = jobIndexEventPublisher;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxDedupeEntries = maxDedupeEntries;
+        this.seenToday = newDayKeys(LocalDate.now());
+    }
+
+    // Nạp lại các lượt xem đã ghi hôm nay để restart không làm đếm trùng
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTodayKeys() {
+        LocalDate today = LocalDate.now();
+        DayKeys current = keysFor(today);
+        for (Object[] row : jobViewRepository.findViewKeysSince(today.atStartOfDay())) {
+            current.keys().add((Long) row[0], (Long) row[1]);
+        }
+        log.info("Loaded {} job view keys for {}", current.keys().size(), today);
+    }
+
+    /**
+     * Ghi nhận một lượt xem. Trả về false nếu (seeker, job) đã được tính trong hôm nay
+     * hoặc bộ đệm đang đầy.
+     */
+    public boolean record(Long jobSeekerId, Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Kiểm tra bộ đệm trước khi ghi khoá để lượt xem bị bỏ không chiếm chỗ trong tập đã xem
+        if (pendingCount.get() >= maxPending) {
+            log.warn("Job view buffer is full ({} pending), dropping view of job {}", maxPending, jobId);
+            return false;
+        }
+        DayKeys current = keysFor(now.toLocalDate());
+        LongPairSet.AddResult added = current.keys().add(jobSeekerId, jobId);
+        if (added == LongPairSet.AddResult.PRESENT) {
+            return false;
+        }
+        if (added == LongPairSet.AddResult.FULL && current.fullLogged().compareAndSet(false, true)) {
+            log.warn("Job view dedupe set reached {} entries, new keys are no longer deduplicated today",
+                    maxDedupeEntries);
+        }
+        pending.add(new PendingView(jobSeekerId, jobId, now));
+        if (pendingCount.incrementAndGet() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.job-views.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        while (!pending.isEmpty()) {
+            List<PendingView> batch = new ArrayList<>(batchSize);
+            PendingView view;
+            while (batch.size() < batchSize && (view = pending.poll()) != null) {
+                batch.add(view);
+            }
+            pendingCount.addAndGet(-batch.size());
+            try {
+                write(batch);
+            } catch (Exception e) {
+                // Lượt xem chỉ phục vụ thống kê: bỏ lô lỗi thay vì chặn cả hàng đợi
+                log.error("Failed to write {} job views: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void write(List<PendingView> batch) {
+        Set<Long> jobIds = new HashSet<>();
+        batch.forEach(view -> jobIds.add(view.jobId()));
+        // Bỏ các job không tồn tại (id gửi sai hoặc job vừa bị xoá) để một bản ghi không làm hỏng cả lô
+        Set<Long> existing = new HashSet<>(jobRepository.findExistingIdsIn(jobIds));
+        List<PendingView> rows = batch.stream().filter(view -> existing.contains(view.jobId())).toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, view) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(view.viewedAt()));
+            ps.setLong(2, view.jobId());
+            ps.setLong(3, view.jobSeekerId());
+        });
+
+        Set<Long> viewedJobIds = new HashSet<>();
+        rows.forEach(view -> viewedJobIds.add(view.jobId()));
+        jobIndexEventPublisher.publishAll(viewedJobIds, JobIndexChangeType.VIEW_COUNT);
+        log.debug("Flushed {} job views for {} jobs", rows.size(), viewedJobIds.size());
+    }
+
+    private DayKeys keysFor(LocalDate day) {
+        DayKeys current = seenToday;
+        if (!current.day().equals(day)) {
+            synchronized (dayLock) {
+                current = seenToday;
+                if (!current.day().equals(day)) {
+                    current = newDayKeys(day);
+                    seenToday = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private DayKeys newDayKeys(LocalDate day) {
+        return new DayKeys(day, new LongPairSet(maxDedupeEntries), new AtomicBoolean());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lớp gọi HTTP tới API LLM (OpenAI-compatible) dùng chung cho GeminiService.
+ * - JDK HttpClient (HTTP/2, tự giữ pool kết nối) với connect/read timeout
+ * - Giới hạn số lời gọi đồng thời bằng semaphore, chờ quá lâu thì trả AI_SERVICE_BUSY thay vì xếp hàng vô hạn
+ * - Retry 429/5xx và lỗi kết nối với exponential backoff có jitter, tôn trọng header Retry-After;
+ *   không giữ permit trong lúc chờ retry
+ * Request chạy trên virtual thread (spring.threads.virtual.enabled) nên chờ I/O hoặc backoff không chiếm thread của Tomcat.
+ * stream() dùng WebClient trên cùng HttpClient cho các lời gọi stream=true, trả về Flux không chặn thread nào.
+ */
+@Service
+@Slf4j
+public class LlmClient {
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestClient restClient;
+    private final WebClient webClient;
+    // Chờ permit là thao tác chặn, chạy trên virtual thread thay vì thread của Reactor
+    private final Scheduler acquireScheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+    private final Duration readTimeout;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public LlmClient(@Value("${OPENAI_BASE_URL}") String baseUrl,
+                     @Value("${OPENAI_API_KEY}") String apiKey,
+                     @Value("${app.llm.connect-timeout-ms:5000}") long connectTimeoutMs,
+                     @Value("${app.llm.read-timeout-ms:60000}") long readTimeoutMs,
+                     @Value("${app.llm.max-concurrency:16}") int maxConcurrency,
+                     @Value("${app.llm.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+                     @Value("${app.llm.max-attempts:3}") int maxAttempts,
+                     @Value("${app.llm.backoff.base-ms:500}") long baseBackoffMs,
+                     @Value("${app.llm.backoff.max-ms:8000}") long maxBackoffMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .baseUrl(baseUrl)
+                .defaultHeaders(headers -> {
+                    headers.setBearerAuth(apiKey);
+                    headers.setContentType(MediaType.APPLICATION_JSON);
+                })
+                .build();
+        this.webClient = WebClient.builder()
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                .baseUrl(baseUrl)
+                .defaultHeaders(headers -> {
+                    headers.setBearerAuth(apiKey);
+                    headers.setContentType(MediaType.APPLICATION_JSON);
+                })
+                .build();
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    // POST JSON tới path (vd. "/chat/completions") và trả về body dạng chuỗi
+    public String post(String path, String jsonBody) {
+        for (int attempt = 1; ; attempt++) {
+            long retryAfterMs;
+            acquire();
+            try {
+                log.debug("Calling LLM API {} (attempt {}/{})", path, attempt, maxAttempts);
+                return restClient.post()
+                        .uri(path)
+                        .body(jsonBody)
+                        .retrieve()
+                        .body(String.class);
+            } catch (HttpStatusCodeException e) {
+                if (!RETRYABLE_STATUSES.contains(e.getStatusCode().value()) || attempt >= maxAttempts) {
+                    log.error("LLM API {} returned {} (attempt {}/{}): {}", path, e.getStatusCode().value(),
+                            attempt, maxAttempts, e.getResponseBodyAsString());
+                    throw new AppException(ErrorCode.GEMINI_API_ERROR);
+                }
+                log.warn("LLM API {} returned {} (attempt {}/{}), retrying", path, e.getStatusCode().value(),
+                        attempt, maxAttempts);
+                retryAfterMs = retryAfterMs(e.getResponseHeaders());
+            } catch (ResourceAccessException e) {
+                // Hết read timeout thì không gọi lại: LLM đã tốn đủ thời gian, thử lại chỉ nhân đôi độ trễ
+                if (e.getCause() instanceof HttpTimeoutException || attempt >= maxAttempts) {
+                    log.error("Network error calling LLM API {} (attempt {}/{}): {}", path, attempt, maxAttempts,
+                            e.getMessage());
+                    throw new AppException(ErrorCode.NETWORK_ERROR);
+                }
+                log.warn("Network error calling LLM API {} (attempt {}/{}), retrying: {}", path, attempt,
+                        maxAttempts, e.getMessage());
+                retryAfterMs = 0;
+            } finally {
+                permits.release();
+            }
+            sleep(Math.max(retryAfterMs, backoffMs(attempt)));
+        }
+    }
+
+    /**
+     * POST JSON với stream=true, trả về phần data của từng event SSE (kể cả "[DONE]"), chưa parse.
+     * Permit được giữ từ lúc gửi đến khi stream kết thúc/bị huỷ. Chỉ retry khi chưa nhận được chunk nào,
+     * để client không bị lặp nội dung; read timeout tính cho khoảng lặng giữa hai chunk.
+     */
+    public Flux<String> stream(String path, String jsonBody) {
+        AtomicBoolean started = new AtomicBoolean();
+        Flux<String> attempt = Flux.using(
+                        () -> {
+                            acquire();
+                            return permits;
+                        },
+                        permit -> webClient.post()
+                                .uri(path)
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                                .bodyValue(jsonBody)
+                                .retrieve()
+                                .bodyToFlux(SSE_TYPE)
+                                .mapNotNull(ServerSentEvent::data)
+                                .timeout(readTimeout)
+                                .doOnNext(data -> started.set(true)),
+                        Semaphore::release)
+                .subscribeOn(acquireScheduler);
+
+        return attempt
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    Throwable error = signal.failure();
+                    long attemptNo = signal.totalRetries() + 1;
+                    if (started.get() || attemptNo >= maxAttempts || !isRetryable(error)) {
+                        return Mono.error(error);
+                    }
+                    log.warn("LLM stream {} failed (attempt {}/{}), retrying: {}", path, attemptNo, maxAttempts,
+                            error.getMessage());
+                    long retryAfterMs = error instanceof WebClientResponseException e ? retryAfterMs(e.getHeaders()) : 0;
+                    return Mono.delay(Duration.ofMillis(Math.max(retryAfterMs, backoffMs((int) attemptNo))));
+                })))
+                .onErrorMap(error -> !(error instanceof AppException), error -> {
+                    if (error instanceof WebClientResponseException e) {
+                        log.error("LLM stream {} returned {}: {}", path, e.getStatusCode().value(), e.getResponseBodyAsString());
+                        return new AppException(ErrorCode.GEMINI_API_ERROR);
+                    }
+                    log.error("Network error streaming from LLM API {}: {}", path, error.toString());
+                    return new AppException(ErrorCode.NETWORK_ERROR);
+                });
+    }
+
+    // Hết read timeout thì không gọi lại, giống post()
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            return RETRYABLE_STATUSES.contains(e.getStatusCode().value());
+        }
+        return error instanceof WebClientRequestException && !(error.getCause() instanceof HttpTimeoutException);
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Too many concurrent LLM calls, rejecting request after waiting {} ms", acquireTimeoutMs);
+                throw new AppException(ErrorCode.AI_SERVICE_BUSY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Full jitter: ngẫu nhiên trong [0, min(max, base * 2^(attempt-1))] để các request lỗi cùng lúc không retry cùng lúc
+    private long backoffMs(int attempt) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private long retryAfterMs(HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.min(maxBackoffMs, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            // Dạng HTTP-date ít gặp ở API LLM, dùng backoff thường
+            return 0;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
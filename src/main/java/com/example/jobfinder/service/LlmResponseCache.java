@@ -0,0 +1,151 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.LlmResponseCacheEntry;
+import com.example.jobfinder.repository.LlmResponseCacheRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Cache câu trả lời LLM theo nội dung: khoá là SHA-256 của (model, system prompt, nội dung người dùng đã chuẩn hoá).
+ * - Tầng 1: Caffeine trong bộ nhớ (giới hạn size + TTL). Dùng AsyncCache nên các lời gọi trùng khoá đang chạy
+ *   dùng chung một future (single-flight), chỉ một request thật sự gọi lên LLM; lỗi không được cache.
+ * - Tầng 2 (tuỳ chọn theo lời gọi): bảng llm_response_cache cho các phân tích tốn kém, sống qua restart.
+ */
+@Service
+@Slf4j
+public class LlmResponseCache {
+    private final LlmResponseCacheRepository llmResponseCacheRepository;
+    private final AsyncCache<String, String> cache;
+    private final boolean enabled;
+    private final Duration persistentTtl;
+
+    public LlmResponseCache(LlmResponseCacheRepository llmResponseCacheRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.llm.cache.enabled:true}") boolean enabled,
+                            @Value("${app.llm.cache.max-size:10000}") long maxSize,
+                            @Value("${app.llm.cache.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${app.llm.cache.persistent-ttl-hours:168}") long persistentTtlHours) {
+        this.llmResponseCacheRepository = llmResponseCacheRepository;
+        this.enabled = enabled;
+        this.persistentTtl = Duration.ofHours(persistentTtlHours);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                // Việc nạp (đọc DB, gọi LLM) chạy trên virtual thread, không chiếm ForkJoinPool chung
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "llm_responses");
+    }
+
+    /**
+     * Trả câu trả lời đã cache hoặc gọi loader (một lần cho mỗi khoá dù có nhiều request đồng thời).
+     *
+     * @param persistent có lưu/đọc thêm tầng MySQL hay không (dành cho các phân tích tốn kém)
+     */
+    public String get(String model, String systemPrompt, String userText, boolean persistent, Supplier<String> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = keyOf(model, systemPrompt, userText);
+        CompletableFuture<String> future = cache.get(key, (cacheKey, executor) ->
+                CompletableFuture.supplyAsync(() -> load(cacheKey, model, persistent, loader), executor));
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Trả lại đúng exception của loader (AppException...) cho caller
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private String load(String key, String model, boolean persistent, Supplier<String> loader) {
+        if (persistent) {
+            Optional<String> stored = llmResponseCacheRepository.findValidResponse(key, LocalDateTime.now());
+            if (stored.isPresent()) {
+                log.debug("LLM response served from persistent cache: {}", key);
+                return stored.get();
+            }
+        }
+
+        String response = loader.get();
+        if (persistent && response != null) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                llmResponseCacheRepository.save(LlmResponseCacheEntry.builder()
+                        .cacheKey(key)
+                        .model(model)
+                        .response(response)
+                        .createdAt(now)
+                        .expiresAt(now.plus(persistentTtl))
+                        .build());
+            } catch (Exception e) {
+                // Lưu thất bại (vd. instance khác vừa ghi cùng khoá) không ảnh hưởng câu trả lời
+                log.warn("Failed to persist LLM response {}: {}", key, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    // Bỏ một câu trả lời khỏi cả hai tầng cache (vd. caller không parse được)
+    public void evict(String model, String systemPrompt, String userText) {
+        String key = keyOf(model, systemPrompt, userText);
+        cache.synchronous().invalidate(key);
+        llmResponseCacheRepository.deleteById(key);
+    }
+
+    @Scheduled(cron = "${app.llm.cache.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = llmResponseCacheRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired LLM cache entries", deleted);
+        }
+    }
+
+    private static String keyOf(String model, String systemPrompt, String userText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((systemPrompt == null ? "" : systemPrompt).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(userText).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // "Chào bạn" / "  chào   bạn " dùng chung một khoá; NFC để chữ tiếng Việt gõ dựng sẵn/tổ hợp cho cùng kết quả
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC)
+                .trim()
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.notification.NotificationResponse;
+import com.example.jobfinder.repository.SavedJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gửi thông báo "nhà tuyển dụng vừa đăng job mới" cho các job seeker đã từng lưu job của họ.
+ * Chạy nền sau khi transaction tạo job commit, insert theo lô bằng JDBC batch
+ * (chỉ dùng id, không load entity User/Job).
+ */
+@Service
+@Slf4j
+public class NewJobNotificationDispatcher {
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (message, is_read, created_at, user_id, job_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final SavedJobRepository savedJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationStreamService notificationStreamService;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    public NewJobNotificationDispatcher(SavedJobRepository savedJobRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        UnreadNotificationCounter unreadNotificationCounter,
+                                        NotificationStreamService notificationStreamService,
+                                        @Value("${app.notifications.fanout.batch-size:500}") int batchSize,
+                                        @Value("${app.notifications.fanout.threads:2}") int threads) {
+        this.savedJobRepository = savedJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.notificationStreamService = notificationStreamService;
+        this.batchSize = batchSize;
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Hàng đợi không giới hạn: mỗi task chỉ giữ (jobId, employerId, message) nên rẻ, và thread gọi
+        // (afterCommit của request tạo job) không bao giờ phải tự chạy fan-out hay bị từ chối
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "job-notification-fanout-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Gọi trong transaction tạo job: chỉ gửi khi job đã commit
+    public void dispatchAfterCommit(Long jobId, Long employerId, String message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId, employerId, message);
+                }
+            });
+        } else {
+            submit(jobId, employerId, message);
+        }
+    }
+
+    private void submit(Long jobId, Long employerId, String message) {
+        executor.execute(() -> {
+            try {
+                fanOut(jobId, employerId, message);
+            } catch (Exception e) {
+                log.error("Failed to send new job notifications for job {}: {}", jobId, e.getMessage(), e);
+            }
+        });
+    }
+
+    private void fanOut(Long jobId, Long employerId, String message) {
+        List<Long> jobSeekerIds = savedJobRepository.findDistinctJobSeekerIdsByEmployerId(employerId);
+        if (jobSeekerIds.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < jobSeekerIds.size(); from += batchSize) {
+            List<Long> chunk = jobSeekerIds.subList(from, Math.min(from + batchSize, jobSeekerIds.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, jobSeekerId) -> {
+                ps.setString(1, message);
+                ps.setBoolean(2, false);
+                ps.setTimestamp(3, now);
+                ps.setLong(4, jobSeekerId);
+                ps.setLong(5, jobId);
+            });
+            // Batch insert không trả id, client chỉ cần nội dung để hiển thị rồi tải lại danh sách khi cần
+            NotificationResponse pushed = NotificationResponse.builder()
+                    .message(message)
+                    .isRead(false)
+                    .jobId(jobId)
+                    .createdAt(now.toLocalDateTime())
+                    .build();
+            for (Long jobSeekerId : chunk) {
+                unreadNotificationCounter.increment(jobSeekerId);
+                notificationStreamService.publish(jobSeekerId, pushed);
+            }
+        }
+        log.info("Sent new job notification for job {} to {} job seekers", jobId, jobSeekerIds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("New job notification fan-out did not finish before shutdown");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jobfinder.service;
 
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.job.JobResponse;
 import com.example.jobfinder.dto.notification.NotificationResponse;
 import com.example.jobfinder.exception.AppException;
@@ -11,11 +12,14 @@ import com.example.jobfinder.model.User;
 import com.example.jobfinder.repository.JobRepository;
 import com.example.jobfinder.repository.NotificationRepository;
 import com.example.jobfinder.repository.UserRepository;
+import com.example.jobfinder.util.KeysetCursor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -28,6 +32,8 @@ public class NotificationService {
     UserRepository userRepository;
     NotificationMapper notificationMapper;
     JobRepository jobRepository;
+    UnreadNotificationCounter unreadNotificationCounter;
+    NotificationStreamService notificationStreamService;
 
     public void createNotification(Long userId, String message, Long jobId) {
         User user = userRepository.findById(userId)
@@ -44,7 +50,8 @@ public class NotificationService {
                     .isRead(false)
                     .job(job)
                     .build();
-            notificationMapper.toNotificationResponse(notificationRepository.save(notification));
+            onCreated(userId, notificationMapper.toNotificationResponse(notificationRepository.save(notification)));
+            return;
         }
 
         Notification notification = Notification.builder()
@@ -52,15 +59,52 @@ public class NotificationService {
                 .message(message)
                 .isRead(false)
                 .build();
-        notificationMapper.toNotificationResponse(notificationRepository.save(notification));
+        onCreated(userId, notificationMapper.toNotificationResponse(notificationRepository.save(notification)));
     }
 
-    public List<NotificationResponse> getNotificationsForUser(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+    // Cập nhật bộ đếm chưa đọc và đẩy SSE sau khi commit (nếu đang trong transaction)
+    private void onCreated(Long userId, NotificationResponse response) {
+        runAfterCommit(() -> {
+            unreadNotificationCounter.increment(userId);
+            notificationStreamService.publish(userId, response);
+        });
+    }
 
-        List<Notification> notifications = notificationRepository.findByUser_IdOrderByCreatedAtDesc(userId);
-        return notificationMapper.toNotificationResponseList(notifications);
+    private void onUnreadRemoved(Long userId) {
+        runAfterCommit(() -> {
+            unreadNotificationCounter.decrement(userId);
+            notificationStreamService.publishUnreadCount(userId);
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public int getUnreadCount(Long userId) {
+        return unreadNotificationCounter.get(userId);
+    }
+
+    // Phân trang keyset: độ trễ mỗi trang không phụ thuộc người dùng đã cuộn sâu tới đâu
+    @Transactional(readOnly = true)
+    public CursorPageResponse<NotificationResponse> getNotificationsForUser(Long userId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.normalizeSize(size);
+        List<Notification> rows = after == null
+                ? notificationRepository.findFirstPageByUserId(userId, KeysetCursor.fetchLimit(pageSize))
+                : notificationRepository.findPageByUserIdBefore(userId, after.createdAt(), after.id(),
+                        KeysetCursor.fetchLimit(pageSize));
+        return CursorPageResponse.of(rows, pageSize, Notification::getCreatedAt, Notification::getId,
+                notificationMapper::toNotificationResponse);
     }
 
     public List<NotificationResponse> getUnreadNotificationsForUser(Long userId) {
@@ -80,8 +124,13 @@ public class NotificationService {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
+        boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
         notification.setIsRead(true);
-        return notificationMapper.toNotificationResponse(notificationRepository.save(notification));
+        NotificationResponse response = notificationMapper.toNotificationResponse(notificationRepository.save(notification));
+        if (wasUnread) {
+            onUnreadRemoved(userId);
+        }
+        return response;
     }
 
     @Transactional
@@ -94,6 +143,9 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            onUnreadRemoved(userId);
+        }
     }
 
     @Transactional // Đảm bảo hoạt động xóa diễn ra trong một transaction
@@ -104,5 +156,9 @@ public class NotificationService {
 
         // Thực hiện xóa tất cả thông báo của người dùng này
         notificationRepository.deleteByUser_Id(userId);
+        runAfterCommit(() -> {
+            unreadNotificationCounter.reset(userId);
+            notificationStreamService.publishUnreadCount(userId);
+        });
     }
 }
\ No newline at end of file
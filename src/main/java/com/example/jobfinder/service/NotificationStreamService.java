@@ -0,0 +1,91 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.notification.NotificationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Đẩy thông báo realtime qua SSE. Mỗi user đang kết nối có một sink (multicast, best effort);
+ * kết nối được giữ bằng Servlet async nên không tốn một thread cho mỗi client.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final Duration heartbeatInterval;
+    private final Map<Long, UserSink> sinks = new ConcurrentHashMap<>();
+
+    public NotificationStreamService(UnreadNotificationCounter unreadNotificationCounter,
+                                     @Value("${app.notifications.stream.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+    }
+
+    // Số kết nối chỉ được sửa trong compute của map để việc tạo/xoá sink theo user là nguyên tử
+    private static final class UserSink {
+        final Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().multicast().directBestEffort();
+        int connections;
+    }
+
+    public Flux<ServerSentEvent<Object>> subscribe(Long userId) {
+        UserSink userSink = sinks.compute(userId, (id, existing) -> {
+            UserSink target = existing != null ? existing : new UserSink();
+            target.connections++;
+            return target;
+        });
+
+        ServerSentEvent<Object> initialCount = unreadCountEvent(unreadNotificationCounter.get(userId));
+        Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+
+        return Flux.concat(Flux.just(initialCount), Flux.merge(userSink.sink.asFlux(), heartbeat))
+                .doFinally(signal -> sinks.computeIfPresent(userId, (id, existing) ->
+                        --existing.connections <= 0 ? null : existing));
+    }
+
+    public void publish(Long userId, NotificationResponse notification) {
+        emit(userId, ServerSentEvent.builder()
+                .event(NOTIFICATION_EVENT)
+                .data(notification)
+                .build());
+        publishUnreadCount(userId);
+    }
+
+    public void publishUnreadCount(Long userId) {
+        if (sinks.containsKey(userId)) {
+            emit(userId, unreadCountEvent(unreadNotificationCounter.get(userId)));
+        }
+    }
+
+    private void emit(Long userId, ServerSentEvent<Object> event) {
+        UserSink userSink = sinks.get(userId);
+        if (userSink == null) {
+            return;
+        }
+        // Sink không cho emit đồng thời từ nhiều thread
+        synchronized (userSink) {
+            Sinks.EmitResult result = userSink.sink.tryEmitNext(event);
+            if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.debug("Dropped notification event for user {}: {}", userId, result);
+            }
+        }
+    }
+
+    private ServerSentEvent<Object> unreadCountEvent(int count) {
+        return ServerSentEvent.builder()
+                .event(UNREAD_COUNT_EVENT)
+                .data(Map.of("unreadCount", count))
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.payment.PaymentMonthStatusProjection;
+import com.example.jobfinder.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tổng hợp doanh thu / số payment theo trạng thái của tháng này và tháng trước,
+ * tính bằng một truy vấn GROUP BY và giữ trong bộ nhớ cho dashboard admin.
+ * Bị xoá khi có payment mới hoặc payment đổi trạng thái; TTL chỉ là giới hạn trên.
+ */
+@Service
+public class PaymentSummaryCache {
+    private final PaymentRepository paymentRepository;
+    private final Duration ttl;
+
+    private volatile Summary summary;
+
+    public PaymentSummaryCache(PaymentRepository paymentRepository,
+                               @Value("${app.cache.payment-summary.ttl-seconds:300}") long ttlSeconds) {
+        this.paymentRepository = paymentRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public record MonthTotals(double revenue, long paidPayments, long pendingPayments, long totalPayments) {
+        static final MonthTotals EMPTY = new MonthTotals(0, 0, 0, 0);
+    }
+
+    private record Summary(YearMonth currentMonth, Map<YearMonth, MonthTotals> months, Instant loadedAt) {
+    }
+
+    public MonthTotals get(YearMonth month) {
+        return load().months().getOrDefault(month, MonthTotals.EMPTY);
+    }
+
+    // Gọi trong transaction ghi payment: chỉ xoá cache sau khi commit để lần đọc sau thấy dữ liệu mới
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    summary = null;
+                }
+            });
+        } else {
+            summary = null;
+        }
+    }
+
+    private Summary load() {
+        YearMonth currentMonth = YearMonth.now();
+        Summary cached = summary;
+        if (cached != null && cached.currentMonth().equals(currentMonth)
+                && cached.loadedAt().plus(ttl).isAfter(Instant.now())) {
+            return cached;
+        }
+
+        YearMonth previousMonth = currentMonth.minusMonths(1);
+        Map<YearMonth, double[]> totals = new HashMap<>();
+        for (PaymentMonthStatusProjection row : paymentRepository.sumByMonthAndStatus(
+                previousMonth.atDay(1).atStartOfDay(), currentMonth.plusMonths(1).atDay(1).atStartOfDay())) {
+            // [doanh thu, paid, pending, tổng số]
+            double[] t = totals.computeIfAbsent(YearMonth.of(row.getPaidYear(), row.getPaidMonth()), m -> new double[4]);
+            long count = row.getPaymentCount();
+            t[0] += row.getTotalAmount() != null ? row.getTotalAmount() : 0;
+            if ("PAID".equals(row.getStatus())) {
+                t[1] += count;
+            } else if ("PENDING".equals(row.getStatus())) {
+                t[2] += count;
+            }
+            t[3] += count;
+        }
+
+        Map<YearMonth, MonthTotals> months = new HashMap<>();
+        totals.forEach((month, t) -> months.put(month, new MonthTotals(t[0], (long) t[1], (long) t[2], (long) t[3])));
+        Summary loaded = new Summary(currentMonth, Map.copyOf(months), Instant.now());
+        summary = loaded;
+        return loaded;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
+import com.example.jobfinder.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache ngắn hạn email -> (id, vai trò, active) của người dùng đã xác thực,
+ * để các request liên tiếp của cùng một người không phải truy vấn bảng users mỗi lần.
+ * Khi trạng thái người dùng thay đổi thì evict ngay, TTL chỉ là giới hạn trên.
+ */
+@Service
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<String, AuthenticatedPrincipal> principals;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.cache.principal.enabled:true}") boolean enabled,
+                          @Value("${app.cache.principal.max-size:10000}") long maxSize,
+                          @Value("${app.cache.principal.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<AuthenticatedPrincipal> get(String email) {
+        if (!enabled) {
+            return userRepository.findPrincipalByEmail(email);
+        }
+        // Loader trả về null (không tìm thấy) thì Caffeine không lưu
+        return Optional.ofNullable(principals.get(email,
+                key -> userRepository.findPrincipalByEmail(key).orElse(null)));
+    }
+
+    public void evict(String email) {
+        principals.invalidate(email);
+    }
+}
@@ -5,6 +5,7 @@ import com.example.jobfinder.dto.auth.ProfileResponse;
 import com.example.jobfinder.exception.AppException;
 import com.example.jobfinder.exception.ErrorCode;
 import com.example.jobfinder.model.*;
+import com.example.jobfinder.model.enums.JobIndexChangeType;
 import com.example.jobfinder.repository.*;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -33,6 +35,8 @@ public class ProfileService {
     AICompanyAnalysisService aiCompanyAnalysisService;
     JobseekerAnalysisService jobseekerAnalysisService;
     JobseekerAnalysisRepository jobseekerAnalysisRepository;
+    JobRepository jobRepository;
+    JobIndexEventPublisher jobIndexEventPublisher;
 
      static String ROLE_JOB_SEEKER = "JOB_SEEKER";
      static String ROLE_EMPLOYER = "EMPLOYER";
@@ -52,6 +56,7 @@ public class ProfileService {
                 .orElseThrow(() -> new AppException(ErrorCode.PROFILE_NOT_FOUND));
 
         String roleName = user.getRole().getName();
+        String previousCompanyName = userDetail.getCompanyName();
 
         if (roleName.equals(ROLE_JOB_SEEKER)) {
 
@@ -132,6 +137,11 @@ public class ProfileService {
 
         UserDetail savedUserDetail = userDetailsRepository.save(userDetail);
 
+        // Tên công ty được denormalize vào index "jobs": đổi tên thì reindex các job của employer qua outbox
+        if (roleName.equals(ROLE_EMPLOYER) && !Objects.equals(previousCompanyName, savedUserDetail.getCompanyName())) {
+            jobIndexEventPublisher.publishAll(jobRepository.findIdsByEmployerId(user.getId()), JobIndexChangeType.JOB_UPSERT);
+        }
+
         try {
             if (savedUserDetail.getCompanyName() != null && !savedUserDetail.getCompanyName().isEmpty() &&
                     savedUserDetail.getDescription() != null && !savedUserDetail.getDescription().isEmpty()) {
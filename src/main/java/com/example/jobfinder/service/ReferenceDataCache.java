@@ -0,0 +1,170 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.job.*;
+import com.example.jobfinder.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dữ liệu danh mục (loại công việc, cấp bậc, học vấn, ngành nghề, kinh nghiệm, tổ chức) giữ trong bộ nhớ.
+ * Các bảng này gần như không đổi nên nạp một lần khi khởi động; admin sửa danh mục thì nạp lại ngay sau commit,
+ * còn làm mới định kỳ chỉ để nhận thay đổi ghi qua instance khác.
+ * Mỗi lần nạp thay thế nguyên snapshot bất biến nên luồng đọc không cần khoá.
+ */
+@Service
+@Slf4j
+public class ReferenceDataCache {
+    private final JobTypeRepository jobTypeRepository;
+    private final JobLevelRepository jobLevelRepository;
+    private final EducationRepository educationRepository;
+    private final CategoryRepository categoryRepository;
+    private final ExperienceRepository experienceRepository;
+    private final OrganizationRepository organizationRepository;
+
+    private record Snapshot(JobOptionsResponse options,
+                            Map<Long, String> jobTypes,
+                            Map<Long, String> jobLevels,
+                            Map<Long, String> educations,
+                            Map<Long, String> categories,
+                            Map<Long, String> experiences) {}
+
+    private volatile Snapshot snapshot;
+    // Lần nạp đầu chạy truy vấn DB trong khoá, trên virtual thread synchronized sẽ ghim carrier thread
+    private final ReentrantLock initLock = new ReentrantLock();
+
+    public ReferenceDataCache(JobTypeRepository jobTypeRepository,
+                              JobLevelRepository jobLevelRepository,
+                              EducationRepository educationRepository,
+                              CategoryRepository categoryRepository,
+                              ExperienceRepository experienceRepository,
+                              OrganizationRepository organizationRepository) {
+        this.jobTypeRepository = jobTypeRepository;
+        this.jobLevelRepository = jobLevelRepository;
+        this.educationRepository = educationRepository;
+        this.categoryRepository = categoryRepository;
+        this.experienceRepository = experienceRepository;
+        this.organizationRepository = organizationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.reference-data.refresh-interval-ms:600000}",
+            initialDelayString = "${app.reference-data.refresh-interval-ms:600000}")
+    public void reload() {
+        JobOptionsResponse options = new JobOptionsResponse(
+                jobTypeRepository.findAll().stream().map(JobTypeDTO::fromEntity).toList(),
+                jobLevelRepository.findAll().stream().map(JobLevelDTO::fromEntity).toList(),
+                educationRepository.findAll().stream().map(EducationDTO::fromEntity).toList(),
+                categoryRepository.findAll().stream().map(CategoryDTO::fromEntity).toList(),
+                experienceRepository.findAll().stream().map(ExperienceDTO::fromEntity).toList(),
+                organizationRepository.findAll().stream().map(OrganizationDTO::fromEntity).toList());
+        snapshot = new Snapshot(options,
+                namesById(options.jobTypes(), JobTypeDTO::id, JobTypeDTO::name),
+                namesById(options.jobLevels(), JobLevelDTO::id, JobLevelDTO::name),
+                namesById(options.educations(), EducationDTO::id, EducationDTO::name),
+                namesById(options.categories(), CategoryDTO::id, CategoryDTO::name),
+                namesById(options.experiences(), ExperienceDTO::id, ExperienceDTO::name));
+        log.debug("Reference data reloaded: {} categories, {} organizations",
+                options.categories().size(), options.organizations().size());
+    }
+
+    // Gọi trong transaction ghi danh mục: chỉ nạp lại sau khi commit để snapshot thấy dữ liệu mới
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadQuietly();
+                }
+            });
+        } else {
+            reloadQuietly();
+        }
+    }
+
+    // Thay đổi đã commit; nạp lỗi thì giữ snapshot cũ tới lần làm mới định kỳ thay vì báo lỗi cho admin
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Reference data reload after write failed, keeping previous snapshot", e);
+        }
+    }
+
+    public JobOptionsResponse getOptions() {
+        return current().options();
+    }
+
+    public String jobTypeName(Long id) {
+        return current().jobTypes().get(id);
+    }
+
+    public String jobLevelName(Long id) {
+        return current().jobLevels().get(id);
+    }
+
+    public String educationName(Long id) {
+        return current().educations().get(id);
+    }
+
+    public String categoryName(Long id) {
+        return current().categories().get(id);
+    }
+
+    public String experienceName(Long id) {
+        return current().experiences().get(id);
+    }
+
+    // Id của các mục có tên chứa chuỗi (không phân biệt hoa thường), thay cho LIKE '%name%' trên bảng danh mục
+    public List<Long> categoryIdsMatching(String name) {
+        return idsMatching(current().categories(), name);
+    }
+
+    public List<Long> jobLevelIdsMatching(String name) {
+        return idsMatching(current().jobLevels(), name);
+    }
+
+    public List<Long> jobTypeIdsMatching(String name) {
+        return idsMatching(current().jobTypes(), name);
+    }
+
+    // Được gọi trước khi ApplicationReadyEvent chạy xong (vd. request đến sớm) thì nạp ngay
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            initLock.lock();
+            try {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            } finally {
+                initLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private static List<Long> idsMatching(Map<Long, String> namesById, String name) {
+        String needle = name.toLowerCase(Locale.ROOT);
+        return namesById.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue().toLowerCase(Locale.ROOT).contains(needle))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static <T> Map<Long, String> namesById(List<T> items, Function<T, Long> id, Function<T, String> name) {
+        return items.stream().collect(Collectors.toUnmodifiableMap(id, name, (first, second) -> first));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.SavedJobRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Tập job đã lưu của từng user, giữ trong bộ nhớ dưới dạng mảng long đã sắp xếp (8 byte/job)
+ * để đánh dấu isSave cho một trang kết quả mà không cần truy vấn SQL.
+ * Nạp lười từ DB ở lần hỏi đầu tiên, cập nhật ghi xuyên (write-through) khi lưu/bỏ lưu job,
+ * giới hạn theo tổng số job id đang giữ. Cache là riêng từng instance nên hết hạn theo thời điểm ghi:
+ * lưu/bỏ lưu qua instance khác chỉ lệch tối đa một TTL, kể cả với user đọc liên tục.
+ * Chỉ dùng để hiển thị; kiểm tra trùng khi lưu job đọc từ DB.
+ */
+@Service
+public class SavedJobMembershipCache {
+    private static final long[] EMPTY = new long[0];
+
+    private final SavedJobRepository savedJobRepository;
+    private final Cache<Long, long[]> savedJobIds;
+
+    public SavedJobMembershipCache(SavedJobRepository savedJobRepository,
+                                   @Value("${app.cache.saved-jobs.max-ids:5000000}") long maxIds,
+                                   @Value("${app.cache.saved-jobs.expire-after-write-minutes:10}") long expireMinutes) {
+        this.savedJobRepository = savedJobRepository;
+        this.savedJobIds = Caffeine.newBuilder()
+                .maximumWeight(maxIds)
+                .weigher((Long userId, long[] ids) -> Math.max(1, ids.length))
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .build();
+    }
+
+    // Một lần tra cache cho cả trang, sau đó mỗi job chỉ là một lần tìm nhị phân trong bộ nhớ
+    public LongPredicate savedJobMatcher(Long userId) {
+        long[] ids = load(userId);
+        return jobId -> Arrays.binarySearch(ids, jobId) >= 0;
+    }
+
+    public void addAfterCommit(Long userId, Long jobId) {
+        runAfterCommit(() -> savedJobIds.asMap().computeIfPresent(userId, (id, ids) -> insert(ids, jobId)));
+    }
+
+    public void removeAfterCommit(Long userId, Long jobId) {
+        runAfterCommit(() -> savedJobIds.asMap().computeIfPresent(userId, (id, ids) -> remove(ids, jobId)));
+    }
+
+    private long[] load(Long userId) {
+        return savedJobIds.get(userId, id -> {
+            List<Long> rows = savedJobRepository.findSavedJobIdsByUserId(id);
+            if (rows.isEmpty()) {
+                return EMPTY;
+            }
+            long[] ids = rows.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+            return ids;
+        });
+    }
+
+    // Mảng được thay mới khi ghi (copy-on-write) để luồng đọc không cần khoá
+    private static long[] insert(long[] ids, long jobId) {
+        int index = Arrays.binarySearch(ids, jobId);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        long[] next = new long[ids.length + 1];
+        System.arraycopy(ids, 0, next, 0, insertAt);
+        next[insertAt] = jobId;
+        System.arraycopy(ids, insertAt, next, insertAt + 1, ids.length - insertAt);
+        return next;
+    }
+
+    private static long[] remove(long[] ids, long jobId) {
+        int index = Arrays.binarySearch(ids, jobId);
+        if (index < 0) {
+            return ids;
+        }
+        long[] next = new long[ids.length - 1];
+        System.arraycopy(ids, 0, next, 0, index);
+        System.arraycopy(ids, index + 1, next, index, ids.length - index - 1);
+        return next;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
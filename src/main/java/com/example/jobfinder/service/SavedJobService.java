@@ -1,5 +1,6 @@
 package com.example.jobfinder.service;
 
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.dto.job.SavedJobRequest;
 import com.example.jobfinder.dto.job.JobResponse;
 import com.example.jobfinder.dto.job.SavedJobResponse;
@@ -8,7 +9,6 @@ import com.example.jobfinder.exception.ErrorCode;
 import com.example.jobfinder.mapper.JobMapper;
 import com.example.jobfinder.model.Job;
 import com.example.jobfinder.model.SavedJob;
-import com.example.jobfinder.model.User;
 import com.example.jobfinder.repository.JobRepository;
 import com.example.jobfinder.repository.SavedJobRepository;
 import com.example.jobfinder.repository.UserRepository;
@@ -17,13 +17,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -42,6 +40,8 @@ public class SavedJobService {
     UserRepository userRepository;
     JobRepository jobRepository;
     JobMapper  jobMapper;
+    CurrentPrincipal currentPrincipal;
+    SavedJobMembershipCache savedJobMembershipCache;
 
     public Page<JobResponse> getSavedJobsByJobSeekerId(Long jobSeekerId, Pageable pageable) {
         userRepository.findById(jobSeekerId)
@@ -59,57 +59,51 @@ public class SavedJobService {
     public SavedJobResponse savedJob(SavedJobRequest request) {
         log.debug("Processing save job request: {}", request);
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || authentication.getName() == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
-        }
-        String email = authentication.getName();
-        log.debug("Authenticated email: {}", email);
-        User jobSeeker = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException(email));
-        if (jobSeeker == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
-        }
-        String role = jobSeeker.getRole().getName();
-        log.debug("Role: {}", role);
-        if (!role.equals("JOB_SEEKER")) {
+        AuthenticatedPrincipal principal = currentPrincipal.get()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated"));
+        log.debug("Authenticated user: {}, role: {}", principal.getId(), principal.getRole());
+        if (!principal.hasRole("JOB_SEEKER")) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only job seekers can save jobs");
         }
 
         Job job = jobRepository.findById(request.getJobId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found" + request.getJobId()));
 
-        if (savedJobRepository.findByJobSeekerIdAndJobId(jobSeeker.getId(), job.getId()).isPresent()) {
+        // Kiểm tra trên DB (index unique job_seeker_id, job_id): cache thành viên là riêng từng instance nên có thể cũ
+        if (Boolean.TRUE.equals(savedJobRepository.existsByJobIdAndJobSeekerId(job.getId(), principal.getId()))) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You have already saved this job");
         }
 
         SavedJob savedJob = new SavedJob();
-        savedJob.setJobSeeker(jobSeeker);
+        savedJob.setJobSeeker(userRepository.getReferenceById(principal.getId()));
         savedJob.setJob(job);
         savedJob.setSavedAt(LocalDateTime.now());
 
-        savedJobRepository.save(savedJob);
-        return mapToSavedJobResponse(savedJob);
+        try {
+            savedJobRepository.saveAndFlush(savedJob);
+        } catch (DataIntegrityViolationException e) {
+            // Hai request lưu cùng job đồng thời: request thua vi phạm unique constraint
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You have already saved this job");
+        }
+        savedJobMembershipCache.addAfterCommit(principal.getId(), job.getId());
+        return mapToSavedJobResponse(savedJob, principal.getEmail());
     }
 
-    private SavedJobResponse mapToSavedJobResponse(SavedJob saved) {
+    private SavedJobResponse mapToSavedJobResponse(SavedJob saved, String jobSeekerEmail) {
         return SavedJobResponse.builder()
                 .id(saved.getId())
                 .jobId(saved.getJob().getId())
                 .jobSeekerId(saved.getJobSeeker().getId())
                 .jobTitle(saved.getJob().getTitle())
-                .jobSeekerEmail(saved.getJobSeeker().getEmail())
+                .jobSeekerEmail(jobSeekerEmail)
                 .savedAt(saved.getSavedAt())
                 .build();
     }
 
     public void unSaveJob(Long jobId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User jobSeeker = userRepository.findByEmail(email)
+        AuthenticatedPrincipal jobSeeker = currentPrincipal.get()
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        String role = jobSeeker.getRole().getName();
-        if (!role.equals("JOB_SEEKER")) {
+        if (!jobSeeker.hasRole("JOB_SEEKER")) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only job seekers can unSave jobs");
         }
         Job job = jobRepository.findById(jobId)
@@ -118,6 +112,7 @@ public class SavedJobService {
                 .orElseThrow(() -> new AppException(ErrorCode.SAVED_JOB_NOT_FOUND));
 
         savedJobRepository.delete(savedJob);
+        savedJobMembershipCache.removeAfterCommit(jobSeeker.getId(), job.getId());
         log.debug("unsaved job for user: {} and job: {}", jobSeeker.getId(), job.getId());
     }
 }
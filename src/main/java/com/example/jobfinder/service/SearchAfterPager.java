@@ -0,0 +1,92 @@
+package com.example.jobfinder.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.example.jobfinder.util.SearchAfterCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Phân trang sâu bằng search_after trên thứ tự ổn định (createdAt, id) thay cho from/size:
+ * mỗi trang chỉ tốn chi phí size + 1 hit trên mỗi shard, không bị giới hạn max_result_window.
+ * Tuỳ chọn point-in-time giữ nguyên snapshot của index trong suốt quá trình cuộn.
+ */
+@Service
+@Slf4j
+public class SearchAfterPager {
+    private final ElasticsearchClient client;
+    private final Time pitKeepAlive;
+
+    public SearchAfterPager(ElasticsearchClient client,
+                            @Value("${app.search.pit.keep-alive:2m}") String pitKeepAlive) {
+        this.client = client;
+        this.pitKeepAlive = Time.of(t -> t.time(pitKeepAlive));
+    }
+
+    public record CursorPage<T>(List<T> items, long totalHits, String nextCursor) {}
+
+    /**
+     * @param cursor    null/"*" cho trang đầu, sau đó là nextCursor của trang trước
+     * @param usePit    chỉ có tác dụng ở trang đầu; các trang sau dùng lại pitId trong cursor
+     */
+    public <T> CursorPage<T> search(String index, Query query, String cursor, int size,
+                                    boolean ascending, boolean usePit, Class<T> type) throws IOException {
+        SearchAfterCursor after = SearchAfterCursor.isFirstPage(cursor) ? null : SearchAfterCursor.decode(cursor);
+        String pitId = after != null ? after.pitId()
+                : usePit ? client.openPointInTime(o -> o.index(index).keepAlive(pitKeepAlive)).id() : null;
+        SortOrder order = ascending ? SortOrder.Asc : SortOrder.Desc;
+
+        SearchResponse<T> response = client.search(s -> {
+            // Lấy dư 1 hit để biết còn trang sau
+            s.query(query)
+                    .size(size + 1)
+                    .sort(srt -> srt.field(f -> f.field("createdAt").order(order)))
+                    .sort(srt -> srt.field(f -> f.field("id").order(order)));
+            if (pitId != null) {
+                // Với PIT, ES tự thêm _shard_doc vào sort values làm tiebreaker
+                s.pit(p -> p.id(pitId).keepAlive(pitKeepAlive));
+            } else {
+                s.index(index);
+            }
+            if (after != null) {
+                s.searchAfter(after.sortValues());
+            }
+            return s;
+        }, type);
+
+        List<Hit<T>> hits = response.hits().hits();
+        boolean hasMore = hits.size() > size;
+        List<Hit<T>> page = hasMore ? hits.subList(0, size) : hits;
+        // ES có thể trả pitId mới, luôn dùng giá trị mới nhất
+        String currentPitId = response.pitId() != null ? response.pitId() : pitId;
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = new SearchAfterCursor(page.get(page.size() - 1).sort(), currentPitId).encode();
+        } else if (currentPitId != null) {
+            closePit(currentPitId);
+        }
+
+        long totalHits = response.hits().total() != null ? response.hits().total().value() : page.size();
+        List<T> items = page.stream().map(Hit::source).filter(Objects::nonNull).toList();
+        return new CursorPage<>(items, totalHits, nextCursor);
+    }
+
+    // Cuộn hết thì đóng PIT ngay thay vì chờ keep-alive
+    private void closePit(String pitId) {
+        try {
+            client.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            log.warn("Failed to close point-in-time: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.SearchHistory;
+import com.example.jobfinder.repository.SearchHistoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Ghi lịch sử tìm kiếm ngoài luồng request.
+ * Request chỉ so với truy vấn gần nhất của user (giữ trong bộ nhớ) rồi đưa vào hàng đợi có giới hạn;
+ * luồng nền insert theo lô bằng JDBC batch và cắt lịch sử mỗi user về {@code max-per-user} dòng mới nhất
+ * bằng một câu DELETE.
+ */
+@Service
+@Slf4j
+public class SearchHistoryRecorder {
+    private static final String INSERT_SQL =
+            "INSERT INTO search_history (user_id, search_query, search_type, created_at) VALUES (?, ?, ?, ?)";
+    // MySQL không cho LIMIT trực tiếp trong IN (...) nên bọc thêm một bảng dẫn xuất
+    private static final String TRIM_SQL = """
+            DELETE FROM search_history
+            WHERE user_id = ? AND search_type = ?
+              AND id NOT IN (
+                SELECT id FROM (
+                  SELECT id FROM search_history
+                  WHERE user_id = ? AND search_type = ?
+                  ORDER BY created_at DESC, id DESC
+                  LIMIT ?
+                ) newest
+              )
+            """;
+
+    // cold = chưa biết truy vấn gần nhất (cache trống) -> luồng nền kiểm tra lại với DB trước khi ghi
+    private record SearchEvent(long userId, SearchHistory.SearchType type, String query,
+                               LocalDateTime createdAt, boolean cold) {}
+
+    private record UserType(long userId, SearchHistory.SearchType type) {}
+
+    private final SearchHistoryRepository searchHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPerUser;
+    private final int batchSize;
+    private final BlockingQueue<SearchEvent> queue;
+    // Truy vấn gần nhất (đã chuẩn hoá) theo user + loại tìm kiếm
+    private final Cache<UserType, String> lastQueries;
+
+    public SearchHistoryRecorder(SearchHistoryRepository searchHistoryRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${app.search-history.max-per-user:50}") int maxPerUser,
+                                 @Value("${app.search-history.batch-size:200}") int batchSize,
+                                 @Value("${app.search-history.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${app.search-history.dedupe.max-size:100000}") long dedupeMaxSize) {
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPerUser = maxPerUser;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.lastQueries = Caffeine.newBuilder()
+                .maximumSize(dedupeMaxSize)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    // Không bao giờ chặn luồng tìm kiếm: trùng với lần trước hoặc hàng đợi đầy thì bỏ qua
+    public void record(Long userId, SearchHistory.SearchType type, String searchQuery) {
+        if (userId == null || searchQuery == null || searchQuery.isBlank()) {
+            return;
+        }
+        String normalized = normalize(searchQuery);
+        boolean[] cold = {false};
+        boolean[] changed = {false};
+        lastQueries.asMap().compute(new UserType(userId, type), (key, last) -> {
+            cold[0] = last == null;
+            changed[0] = !normalized.equals(last);
+            return normalized;
+        });
+        if (!changed[0]) {
+            log.debug("Skipped duplicate {} search history for user {}: {}", type, userId, searchQuery);
+            return;
+        }
+        if (!queue.offer(new SearchEvent(userId, type, searchQuery.trim(), LocalDateTime.now(), cold[0]))) {
+            log.warn("Search history queue is full, dropping {} search of user {}", type, userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search-history.flush-interval-ms:1000}")
+    public void flush() {
+        List<SearchEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (Exception e) {
+                log.error("Failed to write {} search history entries: {}", batch.size(), e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<SearchEvent> batch) {
+        List<SearchEvent> rows = batch.stream()
+                .filter(event -> !event.cold() || !sameAsLastStored(event))
+                .toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, event) -> {
+            ps.setLong(1, event.userId());
+            ps.setString(2, event.query());
+            ps.setString(3, event.type().name());
+            ps.setTimestamp(4, Timestamp.valueOf(event.createdAt()));
+        });
+
+        Set<UserType> touched = new LinkedHashSet<>();
+        rows.forEach(event -> touched.add(new UserType(event.userId(), event.type())));
+        jdbcTemplate.batchUpdate(TRIM_SQL, new ArrayList<>(touched), touched.size(), (ps, key) -> {
+            ps.setLong(1, key.userId());
+            ps.setString(2, key.type().name());
+            ps.setLong(3, key.userId());
+            ps.setString(4, key.type().name());
+            ps.setInt(5, maxPerUser);
+        });
+        log.debug("Recorded {} search history entries for {} users", rows.size(), touched.size());
+    }
+
+    // Sau khi restart cache trống: so với dòng mới nhất trong DB để không ghi trùng lần tìm kiếm trước đó
+    private boolean sameAsLastStored(SearchEvent event) {
+        List<String> latest = searchHistoryRepository.findRecentQueries(event.userId(), event.type(), Limit.of(1));
+        return !latest.isEmpty() && normalize(event.query()).equals(normalize(latest.get(0)));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? null : text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
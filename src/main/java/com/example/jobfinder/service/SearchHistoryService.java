@@ -1,6 +1,7 @@
 // src/main/java/com/example/jobfinder/service/SearchHistoryService.java
 package com.example.jobfinder.service;
 
+import com.example.jobfinder.dto.CursorPageResponse;
 import com.example.jobfinder.dto.searchHistory.SearchHistoryRequest;
 import com.example.jobfinder.dto.searchHistory.SearchHistoryResponse;
 import com.example.jobfinder.exception.AppException;
@@ -10,6 +11,7 @@ import com.example.jobfinder.model.SearchHistory;
 import com.example.jobfinder.model.User; // Cần User model
 import com.example.jobfinder.repository.SearchHistoryRepository;
 import com.example.jobfinder.repository.UserRepository; // Cần UserRepository
+import com.example.jobfinder.util.KeysetCursor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -77,9 +79,14 @@ public class SearchHistoryService {
     }
 
     @Transactional(readOnly = true)
-    public List<SearchHistoryResponse> getAllSearchHistoryForAdmin() {
-        log.info("Admin: Lấy tất cả lịch sử tìm kiếm trong hệ thống.");
-        List<SearchHistory> searchHistories = searchHistoryRepository.findAll();
-        return searchHistoryMapper.toSearchHistoryResponseList(searchHistories);
+    public CursorPageResponse<SearchHistoryResponse> getAllSearchHistoryForAdmin(String cursor, Integer size) {
+        log.info("Admin: Lấy một trang lịch sử tìm kiếm trong hệ thống.");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.normalizeSize(size);
+        List<SearchHistory> rows = after == null
+                ? searchHistoryRepository.findFirstPage(KeysetCursor.fetchLimit(pageSize))
+                : searchHistoryRepository.findPageBefore(after.createdAt(), after.id(), KeysetCursor.fetchLimit(pageSize));
+        return CursorPageResponse.of(rows, pageSize, SearchHistory::getCreatedAt, SearchHistory::getId,
+                searchHistoryMapper::toSearchHistoryResponse);
     }
 }
\ No newline at end of file
@@ -1,30 +1,26 @@
 // src/main/java/com/example/jobfinder/service/StatisticService.java
 package com.example.jobfinder.service;
 
+import com.example.jobfinder.dto.auth.AuthenticatedPrincipal;
 import com.example.jobfinder.dto.statistic_admin.*;
 import com.example.jobfinder.dto.statistic_job_seeker.JobSeekerDashboardResponse;
 import com.example.jobfinder.exception.AppException;
 import com.example.jobfinder.exception.ErrorCode;
-import com.example.jobfinder.model.Application;
-import com.example.jobfinder.model.Job;
-import com.example.jobfinder.model.Payment;
 import com.example.jobfinder.model.User;
 import com.example.jobfinder.repository.*;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.NavigableMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,40 +34,37 @@ public class StatisticService {
     SavedJobRepository savedJobRepository;
     JobRecommendationRepository jobRecommendationRepository;
     PaymentRepository paymentRepository;
+    CurrentPrincipal currentPrincipal;
+    DailyMetricsService dailyMetricsService;
+    HourlyActivityCounter hourlyActivityCounter;
+    PaymentSummaryCache paymentSummaryCache;
 
     @Transactional(readOnly = true)
     public List<MonthlyTrendResponse> getMonthlyTrendsCalculatedOnTheFly() {
-        log.info("Service: Tính toán sự biến động các chỉ số qua từng tháng từ dữ liệu hiện có.");
+        log.info("Service: Lấy sự biến động các chỉ số qua từng tháng từ bảng daily_metrics.");
 
         List<MonthlyTrendResponse> trends = new ArrayList<>();
 
-        LocalDate startDate = userRepository.findFirstByOrderByCreatedAtAsc()
-                .map(User::getCreatedAt)
-                .map(LocalDateTime::toLocalDate)
-                .orElse(LocalDate.of(2023, 1, 1));
+        LocalDate startDate = findStatisticStartDate();
+        LocalDate today = LocalDate.now();
+        if (startDate.isAfter(today)) {
+            return trends;
+        }
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = dailyMetricsService.getCumulativeTotals(startDate, today);
 
         YearMonth startMonth = YearMonth.from(startDate);
         YearMonth currentMonth = YearMonth.now();
 
         for (YearMonth ym = startMonth; !ym.isAfter(currentMonth); ym = ym.plusMonths(1)) {
-            LocalDateTime endDateOfMonth = ym.atEndOfMonth().atTime(23, 59, 59); // Cuối ngày cuối cùng của tháng
-
-            long totalJobSeekers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("JOB_SEEKER", endDateOfMonth);
-            long totalEmployers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("EMPLOYER", endDateOfMonth);
-            long totalJobs = jobRepository.countTotalJobsPostedBeforeOrEquals(endDateOfMonth);
-            long totalAppliedJobs = applicationRepository.countUniqueAppliedJobsBeforeOrEquals(endDateOfMonth); // Sử dụng đếm unique applied jobs
-
-            long totalActiveJobs = totalJobs - totalAppliedJobs;
-            if (totalActiveJobs < 0) {
-                totalActiveJobs = 0;
-            }
+            // Tháng hiện tại thì lấy đến hôm nay (các ngày sau chưa phát sinh dữ liệu)
+            DailyMetricsService.Totals monthTotals = totals.floorEntry(ym.equals(currentMonth) ? today : ym.atEndOfMonth()).getValue();
             trends.add(MonthlyTrendResponse.builder()
                     .monthYear(ym.toString()) // Format "YYYY-MM"
-                    .totalJobSeekers(totalJobSeekers)
-                    .totalEmployers(totalEmployers)
-                    .totalJobs(totalJobs)
-                    .totalAppliedJobs(totalAppliedJobs)
-                    .totalActiveJobs(totalActiveJobs)
+                    .totalJobSeekers(monthTotals.jobSeekers())
+                    .totalEmployers(monthTotals.employers())
+                    .totalJobs(monthTotals.jobs())
+                    .totalAppliedJobs(monthTotals.appliedJobs())
+                    .totalActiveJobs(monthTotals.activeJobs())
                     .build());
         }
 
@@ -80,61 +73,58 @@ public class StatisticService {
 
     @Transactional(readOnly = true)
     public List<DailyTrendResponse> getDailyTrendsCalculatedOnTheFly() {
-        log.info("Service: Tính toán sự biến động các chỉ số qua từng ngày từ dữ liệu hiện có.");
+        log.info("Service: Lấy sự biến động các chỉ số qua từng ngày từ bảng daily_metrics.");
 
         List<DailyTrendResponse> trends = new ArrayList<>();
 
-        Optional<User> firstUserOptional = userRepository.findFirstByOrderByCreatedAtAsc();
-        LocalDate startDate = firstUserOptional
-                .map(User::getCreatedAt)
-                .map(LocalDateTime::toLocalDate)
-                .orElse(LocalDate.of(2023, 1, 1)); // Mốc mặc định nếu không có user nào
-
+        LocalDate startDate = findStatisticStartDate();
         LocalDate currentDate = LocalDate.now();
 
         if (startDate.isAfter(currentDate)) {
             log.warn("Ngày bắt đầu ({}) muộn hơn ngày hiện tại ({}). Không có dữ liệu để thống kê theo ngày.", startDate, currentDate);
             return trends;
         }
-        for (LocalDate date = startDate; !date.isAfter(currentDate); date = date.plusDays(1)) {
-            LocalDateTime endOfDay = date.atTime(23, 59, 59); // Cuối ngày
-            long totalJobSeekers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("JOB_SEEKER", endOfDay);
-            long totalEmployers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("EMPLOYER", endOfDay);
-            long totalJobs = jobRepository.countTotalJobsPostedBeforeOrEquals(endOfDay);
-            long totalAppliedJobs = applicationRepository.countUniqueAppliedJobsBeforeOrEquals(endOfDay);
-            long totalActiveJobs = totalJobs - totalAppliedJobs;
-            if (totalActiveJobs < 0) {
-                totalActiveJobs = 0;
-            }
-            trends.add(DailyTrendResponse.builder()
-                    .date(date.toString())
-                    .totalJobSeekers(totalJobSeekers)
-                    .totalEmployers(totalEmployers)
-                    .totalJobs(totalJobs)
-                    .totalAppliedJobs(totalAppliedJobs)
-                    .totalActiveJobs(totalActiveJobs)
-                    .build());
-        }
+        dailyMetricsService.getCumulativeTotals(startDate, currentDate).forEach((date, totals) ->
+                trends.add(DailyTrendResponse.builder()
+                        .date(date.toString())
+                        .totalJobSeekers(totals.jobSeekers())
+                        .totalEmployers(totals.employers())
+                        .totalJobs(totals.jobs())
+                        .totalAppliedJobs(totals.appliedJobs())
+                        .totalActiveJobs(totals.activeJobs())
+                        .build()));
 
         return trends;
     }
 
+    private LocalDate findStatisticStartDate() {
+        return userRepository.findFirstByOrderByCreatedAtAsc()
+                .map(User::getCreatedAt)
+                .map(LocalDateTime::toLocalDate)
+                .orElse(LocalDate.of(2023, 1, 1)); // Mốc mặc định nếu không có user nào
+    }
+
     @Transactional(readOnly = true)
     public MonthlyComparisonResponse getMonthOverMonthComparison() {
         YearMonth currentMonth = YearMonth.now();
         YearMonth previousMonth = currentMonth.minusMonths(1);
 
-        LocalDateTime endOfCurrentMonth = currentMonth.atEndOfMonth().atTime(23, 59, 59);
-        long currentMonthTotalJobs = jobRepository.countTotalJobsPostedBeforeOrEquals(endOfCurrentMonth);
-        long currentMonthTotalAppliedJobs = applicationRepository.countUniqueAppliedJobsBeforeOrEquals(endOfCurrentMonth);
-        long currentMonthTotalJobSeekers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("JOB_SEEKER", endOfCurrentMonth);
-        long currentMonthTotalEmployers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("EMPLOYER", endOfCurrentMonth);
+        LocalDate today = LocalDate.now();
+        LocalDate endOfPreviousMonth = previousMonth.atEndOfMonth();
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals =
+                dailyMetricsService.getCumulativeTotals(endOfPreviousMonth, today);
+        DailyMetricsService.Totals current = totals.get(today);
+        DailyMetricsService.Totals previous = totals.get(endOfPreviousMonth);
+
+        long currentMonthTotalJobs = current.jobs();
+        long currentMonthTotalAppliedJobs = current.appliedJobs();
+        long currentMonthTotalJobSeekers = current.jobSeekers();
+        long currentMonthTotalEmployers = current.employers();
 
-        LocalDateTime endOfPreviousMonth = previousMonth.atEndOfMonth().atTime(23, 59, 59);
-        long previousMonthTotalJobs = jobRepository.countTotalJobsPostedBeforeOrEquals(endOfPreviousMonth);
-        long previousMonthTotalAppliedJobs = applicationRepository.countUniqueAppliedJobsBeforeOrEquals(endOfPreviousMonth);
-        long previousMonthTotalJobSeekers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("JOB_SEEKER", endOfPreviousMonth);
-        long previousMonthTotalEmployers = userRepository.countUsersByRoleNameAndCreatedAtBeforeOrEquals("EMPLOYER", endOfPreviousMonth);
+        long previousMonthTotalJobs = previous.jobs();
+        long previousMonthTotalAppliedJobs = previous.appliedJobs();
+        long previousMonthTotalJobSeekers = previous.jobSeekers();
+        long previousMonthTotalEmployers = previous.employers();
 
 
         MonthlyComparisonResponse.MonthlyComparisonResponseBuilder builder = MonthlyComparisonResponse.builder()
@@ -193,32 +183,17 @@ public class StatisticService {
     }
 
     public List<HourlyActivityResponse> getTodayHourlyActivities() {
-        log.info("Calculating hourly activities for today on the fly.");
-
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
-        List<User> usersToday = userRepository.findByCreatedAtBetweenAndIsActive(startOfDay, endOfDay, false);
-        List<Job> jobsToday = jobRepository.findByCreatedAtBetween(startOfDay, endOfDay);
-        List<Application> applicationsToday = applicationRepository.findByAppliedAtBetween(startOfDay, endOfDay);
-        Map<Integer, Long> usersByHour = usersToday.stream()
-                .collect(Collectors.groupingBy(user -> user.getCreatedAt().getHour(), Collectors.counting()));
-        Map<Integer, Long> jobsByHour = jobsToday.stream()
-                .collect(Collectors.groupingBy(job -> job.getCreatedAt().getHour(), Collectors.counting()));
-        Map<Integer, Long> applicationsByHour = applicationsToday.stream()
-                .collect(Collectors.groupingBy(application -> application.getAppliedAt().getHour(), Collectors.counting()));
-
-        List<HourlyActivityResponse> hourlyActivities = new ArrayList<>();
+        // Đọc từ bộ đếm theo giờ trong bộ nhớ, không load entity của ngày hôm nay
+        List<HourlyActivityResponse> hourlyActivities = new ArrayList<>(24);
 
         for (int hour = 0; hour < 24; hour++) {
             hourlyActivities.add(HourlyActivityResponse.builder()
                     .hourOfDay(hour)
-                    .newUsers(usersByHour.getOrDefault(hour, 0L))
-                    .newJobs(jobsByHour.getOrDefault(hour, 0L))
-                    .newApplications(applicationsByHour.getOrDefault(hour, 0L))
+                    .newUsers(hourlyActivityCounter.get(HourlyActivityCounter.Activity.NEW_USER, hour))
+                    .newJobs(hourlyActivityCounter.get(HourlyActivityCounter.Activity.NEW_JOB, hour))
+                    .newApplications(hourlyActivityCounter.get(HourlyActivityCounter.Activity.NEW_APPLICATION, hour))
                     .build());
         }
-        log.debug("Generated hourly activities: {}", hourlyActivities);
         return hourlyActivities;
     }
 
@@ -237,13 +212,12 @@ public class StatisticService {
 
     @Transactional(readOnly = true)
     public JobSeekerDashboardResponse getDashboardSummaryForCurrentUser() {
-        String authenticatedEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(authenticatedEmail)
+        AuthenticatedPrincipal currentUser = currentPrincipal.get()
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
         // 2. Đảm bảo người dùng là JOB_SEEKER
-        if (!currentUser.getRole().getName().equals("JOB_SEEKER")) {
-            log.warn("User {} is not a JOB_SEEKER. Cannot retrieve job seeker dashboard.", authenticatedEmail);
+        if (!currentUser.hasRole("JOB_SEEKER")) {
+            log.warn("User {} is not a JOB_SEEKER. Cannot retrieve job seeker dashboard.", currentUser.getEmail());
             throw new AppException(ErrorCode.ROLE_NOT_FOUND); // Hoặc một ErrorCode phù hợp hơn nếu bạn có
         }
 
@@ -267,36 +241,18 @@ public class StatisticService {
         YearMonth currentMonth = YearMonth.now();
         YearMonth previousMonth = currentMonth.minusMonths(1);
 
-        LocalDateTime currentMonthStart = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime currentMonthEnd = currentMonth.atEndOfMonth().atTime(23, 59, 59, 999999999);
-
-        LocalDateTime previousMonthStart = previousMonth.atDay(1).atStartOfDay();
-        LocalDateTime previousMonthEnd = previousMonth.atEndOfMonth().atTime(23, 59, 59, 999999999);
-
-        // --- Lấy dữ liệu cho tháng hiện tại ---
-        List<Payment> currentMonthPayments = paymentRepository.findByPaidAtBetween(currentMonthStart, currentMonthEnd);
-        double currentMonthTotalRevenue = currentMonthPayments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
-        long currentMonthTotalPaidPayments = currentMonthPayments.stream()
-                .filter(p -> "PAID".equalsIgnoreCase(p.getPayosStatus())) // Giả định trường status là payosStatus
-                .count();
-        long currentMonthTotalPendingPayments = currentMonthPayments.stream()
-                .filter(p -> "PENDING".equalsIgnoreCase(p.getPayosStatus())) // Giả định trường status là payosStatus
-                .count();
-        long currentMonthTotalPayments = currentMonthPayments.size();
-
-        List<Payment> previousMonthPayments = paymentRepository.findByPaidAtBetween(previousMonthStart, previousMonthEnd);
-        double previousMonthTotalRevenue = previousMonthPayments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
-        long previousMonthTotalPaidPayments = previousMonthPayments.stream()
-                .filter(p -> "PAID".equalsIgnoreCase(p.getPayosStatus()))
-                .count();
-        long previousMonthTotalPendingPayments = previousMonthPayments.stream()
-                .filter(p -> "PENDING".equalsIgnoreCase(p.getPayosStatus()))
-                .count();
-        long previousMonthTotalPayments = previousMonthPayments.size();
+        PaymentSummaryCache.MonthTotals current = paymentSummaryCache.get(currentMonth);
+        PaymentSummaryCache.MonthTotals previous = paymentSummaryCache.get(previousMonth);
+
+        double currentMonthTotalRevenue = current.revenue();
+        long currentMonthTotalPaidPayments = current.paidPayments();
+        long currentMonthTotalPendingPayments = current.pendingPayments();
+        long currentMonthTotalPayments = current.totalPayments();
+
+        double previousMonthTotalRevenue = previous.revenue();
+        long previousMonthTotalPaidPayments = previous.paidPayments();
+        long previousMonthTotalPendingPayments = previous.pendingPayments();
+        long previousMonthTotalPayments = previous.totalPayments();
 
         return PaymentComparisonResponse.builder()
                 .monthYear(currentMonth.toString())
@@ -35,6 +35,7 @@ public class SubscriptionPaymentService {
     PaymentRepository paymentRepository;
     UserRepository userRepository;
     PaymentMapper paymentMapper;
+    PaymentSummaryCache paymentSummaryCache;
 
     @Transactional
     public CheckoutResponseData createPremiumSubscriptionPaymentLink(
@@ -89,6 +90,7 @@ public class SubscriptionPaymentService {
                 .paidAt(null)
                 .build();
         paymentRepository.save(newPayment);
+        paymentSummaryCache.invalidateAfterCommit();
 
         return checkoutData;
     }
@@ -154,6 +156,7 @@ public class SubscriptionPaymentService {
         paymentRecord.setPaidAt(now);
         paymentRecord.setPayosStatus("PAID");
         paymentRepository.save(paymentRecord);
+        paymentSummaryCache.invalidateAfterCommit();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,53 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Số thông báo chưa đọc theo user, giữ trong bộ nhớ để trả badge count không cần truy vấn MySQL.
+ * Lần đầu hỏi thì đếm từ DB, sau đó tăng/giảm theo các thao tác của NotificationService.
+ */
+@Service
+public class UnreadNotificationCounter {
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, AtomicInteger> counts;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${app.notifications.unread-counter.max-size:100000}") long maxSize,
+                                     @Value("${app.notifications.unread-counter.expire-after-access-minutes:60}") long expireMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+    }
+
+    public int get(Long userId) {
+        return counts.get(userId, id -> new AtomicInteger((int) notificationRepository.countByUser_IdAndIsReadFalse(id))).get();
+    }
+
+    // User chưa có trong cache thì lần đọc sau sẽ đếm lại từ DB, không cần tăng
+    public void increment(Long userId) {
+        AtomicInteger counter = counts.getIfPresent(userId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    public void decrement(Long userId) {
+        AtomicInteger counter = counts.getIfPresent(userId);
+        if (counter != null) {
+            counter.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    public void reset(Long userId) {
+        counts.put(userId, new AtomicInteger());
+    }
+}
@@ -1,88 +1,43 @@
 package com.example.jobfinder.service;
 
-import com.example.jobfinder.model.UserDetail;
+import com.example.jobfinder.dto.user.UserIndexProjection;
+import com.example.jobfinder.mapper.UserDocumentMapper;
 import com.example.jobfinder.model.UserDocument;
 import com.example.jobfinder.repository.UserDetailsRepository;
-import com.example.jobfinder.repository.UserDocumentRepository;
-import com.example.jobfinder.repository.JobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class UserElasticsearchSyncService {
-    private static final Logger log = LoggerFactory.getLogger(ElasticsearchSyncService.class);
+    public static final String USERS_ALIAS = "users";
+    private static final Logger log = LoggerFactory.getLogger(UserElasticsearchSyncService.class);
 
 
     private final UserDetailsRepository userDetailsRepository;
-    private final UserDocumentRepository userDocumentRepository;
-    private final JobRepository jobRepository;
+    private final UserDocumentMapper userDocumentMapper;
+    private final ElasticsearchIndexRebuilder elasticsearchIndexRebuilder;
 
-    public UserElasticsearchSyncService(UserDetailsRepository userDetailsRepository, 
-                                       UserDocumentRepository userDocumentRepository,
-                                       JobRepository jobRepository) {
+    public UserElasticsearchSyncService(UserDetailsRepository userDetailsRepository,
+                                       UserDocumentMapper userDocumentMapper,
+                                       ElasticsearchIndexRebuilder elasticsearchIndexRebuilder) {
         this.userDetailsRepository = userDetailsRepository;
-        this.userDocumentRepository = userDocumentRepository;
-        this.jobRepository = jobRepository;
+        this.userDocumentMapper = userDocumentMapper;
+        this.elasticsearchIndexRebuilder = elasticsearchIndexRebuilder;
     }
 
     @Scheduled(cron = "0 5 0 * * *")
     public void syncAllUser() {
-        List<UserDetail> userDetails = userDetailsRepository.findAll();
-        List<UserDocument> userDocuments = userDetails.stream().map(this::mapToDocument).toList();
-
-        userDocumentRepository.saveAll(userDocuments);
-        log.info("All jobs have been synced, indexed {} user", userDetails.size());
+        long indexed = elasticsearchIndexRebuilder.rebuild(USERS_ALIAS, UserDocument.class,
+                userDetailsRepository::findIndexRowsAfter,
+                UserIndexProjection::getId,
+                userDocumentMapper::toDocument);
+        log.info("All users have been synced, indexed {} user", indexed);
     }
 
     // Method để sync manual cho testing
     public void syncAllUserManual() {
         syncAllUser();
     }
-
-    private UserDocument mapToDocument(UserDetail userDetail) {
-        UserDocument userDocument = new UserDocument();
-        userDocument.setId(userDetail.getId());
-        userDocument.setEmail(userDetail.getUser().getEmail());
-        userDocument.setFullName(userDetail.getFullName());
-        userDocument.setCompanyName(userDetail.getCompanyName());
-        userDocument.setLocation(userDetail.getLocation());
-        userDocument.setDescription(userDetail.getDescription());
-        userDocument.setWebsite(userDetail.getWebsite());
-        userDocument.setAvatarUrl(userDetail.getAvatarUrl());
-        userDocument.setPhone(userDetail.getPhone());
-        userDocument.setTeamSize(userDetail.getTeamSize());
-        userDocument.setYearOfEstablishment(userDetail.getYearOfEstablishment());
-        userDocument.setMapLocation(userDetail.getMapLocation());
-        if (userDetail.getUser() != null && userDetail.getUser().getRole() != null) {
-            userDocument.setRoleId(userDetail.getUser().getRole().getId());
-        }
-
-        if (userDetail.getEducation() != null) {
-            userDocument.setEducationId(userDetail.getEducation().getId());
-        }
-
-        if (userDetail.getOrganization() != null) {
-            userDocument.setOrganizationId(userDetail.getOrganization().getId());
-        }
-        if (userDetail.getExperience() != null) {
-            userDocument.setExperienceId(userDetail.getExperience().getId());
-        }
-
-        // Set số lượng job active của employer
-        if (userDetail.getUser() != null && userDetail.getUser().getRole() != null 
-            && "EMPLOYER".equals(userDetail.getUser().getRole().getName())) {
-            long activeJobsCount = jobRepository.countByEmployerIdAndActiveTrue(userDetail.getUser().getId());
-            userDocument.setJobsPosted((int) activeJobsCount);
-            log.info("Employer {} (userId: {}) has {} active jobs", 
-                    userDetail.getCompanyName(), userDetail.getUser().getId(), activeJobsCount);
-        } else {
-            userDocument.setJobsPosted(0);
-        }
-
-        return userDocument;
-    }
 }
@@ -40,6 +40,8 @@ public class UserService {
     EmailService emailService;
     EducationMapper educationMapper;
     ExperienceMapper experienceMapper;
+    PrincipalCache principalCache;
+    BlockedUserRegistry blockedUserRegistry;
 
     public List<UserResponse> getAllUsers() {
         List<User> users = userRepository.findAll();
@@ -191,6 +193,12 @@ public class UserService {
         boolean oldStatus = user.getIsActive(); // Lưu trạng thái cũ
         user.setIsActive(request.getIsActive()); // Cập nhật trạng thái active
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        if (Boolean.TRUE.equals(request.getIsActive())) {
+            blockedUserRegistry.markActive(user.getId());
+        } else {
+            blockedUserRegistry.markBlocked(user.getId());
+        }
         log.info("User with ID {} active status updated to {}", request.getUserId(), request.getIsActive());
         if (oldStatus && request.getIsActive() == false) {
             try {
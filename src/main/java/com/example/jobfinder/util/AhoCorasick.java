@@ -0,0 +1,92 @@
+package com.example.jobfinder.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Automaton Aho-Corasick: tìm tất cả các từ khoá trong một lần duyệt văn bản, độ phức tạp O(độ dài văn bản + số kết quả)
+ * bất kể số lượng từ khoá. Dựng một lần rồi dùng chung giữa các thread (không thay đổi sau khi build).
+ */
+public final class AhoCorasick<T> {
+
+    public record Match<T>(int start, int end, T value) {}
+
+    private record Output<T>(int length, T value) {}
+
+    private static final class Node<T> {
+        final Map<Character, Node<T>> next = new HashMap<>();
+        final List<Output<T>> outputs = new ArrayList<>();
+        Node<T> fail;
+    }
+
+    private final Node<T> root;
+
+    private AhoCorasick(Node<T> root) {
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    // Trả về mọi lần xuất hiện (kể cả chồng lấn nhau), theo thứ tự vị trí kết thúc
+    public List<Match<T>> findAll(CharSequence text) {
+        List<Match<T>> matches = new ArrayList<>();
+        Node<T> node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (node != root && !node.next.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.next.getOrDefault(c, root);
+            for (Output<T> output : node.outputs) {
+                matches.add(new Match<>(i + 1 - output.length(), i + 1, output.value()));
+            }
+        }
+        return matches;
+    }
+
+    public static final class Builder<T> {
+        private final Node<T> root = new Node<>();
+
+        public Builder<T> add(String keyword, T value) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            Node<T> node = root;
+            for (int i = 0; i < keyword.length(); i++) {
+                node = node.next.computeIfAbsent(keyword.charAt(i), c -> new Node<>());
+            }
+            node.outputs.add(new Output<>(keyword.length(), value));
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            // Dựng fail link theo BFS; output của fail node được gộp vào để không phải lần theo chuỗi fail khi tìm
+            Queue<Node<T>> queue = new ArrayDeque<>();
+            for (Node<T> child : root.next.values()) {
+                child.fail = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node<T> node = queue.poll();
+                for (Map.Entry<Character, Node<T>> entry : node.next.entrySet()) {
+                    Node<T> child = entry.getValue();
+                    Node<T> fail = node.fail;
+                    while (fail != root && !fail.next.containsKey(entry.getKey())) {
+                        fail = fail.fail;
+                    }
+                    Node<T> target = fail.next.get(entry.getKey());
+                    child.fail = target != null && target != child ? target : root;
+                    child.outputs.addAll(child.fail.outputs);
+                    queue.add(child);
+                }
+            }
+            return new AhoCorasick<>(root);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jobfinder.util;
+
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Con trỏ phân trang keyset theo (createdAt, id), sắp xếp giảm dần.
+ * Được mã hoá Base64 URL-safe để client coi như chuỗi mờ (opaque), không tự dựng.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Trả về null khi không có con trỏ (trang đầu)
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public static int normalizeSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Lấy dư 1 bản ghi để biết còn trang sau hay không
+    public static Limit fetchLimit(int size) {
+        return Limit.of(size + 1);
+    }
+}
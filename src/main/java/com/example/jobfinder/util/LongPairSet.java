@@ -0,0 +1,120 @@
+package com.example.jobfinder.util;
+
+/**
+ * Tập các cặp (long, long) dùng open addressing trên hai mảng long nguyên thuỷ: khoảng 32 byte mỗi phần tử
+ * ở hệ số tải 0.5, không boxing, không tạo object theo từng phần tử.
+ * Tăng kích thước khi cần cho tới maxEntries; đầy rồi thì không nhận thêm cặp mới (các cặp đã có vẫn giữ nguyên).
+ * Thread-safe: các thao tác chỉ là đọc/ghi mảng trong bộ nhớ nên dùng chung một monitor.
+ */
+public final class LongPairSet {
+
+    public enum AddResult { ADDED, PRESENT, FULL }
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int maxEntries;
+    private long[] firsts;
+    private long[] seconds;
+    private int size;
+    // Cặp (0, 0) trùng với giá trị ô trống nên được lưu riêng
+    private boolean containsZeroPair;
+
+    public LongPairSet(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        // Bảng không vượt quá MAX_CAPACITY ô nên luôn còn ô trống để dò
+        this.maxEntries = Math.min(maxEntries, MAX_CAPACITY / 2);
+        int capacity = Math.min(MIN_CAPACITY, tableSizeFor(this.maxEntries));
+        this.firsts = new long[capacity];
+        this.seconds = new long[capacity];
+    }
+
+    public synchronized AddResult add(long first, long second) {
+        if (first == 0 && second == 0) {
+            if (containsZeroPair) {
+                return AddResult.PRESENT;
+            }
+            if (size >= maxEntries) {
+                return AddResult.FULL;
+            }
+            containsZeroPair = true;
+            size++;
+            return AddResult.ADDED;
+        }
+
+        int slot = findSlot(firsts, seconds, first, second);
+        if (firsts[slot] != 0 || seconds[slot] != 0) {
+            return AddResult.PRESENT;
+        }
+        if (size >= maxEntries) {
+            return AddResult.FULL;
+        }
+        firsts[slot] = first;
+        seconds[slot] = second;
+        size++;
+        if (size * 2 > firsts.length && firsts.length < MAX_CAPACITY) {
+            grow();
+        }
+        return AddResult.ADDED;
+    }
+
+    public synchronized boolean contains(long first, long second) {
+        if (first == 0 && second == 0) {
+            return containsZeroPair;
+        }
+        int slot = findSlot(firsts, seconds, first, second);
+        return firsts[slot] != 0 || seconds[slot] != 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    // Ô chứa cặp, hoặc ô trống đầu tiên trên chuỗi dò tuyến tính nếu chưa có
+    private static int findSlot(long[] firsts, long[] seconds, long first, long second) {
+        int mask = firsts.length - 1;
+        int slot = hash(first, second) & mask;
+        while (firsts[slot] != 0 || seconds[slot] != 0) {
+            if (firsts[slot] == first && seconds[slot] == second) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldFirsts = firsts;
+        long[] oldSeconds = seconds;
+        long[] newFirsts = new long[oldFirsts.length * 2];
+        long[] newSeconds = new long[oldSeconds.length * 2];
+        for (int i = 0; i < oldFirsts.length; i++) {
+            if (oldFirsts[i] != 0 || oldSeconds[i] != 0) {
+                int slot = findSlot(newFirsts, newSeconds, oldFirsts[i], oldSeconds[i]);
+                newFirsts[slot] = oldFirsts[i];
+                newSeconds[slot] = oldSeconds[i];
+            }
+        }
+        firsts = newFirsts;
+        seconds = newSeconds;
+    }
+
+    private static int hash(long first, long second) {
+        long h = first * 0x9E3779B97F4A7C15L + second;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    // Lũy thừa của 2 đủ để chứa n phần tử ở hệ số tải 0.5
+    private static int tableSizeFor(int n) {
+        long capacity = Long.highestOneBit(Math.max(1L, (long) n * 2 - 1)) << 1;
+        return (int) Math.min(capacity, MAX_CAPACITY);
+    }
+}
@@ -4,23 +4,6 @@ package com.example.jobfinder.util;
 public final class QueryConstants {
     private QueryConstants() {}
 
-    public static final String FIND_JOBS_BY_CRITERIA = """
-            SELECT j FROM Job j
-            LEFT JOIN FETCH j.category c
-            LEFT JOIN FETCH j.jobLevel jl
-            LEFT JOIN FETCH j.jobType jt
-            LEFT JOIN FETCH j.employer e
-            LEFT JOIN FETCH e.userDetail ud 
-            WHERE (:title IS NULL OR LOWER(j.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND
-            (:location IS NULL OR LOWER(j.location) LIKE LOWER(CONCAT('%', :location, '%'))) AND
-            (:minSalary IS NULL OR j.salaryMin >= :minSalary) AND
-            (:maxSalary IS NULL OR j.salaryMax <= :maxSalary) AND
-            (:categoryName IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :categoryName, '%'))) AND
-            (:jobLevelName IS NULL OR LOWER(jl.name) LIKE LOWER(CONCAT('%', :jobLevelName, '%'))) AND
-            (:jobTypeName IS NULL OR LOWER(jt.name) LIKE LOWER(CONCAT('%', :jobTypeName, '%'))) AND
-            (:employerName IS NULL OR LOWER(ud.companyName) LIKE LOWER(CONCAT('%', :employerName, '%')))
-            """;
-
     public static final String FIND_USERS_BY_CRITERIA = """
             SELECT u FROM User u
             LEFT JOIN FETCH u.role r
@@ -116,4 +99,23 @@ public final class QueryConstants {
             "AND (:companyName IS NULL OR ud.companyName LIKE CONCAT('%', :companyName, '%')) " +
             "AND (:website IS NULL OR ud.website LIKE CONCAT('%', :website, '%')) " +
             "AND (:isActive IS NULL OR u.active = :isActive)";
-}
\ No newline at end of file
+
+    // Dòng phẳng của job (JobIndexProjection), join sẵn các danh mục; dùng chung cho reindex và export
+    public static final String JOB_INDEX_ROW_SELECT = """
+            SELECT j.id AS id, j.title AS title, j.description AS description, j.location AS location,
+                   e.id AS employerId, ud.companyName AS companyName, c.id AS categoryId, jl.id AS jobLevelId, jt.id AS jobTypeId,
+                   ed.id AS educationId, ex.id AS experienceId,
+                   j.salaryMin AS salaryMin, j.salaryMax AS salaryMax, j.active AS active,
+                   j.expiredDate AS expiredDate, j.createdAt AS createdAt,
+                   (SELECT COUNT(a) FROM Application a WHERE a.job.id = j.id) AS applicationCount,
+                   (SELECT COUNT(v) FROM JobView v WHERE v.job.id = j.id) AS viewCount
+            FROM Job j
+            JOIN j.employer e
+            LEFT JOIN e.userDetail ud
+            JOIN j.category c
+            LEFT JOIN j.jobLevel jl
+            LEFT JOIN j.jobType jt
+            LEFT JOIN j.education ed
+            LEFT JOIN j.experience ex
+            """;
+}
@@ -0,0 +1,73 @@
+package com.example.jobfinder.util;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Con trỏ phân trang search_after của Elasticsearch: sort values của hit cuối trang trước
+ * (createdAt, id và _shard_doc khi dùng point-in-time) cùng pitId nếu có.
+ * Mã hoá Base64 URL-safe, client chỉ gửi lại nguyên chuỗi.
+ */
+public record SearchAfterCursor(List<FieldValue> sortValues, String pitId) {
+    // Giá trị cursor để bắt đầu trang đầu tiên ở chế độ cursor
+    public static final String FIRST_PAGE = "*";
+
+    private static final String SEPARATOR = "|";
+
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank() || FIRST_PAGE.equals(cursor.trim());
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder(pitId == null ? "" : pitId);
+        for (FieldValue value : sortValues) {
+            raw.append(SEPARATOR);
+            if (value.isLong()) {
+                raw.append('l').append(value.longValue());
+            } else if (value.isDouble()) {
+                raw.append('d').append(value.doubleValue());
+            } else if (value.isBoolean()) {
+                raw.append('b').append(value.booleanValue());
+            } else if (value.isNull()) {
+                raw.append('n');
+            } else {
+                // Chuỗi có thể chứa ký tự phân tách nên được mã hoá riêng
+                raw.append('s').append(Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(value.stringValue().getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchAfterCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Cursor has no sort values");
+            }
+            List<FieldValue> values = new ArrayList<>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++) {
+                String part = parts[i];
+                String value = part.substring(1);
+                values.add(switch (part.charAt(0)) {
+                    case 'l' -> FieldValue.of(Long.parseLong(value));
+                    case 'd' -> FieldValue.of(Double.parseDouble(value));
+                    case 'b' -> FieldValue.of(Boolean.parseBoolean(value));
+                    case 'n' -> FieldValue.NULL;
+                    case 's' -> FieldValue.of(new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8));
+                    default -> throw new IllegalArgumentException("Unknown sort value type");
+                });
+            }
+            return new SearchAfterCursor(values, parts[0].isEmpty() ? null : parts[0]);
+        } catch (RuntimeException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
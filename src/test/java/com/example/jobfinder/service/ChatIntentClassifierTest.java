@@ -0,0 +1,147 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.dto.gemini.GeminiIntentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatIntentClassifierTest {
+
+    private final ChatIntentClassifier classifier = new ChatIntentClassifier(new SimpleMeterRegistry(), true, 200, 4);
+
+    private ChatIntentClassifier.LocalIntent classifyLocally(String message) {
+        Optional<ChatIntentClassifier.LocalIntent> result = classifier.classify(message);
+        assertTrue(result.isPresent(), () -> "expected local intent for: " + message);
+        return result.get();
+    }
+
+    private GeminiIntentResponse.JobSearchParams jobSearch(String message) {
+        ChatIntentClassifier.LocalIntent intent = classifyLocally(message);
+        assertEquals("job_search", intent.analysis().getIntent());
+        assertNull(intent.reply());
+        return intent.analysis().getJobSearchParams();
+    }
+
+    private void assertFallsBackToLlm(String message) {
+        assertTrue(classifier.classify(message).isEmpty(), () -> "expected LLM fallback for: " + message);
+    }
+
+    @Test
+    void answersSmallTalkWithCannedReplies() {
+        ChatIntentClassifier.LocalIntent greeting = classifyLocally("Chào bạn");
+        ChatIntentClassifier.LocalIntent thanks = classifyLocally("cảm ơn bạn nhiều nhé!");
+        ChatIntentClassifier.LocalIntent bye = classifyLocally("Tạm biệt");
+
+        assertEquals("general_chat", greeting.analysis().getIntent());
+        assertEquals("general_chat", thanks.analysis().getIntent());
+        assertEquals("general_chat", bye.analysis().getIntent());
+        assertNotNull(greeting.reply());
+        assertNotNull(thanks.reply());
+        assertNotNull(bye.reply());
+        // Mỗi loại có câu trả lời riêng
+        assertNotEquals(greeting.reply(), thanks.reply());
+        assertNotEquals(thanks.reply(), bye.reply());
+        assertNotEquals(greeting.reply(), bye.reply());
+    }
+
+    @Test
+    void extractsJobSearchParams() {
+        GeminiIntentResponse.JobSearchParams params = jobSearch("tìm việc Java ở Hà Nội lương trên 20 triệu");
+
+        assertEquals("Java", params.getJobTitle());
+        assertEquals("Hà Nội", params.getLocation());
+        assertEquals(20_000_000f, params.getMinSalary());
+        assertNull(params.getMaxSalary());
+    }
+
+    @Test
+    void appliesTrailingUnitToBothEndsOfSalaryRange() {
+        GeminiIntentResponse.JobSearchParams params = jobSearch("việc làm .NET 15-20tr tp.hcm");
+
+        assertEquals(".NET", params.getJobTitle());
+        assertEquals("Hồ Chí Minh", params.getLocation());
+        assertEquals(15_000_000f, params.getMinSalary());
+        assertEquals(20_000_000f, params.getMaxSalary());
+    }
+
+    @Test
+    void doesNotReadRangeWithoutCurrencyAsSalary() {
+        GeminiIntentResponse.JobSearchParams params = jobSearch("tìm việc java 2-3 năm");
+
+        assertEquals("java 2-3 năm", params.getJobTitle());
+        assertNull(params.getMinSalary());
+        assertNull(params.getMaxSalary());
+        // Con số đứng riêng chưa hiểu được thì để LLM suy luận
+        assertFallsBackToLlm("việc làm java 2 - 3 năm");
+    }
+
+    @Test
+    void leavesAmbiguousSalaryToLlm() {
+        // Không rõ 15 triệu là mức tối thiểu hay tối đa
+        assertFallsBackToLlm("việc làm lương 15 triệu");
+    }
+
+    @Test
+    void leavesBlockedTopicsToLlm() {
+        assertFallsBackToLlm("Đánh giá về FPT Software");
+        assertFallsBackToLlm("Việc làm IT của FPT");
+        assertFallsBackToLlm("trạng thái đơn ứng tuyển");
+        assertFallsBackToLlm("thông tin công ty");
+    }
+
+    @Test
+    void matchesUnaccentedInput() {
+        GeminiIntentResponse.JobSearchParams params = jobSearch("tim viec java o ha noi luong tren 15 trieu");
+
+        assertEquals("java", params.getJobTitle());
+        assertEquals("Hà Nội", params.getLocation());
+        assertEquals(15_000_000f, params.getMinSalary());
+
+        assertEquals("general_chat", classifyLocally("xin chao").analysis().getIntent());
+    }
+
+    @Test
+    void requiresCorrectDiacriticsWhenTyped() {
+        // "ô" không phải "ở" nên còn sót lại làm tên công việc
+        assertEquals("C++ ô tô", jobSearch("tìm việc C++ ô tô").getJobTitle());
+    }
+
+    @Test
+    void extractsLevelAndJobType() {
+        GeminiIntentResponse.JobSearchParams params = jobSearch("Tuyển dụng Data Scientist cấp senior remote");
+
+        assertEquals("Data Scientist", params.getJobTitle());
+        assertEquals("Senior", params.getJobLevel());
+        assertEquals("Remote", params.getJobType());
+    }
+
+    @Test
+    void classifiesSubscriptionQuestion() {
+        ChatIntentClassifier.LocalIntent intent = classifyLocally("Các gói đăng ký hiện có?");
+
+        assertEquals("subscription_info", intent.analysis().getIntent());
+        assertNull(intent.reply());
+    }
+
+    @Test
+    void leavesBareOrUnknownRequestsToLlm() {
+        assertFallsBackToLlm("tìm việc");
+        assertFallsBackToLlm("Thời tiết hôm nay thế nào?");
+        assertFallsBackToLlm("");
+        assertFallsBackToLlm(null);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ChatIntentClassifier disabled = new ChatIntentClassifier(new SimpleMeterRegistry(), false, 200, 4);
+
+        assertTrue(disabled.classify("Chào bạn").isEmpty());
+    }
+}
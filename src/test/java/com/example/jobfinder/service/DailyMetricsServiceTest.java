@@ -0,0 +1,139 @@
+package com.example.jobfinder.service;
+
+import com.example.jobfinder.model.DailyMetric;
+import com.example.jobfinder.repository.ApplicationRepository;
+import com.example.jobfinder.repository.DailyMetricRepository;
+import com.example.jobfinder.repository.JobFirstApplicationRepository;
+import com.example.jobfinder.repository.JobRepository;
+import com.example.jobfinder.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DailyMetricsServiceTest {
+    private static final LocalDate DAY1 = LocalDate.of(2026, 1, 1);
+    private static final LocalDate DAY2 = DAY1.plusDays(1);
+    private static final LocalDate DAY3 = DAY1.plusDays(2);
+    // Ngày rollup cuối là DAY3; DAY4, DAY5 được đếm trực tiếp
+    private static final LocalDate DAY4 = DAY1.plusDays(3);
+    private static final LocalDate DAY5 = DAY1.plusDays(4);
+
+    private final DailyMetricRepository dailyMetricRepository = mock(DailyMetricRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final ApplicationRepository applicationRepository = mock(ApplicationRepository.class);
+    private final JobFirstApplicationRepository jobFirstApplicationRepository = mock(JobFirstApplicationRepository.class);
+
+    private DailyMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailyMetricsService(dailyMetricRepository, userRepository, jobRepository, applicationRepository,
+                jobFirstApplicationRepository, mock(JdbcTemplate.class), mock(TransactionTemplate.class), false);
+
+        when(userRepository.countNewUsersByDayAndRole(any(), any())).thenReturn(List.of(
+                new Object[]{DAY4, "JOB_SEEKER", 1L},
+                new Object[]{DAY5, "EMPLOYER", 1L}));
+        when(jobRepository.countNewJobsByDay(any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{DAY4, 2L}));
+        // Job 11 đã có mốc từ trước nên lần ứng tuyển hôm DAY4 không làm tăng số job đã có người ứng tuyển
+        when(applicationRepository.findEarliestApplicationPerJobBetween(any(), any())).thenReturn(List.of(
+                new Object[]{10L, DAY4.atTime(10, 0)},
+                new Object[]{11L, DAY4.atTime(11, 0)},
+                new Object[]{12L, DAY5.atTime(9, 0)}));
+        when(jobFirstApplicationRepository.findJobIdsByJobIdIn(anyCollection())).thenReturn(List.of(11L));
+    }
+
+    private void givenRolledUp(DailyMetric... metrics) {
+        when(dailyMetricRepository.findAllByOrderByMetricDateAsc()).thenReturn(List.of(metrics));
+        service.onStartup();
+    }
+
+    private static DailyMetric metric(LocalDate day, long jobSeekers, long employers, long jobs, long appliedJobs) {
+        return DailyMetric.builder()
+                .metricDate(day)
+                .newJobSeekers(jobSeekers)
+                .newEmployers(employers)
+                .newJobs(jobs)
+                .newAppliedJobs(appliedJobs)
+                .build();
+    }
+
+    private void givenThreeRolledUpDays() {
+        givenRolledUp(
+                metric(DAY1, 1, 0, 2, 1),
+                metric(DAY2, 0, 1, 1, 0),
+                metric(DAY3, 2, 0, 0, 1));
+    }
+
+    @Test
+    void continuesPrefixSumAcrossRollupLiveBoundary() {
+        givenThreeRolledUpDays();
+
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = service.getCumulativeTotals(DAY2, DAY5);
+
+        assertEquals(List.of(DAY2, DAY3, DAY4, DAY5), List.copyOf(totals.keySet()));
+        assertEquals(new DailyMetricsService.Totals(1, 1, 3, 1), totals.get(DAY2));
+        assertEquals(new DailyMetricsService.Totals(3, 1, 3, 2), totals.get(DAY3));
+        assertEquals(new DailyMetricsService.Totals(4, 1, 5, 3), totals.get(DAY4));
+        assertEquals(new DailyMetricsService.Totals(4, 2, 5, 4), totals.get(DAY5));
+        // Phần đếm trực tiếp chỉ đọc từ ngày sau ngày rollup cuối
+        verify(applicationRepository).findEarliestApplicationPerJobBetween(DAY4.atStartOfDay(), DAY5.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void addsLiveDaysBeforeStartDateToRunningTotal() {
+        givenThreeRolledUpDays();
+
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = service.getCumulativeTotals(DAY5, DAY5);
+
+        assertEquals(1, totals.size());
+        assertEquals(new DailyMetricsService.Totals(4, 2, 5, 4), totals.get(DAY5));
+    }
+
+    @Test
+    void returnsZeroBeforeFirstRolledUpDay() {
+        givenThreeRolledUpDays();
+        LocalDate dayBefore = DAY1.minusDays(1);
+
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = service.getCumulativeTotals(dayBefore, DAY1);
+
+        assertEquals(new DailyMetricsService.Totals(0, 0, 0, 0), totals.get(dayBefore));
+        assertEquals(new DailyMetricsService.Totals(1, 0, 2, 1), totals.get(DAY1));
+    }
+
+    @Test
+    void doesNotCountLiveWhenRangeEndsInsideRollup() {
+        givenThreeRolledUpDays();
+
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = service.getCumulativeTotals(DAY1, DAY3);
+
+        assertEquals(new DailyMetricsService.Totals(3, 1, 3, 2), totals.get(DAY3));
+        verify(applicationRepository, never()).findEarliestApplicationPerJobBetween(any(), any());
+    }
+
+    @Test
+    void countsEverythingLiveWhenNothingRolledUp() {
+        givenRolledUp();
+
+        NavigableMap<LocalDate, DailyMetricsService.Totals> totals = service.getCumulativeTotals(DAY4, DAY5);
+
+        assertEquals(new DailyMetricsService.Totals(1, 0, 2, 1), totals.get(DAY4));
+        assertEquals(new DailyMetricsService.Totals(1, 1, 2, 2), totals.get(DAY5));
+        verify(applicationRepository).findEarliestApplicationPerJobBetween(
+                LocalDate.of(2000, 1, 1).atStartOfDay(), DAY5.plusDays(1).atStartOfDay());
+    }
+}
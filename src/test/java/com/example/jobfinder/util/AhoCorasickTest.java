@@ -0,0 +1,73 @@
+package com.example.jobfinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickTest {
+
+    @Test
+    void findsAllKeywordsIncludingOverlapsInEndOrder() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("he", "he")
+                .add("she", "she")
+                .add("his", "his")
+                .add("hers", "hers")
+                .build();
+
+        List<AhoCorasick.Match<String>> matches = automaton.findAll("ushers");
+
+        assertEquals(List.of(
+                new AhoCorasick.Match<>(1, 4, "she"),
+                new AhoCorasick.Match<>(2, 4, "he"),
+                new AhoCorasick.Match<>(2, 6, "hers")), matches);
+    }
+
+    @Test
+    void followsFailLinksAfterPartialMatch() {
+        // "abd" khớp dở ở "ab" rồi phải lùi về "b" để tìm thấy "bc"
+        AhoCorasick<Integer> automaton = AhoCorasick.<Integer>builder()
+                .add("abd", 1)
+                .add("bc", 2)
+                .build();
+
+        assertEquals(List.of(new AhoCorasick.Match<>(1, 3, 2)), automaton.findAll("abc"));
+    }
+
+    @Test
+    void reportsRepeatedKeywordAtEveryPosition() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder().add("aa", "aa").build();
+
+        assertEquals(List.of(
+                new AhoCorasick.Match<>(0, 2, "aa"),
+                new AhoCorasick.Match<>(1, 3, "aa")), automaton.findAll("aaa"));
+    }
+
+    @Test
+    void keepsEveryValueRegisteredForSameKeyword() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder()
+                .add("hn", "location")
+                .add("hn", "alias")
+                .build();
+
+        assertEquals(2, automaton.findAll("viec hn").size());
+    }
+
+    @Test
+    void returnsNothingWhenNoKeywordMatches() {
+        AhoCorasick<String> automaton = AhoCorasick.<String>builder().add("java", "java").build();
+
+        assertTrue(automaton.findAll("python developer").isEmpty());
+        assertTrue(automaton.findAll("").isEmpty());
+    }
+
+    @Test
+    void rejectsEmptyKeyword() {
+        assertThrows(IllegalArgumentException.class, () -> AhoCorasick.<String>builder().add("", "empty"));
+        assertThrows(IllegalArgumentException.class, () -> AhoCorasick.<String>builder().add(null, "null"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.jobfinder.util;
+
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 15, 9, 30, 12, 123_456_000);
+
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(createdAt, 9_007_199_254_740_993L));
+
+        assertEquals(new KeysetCursor(createdAt, 9_007_199_254_740_993L), cursor);
+    }
+
+    @Test
+    void roundTripsWholeMinuteTimestamp() {
+        // LocalDateTime.toString() bỏ phần giây khi bằng 0
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertEquals(new KeysetCursor(createdAt, 1L), KeysetCursor.decode(KeysetCursor.encode(createdAt, 1L)));
+    }
+
+    @Test
+    void encodesAsUrlSafeToken() {
+        assertTrue(KeysetCursor.encode(LocalDateTime.of(2026, 1, 1, 12, 0, 59), 42L).matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void treatsMissingCursorAsFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsGarbageAsInvalidCursor() {
+        for (String cursor : List.of("not base64!", encodeRaw("no-separator"), encodeRaw("2026-01-01T00:00|"),
+                encodeRaw("yesterday|1"), encodeRaw("2026-01-01T00:00|abc"), encodeRaw("|1"),
+                KeysetCursor.encode(LocalDateTime.of(2026, 1, 1, 0, 0), null))) {
+            AppException e = assertThrows(AppException.class, () -> KeysetCursor.decode(cursor), cursor);
+            assertEquals(ErrorCode.INVALID_CURSOR, e.getErrorCode());
+        }
+    }
+
+    @Test
+    void normalizesPageSize() {
+        assertEquals(KeysetCursor.DEFAULT_PAGE_SIZE, KeysetCursor.normalizeSize(null));
+        assertEquals(KeysetCursor.DEFAULT_PAGE_SIZE, KeysetCursor.normalizeSize(0));
+        assertEquals(KeysetCursor.DEFAULT_PAGE_SIZE, KeysetCursor.normalizeSize(-5));
+        assertEquals(15, KeysetCursor.normalizeSize(15));
+        assertEquals(KeysetCursor.MAX_PAGE_SIZE, KeysetCursor.normalizeSize(10_000));
+    }
+
+    @Test
+    void fetchesOneExtraRowToDetectNextPage() {
+        assertEquals(21, KeysetCursor.fetchLimit(20).max());
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.jobfinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPairSetTest {
+
+    @Test
+    void keepsEveryPairAcrossResizes() {
+        // Bảng bắt đầu ở 1024 ô nên 10 000 cặp buộc phải tăng kích thước nhiều lần
+        LongPairSet set = new LongPairSet(100_000);
+
+        for (long seeker = 1; seeker <= 100; seeker++) {
+            for (long job = 1; job <= 100; job++) {
+                assertEquals(LongPairSet.AddResult.ADDED, set.add(seeker, job));
+            }
+        }
+
+        assertEquals(10_000, set.size());
+        for (long seeker = 1; seeker <= 100; seeker++) {
+            for (long job = 1; job <= 100; job++) {
+                assertTrue(set.contains(seeker, job));
+            }
+        }
+        assertFalse(set.contains(101, 1));
+        assertFalse(set.contains(1, 101));
+    }
+
+    @Test
+    void distinguishesOrderOfPair() {
+        LongPairSet set = new LongPairSet(10);
+
+        set.add(1, 2);
+
+        assertTrue(set.contains(1, 2));
+        assertFalse(set.contains(2, 1));
+    }
+
+    @Test
+    void duplicateAddReportsPresentWithoutGrowing() {
+        LongPairSet set = new LongPairSet(10);
+
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(7, 42));
+        assertEquals(LongPairSet.AddResult.PRESENT, set.add(7, 42));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void storesZeroPairSeparatelyFromEmptySlots() {
+        LongPairSet set = new LongPairSet(10);
+
+        assertFalse(set.contains(0, 0));
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(0, 0));
+        assertEquals(LongPairSet.AddResult.PRESENT, set.add(0, 0));
+        assertTrue(set.contains(0, 0));
+        // Cặp có một thành phần bằng 0 vẫn đi qua bảng băm
+        assertFalse(set.contains(0, 1));
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(0, 1));
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(1, 0));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void acceptsNegativeAndExtremeValues() {
+        LongPairSet set = new LongPairSet(10);
+
+        set.add(-1, Long.MIN_VALUE);
+        set.add(Long.MAX_VALUE, -1);
+
+        assertTrue(set.contains(-1, Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE, -1));
+        assertFalse(set.contains(Long.MIN_VALUE, -1));
+    }
+
+    @Test
+    void rejectsNewPairsOnceFullButKeepsExistingOnes() {
+        LongPairSet set = new LongPairSet(3);
+
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(1, 1));
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(1, 2));
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(1, 3));
+
+        assertEquals(LongPairSet.AddResult.FULL, set.add(1, 4));
+        assertEquals(LongPairSet.AddResult.FULL, set.add(0, 0));
+        // Cặp đã có vẫn được nhận ra là trùng, không bị đếm lại
+        assertEquals(LongPairSet.AddResult.PRESENT, set.add(1, 2));
+        assertEquals(3, set.size());
+        assertFalse(set.contains(1, 4));
+        assertFalse(set.contains(0, 0));
+    }
+
+    @Test
+    void zeroPairCountsTowardsLimit() {
+        LongPairSet set = new LongPairSet(1);
+
+        assertEquals(LongPairSet.AddResult.ADDED, set.add(0, 0));
+        assertEquals(LongPairSet.AddResult.FULL, set.add(5, 5));
+        assertEquals(LongPairSet.AddResult.PRESENT, set.add(0, 0));
+    }
+
+    @Test
+    void fillsLimitThatIsNotPowerOfTwo() {
+        LongPairSet set = new LongPairSet(1_500);
+
+        for (long job = 1; job <= 1_500; job++) {
+            assertEquals(LongPairSet.AddResult.ADDED, set.add(9, job));
+        }
+
+        assertEquals(LongPairSet.AddResult.FULL, set.add(9, 1_501));
+        assertEquals(1_500, set.size());
+        for (long job = 1; job <= 1_500; job++) {
+            assertTrue(set.contains(9, job));
+        }
+    }
+
+    @Test
+    void clampsMaxEntriesAndRejectsNonPositive() {
+        assertEquals(1 << 29, new LongPairSet(Integer.MAX_VALUE).maxEntries());
+        assertEquals(50, new LongPairSet(50).maxEntries());
+        assertThrows(IllegalArgumentException.class, () -> new LongPairSet(0));
+        assertThrows(IllegalArgumentException.class, () -> new LongPairSet(-1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.jobfinder.util;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.example.jobfinder.exception.AppException;
+import com.example.jobfinder.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchAfterCursorTest {
+
+    private static SearchAfterCursor roundTrip(SearchAfterCursor cursor) {
+        return SearchAfterCursor.decode(cursor.encode());
+    }
+
+    private static void assertSameValues(List<FieldValue> expected, List<FieldValue> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)._kind(), actual.get(i)._kind());
+            assertEquals(expected.get(i)._get(), actual.get(i)._get());
+        }
+    }
+
+    @Test
+    void roundTripsEverySortValueType() {
+        List<FieldValue> values = List.of(
+                FieldValue.of(1_767_225_600_000L),
+                FieldValue.of(4.25),
+                FieldValue.of("Kỹ sư Java"),
+                FieldValue.NULL,
+                FieldValue.of(true),
+                FieldValue.of(-42L));
+
+        SearchAfterCursor decoded = roundTrip(new SearchAfterCursor(values, null));
+
+        assertSameValues(values, decoded.sortValues());
+        assertNull(decoded.pitId());
+    }
+
+    @Test
+    void roundTripsPitId() {
+        String pitId = "46ToAwMDaWR5BXV1aWQyKwZub2RlXzMAAAAAAAAAACoBYwADaWR4BXV1aWQxAgZub2RlXzEAAAAAAAAAAAEBYQADaWR5BXV1aWQyKgZub2RlXzIAAAAAAAAAAAwBYgACBXV1aWQyAAAFdXVpZDEAAQltYXRjaF9hbGw_gAAAAA==";
+        List<FieldValue> values = List.of(FieldValue.of(1_767_225_600_000L), FieldValue.of(7L), FieldValue.of(123L));
+
+        SearchAfterCursor decoded = roundTrip(new SearchAfterCursor(values, pitId));
+
+        assertEquals(pitId, decoded.pitId());
+        assertSameValues(values, decoded.sortValues());
+    }
+
+    @Test
+    void roundTripsStringsContainingSeparatorOrEmpty() {
+        List<FieldValue> values = List.of(FieldValue.of("a|b|"), FieldValue.of(""), FieldValue.of("|"));
+
+        assertSameValues(values, roundTrip(new SearchAfterCursor(values, null)).sortValues());
+    }
+
+    @Test
+    void encodesAsUrlSafeToken() {
+        String cursor = new SearchAfterCursor(List.of(FieldValue.of("?/+="), FieldValue.of(1L)), "pit").encode();
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void treatsMissingOrStarAsFirstPage() {
+        assertTrue(SearchAfterCursor.isFirstPage(null));
+        assertTrue(SearchAfterCursor.isFirstPage(" "));
+        assertTrue(SearchAfterCursor.isFirstPage(" * "));
+        assertFalse(SearchAfterCursor.isFirstPage(new SearchAfterCursor(List.of(FieldValue.of(1L)), null).encode()));
+    }
+
+    @Test
+    void rejectsGarbageAsInvalidCursor() {
+        for (String cursor : List.of("not base64!", "*", "", encodeRaw("no-separator"), encodeRaw("pit|"),
+                encodeRaw("|x12"), encodeRaw("|lnot-a-number"), encodeRaw("|dabc"), encodeRaw("|s%%%"))) {
+            AppException e = assertThrows(AppException.class, () -> SearchAfterCursor.decode(cursor), cursor);
+            assertEquals(ErrorCode.INVALID_CURSOR, e.getErrorCode());
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}